@@ -1,9 +1,17 @@
 package com.poc.migration.config;
 
+import com.poc.migration.model.SchemaExtractor;
+import com.poc.migration.model.TableSchedulingPolicy;
+import com.poc.migration.model.ValidationMode;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for migration operations.
  */
@@ -27,12 +35,87 @@ public class MigrationProperties {
      */
     private RetryConfig retry = new RetryConfig();
     
+    /**
+     * Connection pool configuration for source/target databases.
+     */
+    private PoolConfig pool = new PoolConfig();
+    
+    /**
+     * Table scheduling configuration for migration jobs.
+     */
+    private SchedulingConfig scheduling = new SchedulingConfig();
+    
+    /**
+     * Upper limits accepted for per-job migration rule settings.
+     */
+    private RuleLimitsConfig ruleLimits = new RuleLimitsConfig();
+    
+    /**
+     * Closed-loop throttling of the migration read rate.
+     */
+    private ThrottleConfig throttle = new ThrottleConfig();
+    
+    /**
+     * Migration rule autotuning by sample benchmark.
+     */
+    private AutotuneConfig autotune = new AutotuneConfig();
+    
+    /**
+     * Validation concurrency configuration.
+     */
+    private ValidationConfig validation = new ValidationConfig();
+    
     @Data
     public static class SchemaConfig {
         /**
          * Output directory for generated schema files.
          */
         private String outputDir = "/app/generated-schema/";
+        
+        /**
+         * Default schema extraction engine; jobs may override it with schemaExtractor.
+         */
+        private SchemaExtractor extractor = SchemaExtractor.LIQUIBASE;
+        
+        /**
+         * Reuse the changelogs of an unchanged source schema from outputDir/cache
+         * instead of generating and normalizing them again.
+         */
+        private boolean cacheEnabled = true;
+        
+        /**
+         * Create secondary indexes, unique constraints and foreign keys after the
+         * inventory load instead of with the tables.
+         */
+        private boolean deferPostData = true;
+        
+        /**
+         * Path of a job's generated changelog.
+         */
+        public String generatedChangelogPath(Long jobId) {
+            return outputDir + "job-" + jobId + "-changelog.xml";
+        }
+        
+        /**
+         * Path of a job's normalized changelog.
+         */
+        public String normalizedChangelogPath(Long jobId) {
+            return outputDir + "job-" + jobId + "-changelog.normalized.xml";
+        }
+        
+        /**
+         * Path of a job's pre-data changelog (tables and primary keys).
+         */
+        public String preDataChangelogPath(Long jobId) {
+            return outputDir + "job-" + jobId + "-changelog.pre-data.xml";
+        }
+        
+        /**
+         * Path of a job's post-data changelog (secondary indexes, unique constraints, foreign keys).
+         */
+        public String postDataChangelogPath(Long jobId) {
+            return outputDir + "job-" + jobId + "-changelog.post-data.xml";
+        }
     }
     
     @Data
@@ -44,9 +127,45 @@ public class MigrationProperties {
         
         /**
          * Maximum number of status checks before timeout.
+         * Together with checkIntervalMs this defines the monitoring time budget.
          */
         private int maxChecks = 120;
         
+        /**
+         * Fastest poll interval, used while jobs approach incremental sync (milliseconds).
+         */
+        private long minCheckIntervalMs = 1000;
+        
+        /**
+         * Slowest poll interval, reached while inventory is far from done (milliseconds).
+         */
+        private long maxCheckIntervalMs = 30000;
+        
+        /**
+         * Factor applied to the poll interval while no job is close to ready.
+         */
+        private double backoffMultiplier = 1.5;
+        
+        /**
+         * Inventory percentage at which a job counts as close to incremental sync.
+         */
+        private int nearReadyPercentage = 90;
+        
+        /**
+         * Maximum concurrent SHOW MIGRATION STATUS queries per poll.
+         */
+        private int statusFetchConcurrency = 8;
+        
+        /**
+         * Number of progress samples kept per migration job.
+         */
+        private int progressHistorySize = 720;
+        
+        /**
+         * Number of most recent samples used to compute throughput and ETA.
+         */
+        private int rateWindowSamples = 6;
+        
         /**
          * Query timeout for validation queries (seconds).
          */
@@ -65,6 +184,342 @@ public class MigrationProperties {
          */
         private long delayMs = 2000;
     }
+    
+    @Data
+    public static class PoolConfig {
+        /**
+         * Maximum pooled connections per source database.
+         */
+        private int sourceMaxPoolSize = 8;
+        
+        /**
+         * Maximum pooled connections per target database.
+         */
+        private int targetMaxPoolSize = 16;
+        
+        /**
+         * Minimum idle connections kept per pool.
+         */
+        private int minIdle = 0;
+        
+        /**
+         * Maximum time to wait for a pooled connection (milliseconds).
+         */
+        private long connectionTimeoutMs = 30000;
+        
+        /**
+         * Time after which an idle pooled connection is retired (milliseconds).
+         */
+        private long idleTimeoutMs = 60000;
+        
+        /**
+         * Maximum lifetime of a pooled connection (milliseconds).
+         */
+        private long maxLifetimeMs = 1800000;
+    }
+    
+    @Data
+    public static class SchedulingConfig {
+        /**
+         * Order in which tables are admitted as migration jobs.
+         */
+        private TableSchedulingPolicy policy = TableSchedulingPolicy.LARGEST_FIRST;
+        
+        /**
+         * Maximum migration jobs in inventory at a time (0 or less = no limit).
+         * Further tables are admitted as running jobs reach incremental sync.
+         */
+        private int maxConcurrentInventoryJobs = 4;
+    }
+    
+    @Data
+    public static class RuleLimitsConfig {
+        /**
+         * Maximum READ/WRITE worker threads per job.
+         */
+        private int maxWorkerThreads = 64;
+        
+        /**
+         * Maximum READ/WRITE batch size.
+         */
+        private int maxBatchSize = 20000;
+        
+        /**
+         * Maximum rows per inventory sharding split.
+         */
+        private int maxShardingSize = 100000000;
+        
+        /**
+         * Maximum stream channel block queue size.
+         */
+        private int maxBlockQueueSize = 100000;
+    }
+    
+    @Data
+    public static class ThrottleConfig {
+        /**
+         * Adjust the READ rate limiter from source/target load during data migration.
+         */
+        private boolean enabled = false;
+        
+        /**
+         * Interval between load samples (milliseconds).
+         */
+        private long sampleIntervalMs = 2000;
+        
+        /**
+         * Read QPS bounds. The controller starts at the request's readQps, or maxQps if unset.
+         */
+        private int minQps = 50;
+        private int maxQps = 5000;
+        
+        /**
+         * Additive increase per idle sample.
+         */
+        private int increaseStep = 200;
+        
+        /**
+         * Multiplicative decrease under pressure.
+         */
+        private double decreaseFactor = 0.5;
+        
+        /**
+         * Minimum time between two increases (milliseconds).
+         * Decreases are never delayed.
+         */
+        private long increaseCooldownMs = 30000;
+        
+        /**
+         * Source active sessions (MySQL Threads_running, PostgreSQL active backends).
+         * At or above high the source is under pressure, at or below low it is idle.
+         */
+        private int sourceActiveHigh = 32;
+        private int sourceActiveLow = 8;
+        
+        /**
+         * Source replication lag (seconds).
+         */
+        private double replicationLagHighSeconds = 10;
+        private double replicationLagLowSeconds = 2;
+        
+        /**
+         * Target round-trip latency (milliseconds).
+         */
+        private long targetLatencyHighMs = 200;
+        private long targetLatencyLowMs = 50;
+        
+        /**
+         * Restart jobs still in inventory after an adjustment.
+         * The proxy reads the rate limiter when a job starts, so running jobs
+         * only pick up a new limit after STOP/START MIGRATION (resumes from checkpoint).
+         */
+        private boolean restartInventoryJobs = true;
+        
+        /**
+         * Restart only when the read QPS differs from the rate the jobs were last
+         * started with by more than this fraction of it.
+         */
+        private double restartThreshold = 0.25;
+        
+        /**
+         * Minimum time between two restarts of the inventory jobs (milliseconds).
+         */
+        private long restartCooldownMs = 120000;
+        
+        /**
+         * Maximum wait for a stopped job to report inactive before START (milliseconds).
+         */
+        private long stopTimeoutMs = 30000;
+    }
+    
+    @Data
+    public static class AutotuneConfig {
+        /**
+         * Benchmark candidate rules before data configuration.
+         * A request can override this with migrationRule.autotune.
+         */
+        private boolean enabled = false;
+        
+        /**
+         * Rows copied from the representative table per trial.
+         */
+        private int sampleRows = 20000;
+        
+        /**
+         * Reuse the selected trial of the same source/target pair for this long (hours).
+         */
+        private long reuseMaxAgeHours = 168;
+        
+        /**
+         * Candidate write worker thread / batch size combinations.
+         */
+        private List<Candidate> candidates = new ArrayList<>(List.of(
+            new Candidate(4, 500),
+            new Candidate(8, 1000),
+            new Candidate(8, 2000),
+            new Candidate(16, 2000)
+        ));
+        
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Candidate {
+            private int workerThreads;
+            private int batchSize;
+        }
+    }
+    
+    @Data
+    public static class ValidationConfig {
+        /**
+         * Default validation mode; a request can override it.
+         */
+        private ValidationMode mode = ValidationMode.ROW_COUNT;
+        
+        /**
+         * Maximum concurrent validation queries against the source.
+         */
+        private int sourceConcurrency = 4;
+        
+        /**
+         * Maximum concurrent validation queries against the target.
+         */
+        private int targetConcurrency = 8;
+        
+        /**
+         * Stop validating further tables after the first failure.
+         */
+        private boolean failFast = false;
+        
+        /**
+         * Read the source inside a consistent snapshot, wait for the incremental sync to
+         * drain and re-check failed tables, so validation can run while CDC is live.
+         * On MySQL the snapshot cannot be shared, so source queries run one at a time.
+         * A request can override it.
+         */
+        private boolean consistentSnapshot = false;
+        
+        /**
+         * Incremental sync idle time after the snapshot that counts as drained.
+         */
+        private long drainIdleSeconds = 5;
+        
+        /**
+         * Maximum wait for the incremental sync to drain before comparing anyway.
+         */
+        private long drainTimeoutSeconds = 300;
+        
+        /**
+         * Times a failed table is re-checked in a new snapshot before it fails.
+         */
+        private int recheckAttempts = 3;
+        
+        /**
+         * Delay before each re-check (milliseconds).
+         */
+        private long recheckDelayMs = 5000;
+        
+        /**
+         * Compare catalog row estimates of source and target before exact validation.
+         */
+        private boolean catalogPreCheck = true;
+        
+        /**
+         * Ratio between the larger and smaller catalog estimate above which a table is suspicious.
+         * Estimates can be off by tens of percent, so keep this well above 1.
+         */
+        private double catalogMaxDeviation = 10.0;
+        
+        /**
+         * Tables whose estimates are both below this are never suspicious.
+         */
+        private long catalogMinRows = 10000;
+        
+        /**
+         * Fail validation without exact queries when a table is suspicious;
+         * otherwise suspicious tables are validated first.
+         */
+        private boolean catalogFailFast = false;
+        
+        /**
+         * Key ranges counted concurrently per table (RANGE_COUNT mode);
+         * a request can override it.
+         */
+        private int countRanges = 16;
+        
+        /**
+         * Keys per checksum range (CHECKSUM mode).
+         */
+        private long checksumChunkSize = 100000;
+        
+        /**
+         * Upper bound on checksum ranges per table; wider ranges are used for sparse keys.
+         */
+        private int maxChunksPerTable = 10000;
+        
+        /**
+         * Mismatched ranges are bisected until they span at most this many keys.
+         */
+        private long drillDownMinRows = 1000;
+        
+        /**
+         * Persist range checksums per job and table, and recompute only changed
+         * ranges when the job is validated again.
+         */
+        private boolean checksumIndexEnabled = true;
+        
+        /**
+         * Column holding each row's last modification time. Ranges with rows updated since
+         * the previous checksum run are recomputed; without it every range is.
+         * A request can override it.
+         */
+        private String updatedAtColumn;
+        
+        /**
+         * Safety margin when looking for updated rows (clock skew, long transactions).
+         */
+        private long updatedAtLookbackSeconds = 300;
+        
+        /**
+         * Rows sampled per table (SAMPLE mode); a request can override it.
+         */
+        private int sampleSize = 10000;
+        
+        /**
+         * Keys per IN-list when fetching sampled rows.
+         */
+        private int sampleBatchSize = 500;
+        
+        /**
+         * Confidence level of the reported mismatch rate bound.
+         */
+        private double sampleConfidence = 0.95;
+        
+        /**
+         * Rows fetched per round trip by streaming validation cursors
+         * (ROW_DIFF, and CHECKSUM between different database types).
+         */
+        private int rowDiffFetchSize = 1000;
+        
+        /**
+         * Between different database types, diff tables with text or composite keys by
+         * sorting (key, row hash) tuples on disk instead of relying on ORDER BY.
+         */
+        private boolean rowDiffExternalSort = true;
+        
+        /**
+         * Heap buffer per table side before sorted runs are spilled to disk (MB).
+         */
+        private int externalSortBufferMb = 64;
+        
+        /**
+         * Maximum sorted runs merged at once.
+         */
+        private int externalSortFanIn = 64;
+        
+        /**
+         * Rows per upsert batch (and commit) when repairing mismatched key ranges.
+         */
+        private int repairBatchSize = 1000;
+    }
 }
-
-
@@ -47,6 +47,42 @@ public class ShardingSphereProperties {
      * Defaults to mysql.
      */
     private String type = "mysql";
+    
+    /**
+     * Connection pool settings for proxy sessions.
+     */
+    private PoolConfig pool = new PoolConfig();
+    
+    @Data
+    public static class PoolConfig {
+        /**
+         * Maximum pooled connections per proxy logical database.
+         */
+        private int maxPoolSize = 10;
+        
+        /**
+         * Minimum idle connections kept open to the proxy.
+         */
+        private int minIdle = 1;
+        
+        /**
+         * Maximum time to wait for a pooled proxy connection (milliseconds).
+         */
+        private long connectionTimeoutMs = 30000;
+        
+        /**
+         * Interval for keepalive health checks on idle connections (milliseconds).
+         */
+        private long keepaliveTimeMs = 60000;
+        
+        /**
+         * Timeout for connection validation checks (milliseconds).
+         */
+        private long validationTimeoutMs = 5000;
+        
+        /**
+         * Maximum lifetime of a pooled proxy connection (milliseconds).
+         */
+        private long maxLifetimeMs = 1800000;
+    }
 }
-
-
@@ -1,7 +1,9 @@
 package com.poc.migration.controller;
 
 import com.poc.migration.model.Job;
+import com.poc.migration.model.JobEvent;
 import com.poc.migration.model.JobRequest;
+import com.poc.migration.model.RepairRequest;
 import com.poc.migration.service.JobService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +12,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST controller for migration job operations.
  * Exception handling is centralized in GlobalExceptionHandler.
@@ -47,4 +51,36 @@ public class JobController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Get the event history of a migration job (e.g. throttle adjustments).
+     */
+    @GetMapping("/{id}/events")
+    public ResponseEntity<List<JobEvent>> getJobEvents(@PathVariable Long id) {
+        if (jobService.getJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(jobService.getJobEvents(id));
+    }
+
+    /**
+     * Re-sync the mismatched key ranges of a job awaiting repair, re-validate it and commit
+     * it once the data matches. Without a body, the mismatched ranges from the job's last
+     * validation are repaired.
+     * Returns immediately; the outcome shows in the job status and its REPAIR events.
+     */
+    @PostMapping("/{id}/repair")
+    public ResponseEntity<Job> repairJob(
+            @PathVariable Long id,
+            @Valid @RequestBody(required = false) RepairRequest repairRequest) {
+        if (jobService.getJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        log.info("Received repair request for job ID: {}", id);
+        jobService.repairJob(id, repairRequest);
+        
+        return jobService.getJob(id)
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.poc.migration.exception;
+
+import java.util.List;
+
+/**
+ * Exception thrown when a DistSQL batch fails part way.
+ * Carries the positions of the statements that were executed before the failure.
+ */
+public class DistSQLBatchException extends DataMigrationException {
+    
+    private final List<Integer> executedStatements;
+    
+    public DistSQLBatchException(String message, List<Integer> executedStatements, Throwable cause) {
+        super(message, cause);
+        this.executedStatements = List.copyOf(executedStatements);
+    }
+    
+    /**
+     * Positions in the batch of the statements that succeeded.
+     */
+    public List<Integer> getExecutedStatements() {
+        return executedStatements;
+    }
+}
@@ -0,0 +1,138 @@
+package com.poc.migration.executor;
+
+import com.poc.migration.executor.validation.ChecksumIndex;
+import com.poc.migration.executor.validation.ChecksumValidator;
+import com.poc.migration.executor.validation.KeyRange;
+import com.poc.migration.executor.validation.ParallelValidationEngine;
+import com.poc.migration.executor.validation.RangeChecksum;
+import com.poc.migration.executor.validation.RangeRepairer;
+import com.poc.migration.executor.validation.RepairResult;
+import com.poc.migration.executor.validation.ValidationResult;
+import com.poc.migration.executor.validation.ValidationSession;
+import com.poc.migration.infrastructure.database.ConnectionRole;
+import com.poc.migration.infrastructure.database.DataSourceRegistry;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.model.JobRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repairs a job that failed validation by re-syncing only mismatched key ranges,
+ * instead of rolling the migration back and starting over.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RepairExecutor {
+    
+    private final ParallelValidationEngine validationEngine;
+    private final RangeRepairer rangeRepairer;
+    private final ChecksumValidator checksumValidator;
+    private final ChecksumIndex checksumIndex;
+    private final DataSourceRegistry dataSourceRegistry;
+    
+    /**
+     * Repair the given ranges per table; tables without ranges given are repaired at the
+     * ranges that did not match (or are dirty) in the job's checksum index.
+     * Tables are repaired one at a time to keep the extra load on the target small.
+     */
+    public List<RepairResult> repair(Long jobId, JobRequest request, Map<String, List<KeyRange>> requestedRanges) {
+        log.info("[Job-{}] ========== Starting Range Repair ==========", jobId);
+        
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        
+        Map<String, List<KeyRange>> ranges = requestedRanges.isEmpty()
+            ? indexedMismatches(jobId, request.getTablesToMigrate())
+            : requestedRanges;
+        if (ranges.isEmpty()) {
+            log.info("[Job-{}] No mismatched key ranges to repair", jobId);
+            return List.of();
+        }
+        
+        // Pools were released when the job finished; hold them for the repair only
+        DatabaseConnectionConfig[] pooledConfigs = {
+            sourceConfig, targetConfig, sourceConfig.asStreaming(), targetConfig.asStreaming()
+        };
+        dataSourceRegistry.retain(pooledConfigs);
+        try {
+            ValidationSession session = validationEngine.newSession(jobId, sourceConfig, targetConfig, request);
+            List<RepairResult> results = new ArrayList<>();
+            
+            for (Map.Entry<String, List<KeyRange>> entry : ranges.entrySet()) {
+                try {
+                    results.add(rangeRepairer.repair(entry.getKey(), entry.getValue(), session));
+                } catch (Exception e) {
+                    log.error("  ✗ Table '{}': repair failed: {}", entry.getKey(), e.getMessage(), e);
+                    results.add(RepairResult.failed(entry.getKey(), entry.getValue(), e.getMessage()));
+                }
+            }
+            
+            long repaired = results.stream().filter(RepairResult::isRepaired).count();
+            log.info("[Job-{}] Range repair: {}/{} tables match after repair", jobId, repaired, results.size());
+            return results;
+            
+        } finally {
+            dataSourceRegistry.release(pooledConfigs);
+        }
+    }
+    
+    /**
+     * Checksum the repaired ranges again once the incremental sync has drained, in a source
+     * snapshot and with the usual re-check rounds. Returns the ranges per table that still
+     * differ; a table whose check failed keeps all of its ranges.
+     */
+    public Map<String, List<KeyRange>> verify(Long jobId, JobRequest request, Map<String, List<KeyRange>> ranges) {
+        log.info("[Job-{}] Verifying {} repaired tables", jobId, ranges.size());
+        
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        ValidationSession session = validationEngine.newSession(jobId, sourceConfig, targetConfig, request, true);
+        
+        Map<String, ValidationResult> results = validationEngine.validate(List.copyOf(ranges.keySet()), session,
+            (table, tableSession) -> {
+                List<KeyRange> mismatched = checksumValidator.recheck(table, ranges.get(table), tableSession);
+                return new ValidationResult(table, -1, -1, mismatched.isEmpty(), null, mismatched);
+            });
+        
+        Map<String, List<KeyRange>> stillMismatched = new LinkedHashMap<>();
+        for (ValidationResult result : results.values()) {
+            if (!result.isValid()) {
+                stillMismatched.put(result.tableName(), result.error() != null
+                    ? ranges.get(result.tableName())
+                    : result.mismatchedRanges());
+            }
+        }
+        log.info("[Job-{}] Verification: {}/{} repaired tables match", jobId,
+                ranges.size() - stillMismatched.size(), ranges.size());
+        return stillMismatched;
+    }
+    
+    /**
+     * Leaf ranges of each table's checksum tree that are dirty or did not match.
+     */
+    private Map<String, List<KeyRange>> indexedMismatches(Long jobId, List<String> tables) {
+        Map<String, List<KeyRange>> ranges = new LinkedHashMap<>();
+        for (String table : tables) {
+            ChecksumIndex.Tree tree = checksumIndex.load(jobId, table);
+            if (tree == null) {
+                continue;
+            }
+            
+            List<RangeChecksum> leaves = tree.leaves();
+            List<KeyRange> stale = tree.staleLeaves().stream()
+                .map(position -> leaves.get(position).range())
+                .toList();
+            if (!stale.isEmpty()) {
+                ranges.put(table, stale);
+            }
+        }
+        return ranges;
+    }
+}
@@ -1,10 +1,20 @@
 package com.poc.migration.executor;
 
+import com.poc.migration.config.MigrationProperties;
 import com.poc.migration.exception.SchemaException;
+import com.poc.migration.executor.schema.ChangelogNormalizer;
+import com.poc.migration.executor.schema.ChangelogScopeFilter;
+import com.poc.migration.executor.schema.ChangelogSplitter;
+import com.poc.migration.executor.schema.NativeSchemaExtractor;
+import com.poc.migration.executor.schema.SchemaFingerprinter;
+import com.poc.migration.executor.schema.TypeMappingRules;
+import com.poc.migration.infrastructure.database.ConnectionRole;
 import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
 import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
 import com.poc.migration.infrastructure.database.DatabaseType;
 import com.poc.migration.model.JobRequest;
+import com.poc.migration.model.SchemaExtractor;
+import com.poc.migration.util.SqlValidator;
 
 import liquibase.Liquibase;
 import liquibase.database.Database;
@@ -14,22 +24,19 @@ import liquibase.resource.DirectoryResourceAccessor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.sql.Array;
 import java.sql.Connection;
-import java.util.Map;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for schema generation, normalization, and application using Liquibase.
@@ -41,108 +48,171 @@ import java.util.Map;
 public class SchemaExecutor {
     
     private final DatabaseConnectionFactory connectionFactory;
+    private final NativeSchemaExtractor nativeSchemaExtractor;
+    private final SchemaFingerprinter schemaFingerprinter;
+    private final MigrationProperties properties;
 
     /**
-     * Generates changelog using Liquibase's command-line equivalent approach.
-     * Most reliable method for full schema capture.
+     * Generates the source changelog for the requested tables with the job's schema
+     * extractor (default: migration.schema.extractor). Returns the extraction time in
+     * milliseconds, so the engines can be compared.
      */
-    public void generateChangelog(JobRequest request, String changelogPath) {
+    public long generateChangelog(JobRequest request, String changelogPath) {
         JobRequest.DbConfig source = request.getSource();
-        DatabaseConnectionConfig config = convertToConnectionConfig(source);
-        String jdbcUrl = connectionFactory.buildJdbcUrl(config);
+        DatabaseConnectionConfig config = DatabaseConnectionConfig.from(source, ConnectionRole.SOURCE);
+        SchemaExtractor extractor = resolveExtractor(request);
         
-        log.info("Generating Liquibase changelog from source: {}", jdbcUrl);
+        log.info("Generating changelog with {} extractor from source: {}",
+                extractor, connectionFactory.buildJdbcUrl(config));
     
         // Ensure output directory exists
         File outputFile = new File(changelogPath);
         outputFile.getParentFile().mkdirs();
     
         try {
-            // Build Liquibase command programmatically
-            java.util.Map<String, Object> scopeValues = new java.util.HashMap<>();
-            scopeValues.put("liquibase.command.url", jdbcUrl);
-            scopeValues.put("liquibase.command.username", source.getUser());
-            scopeValues.put("liquibase.command.password", source.getPassword());
-            scopeValues.put("liquibase.command.changelogFile", changelogPath);
-    
-            liquibase.Scope.child(scopeValues, () -> {
-                liquibase.command.CommandScope commandScope = new liquibase.command.CommandScope("generateChangelog");
-                commandScope.addArgumentValue("changelogFile", changelogPath);
-                commandScope.execute();
-            });
+            long startedAt = System.currentTimeMillis();
+            List<String> tables = request.getTablesToMigrate();
+            tables.forEach(SqlValidator::validateTableName);
+            
+            if (extractor == SchemaExtractor.NATIVE) {
+                nativeSchemaExtractor.extract(config, tables, Paths.get(changelogPath));
+            } else {
+                generateWithLiquibase(source, config, tables, changelogPath);
+            }
     
-            log.info("Changelog generated successfully at {}", changelogPath);
+            long elapsedMs = System.currentTimeMillis() - startedAt;
+            log.info("Changelog generated successfully at {} by {} extractor in {} ms",
+                    changelogPath, extractor, elapsedMs);
+            return elapsedMs;
     
         } catch (Exception e) {
             log.error("Failed to generate changelog: {}", e.getMessage(), e);
             throw new SchemaException("Failed to generate changelog", e);
         }
     }
-
+    
     /**
-     * Parses the generated XML changelog and auto-translates common types.
-     * This is a "best-effort" translation for the POC.
+     * Fingerprint of the requested tables' source schema, for the schema cache.
      */
-    public void normalizeChangelog(JobRequest request, String inputPath, String outputPath) {
-        try {
-            Map<String, String> typeMappings = request.getDataTypeMappings();
-            String sourceType = request.getSource().getType();
-            String targetType = request.getTarget().getType();
+    public String fingerprintSource(JobRequest request) {
+        DatabaseConnectionConfig config = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        request.getTablesToMigrate().forEach(SqlValidator::validateTableName);
+        return schemaFingerprinter.fingerprint(config, request.getTablesToMigrate(), resolveExtractor(request));
+    }
+    
+    /**
+     * Schema extractor requested by the job, or the configured default.
+     */
+    public SchemaExtractor resolveExtractor(JobRequest request) {
+        return request.getSchemaExtractor() != null
+            ? request.getSchemaExtractor()
+            : properties.getSchema().getExtractor();
+    }
 
-            // 1. Load the XML Document
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(new File(inputPath));
+    /**
+     * Generates changelog using Liquibase's command-line equivalent approach.
+     * Scoped to the requested tables (with their columns, keys and indexes) and the
+     * sequences they use, so the snapshot tracks the migration scope rather than the
+     * size of the source database. Foreign keys to tables outside the scope are removed.
+     */
+    private void generateWithLiquibase(JobRequest.DbConfig source, DatabaseConnectionConfig config,
+            List<String> tables, String changelogPath) throws Exception {
+        List<String> sequences = findOwnedSequences(config, tables);
+        String includeObjects = includeObjects(tables, sequences);
+        log.info("Scoping changelog to {} tables and {} sequences", tables.size(), sequences.size());
+        
+        // Build Liquibase command programmatically
+        java.util.Map<String, Object> scopeValues = new java.util.HashMap<>();
+        scopeValues.put("liquibase.command.url", connectionFactory.buildJdbcUrl(config));
+        scopeValues.put("liquibase.command.username", source.getUser());
+        scopeValues.put("liquibase.command.password", source.getPassword());
+        scopeValues.put("liquibase.command.changelogFile", changelogPath);
 
-            // 2. Find all <column> nodes
-            NodeList columnNodes = doc.getElementsByTagName("column");
-            for (int i = 0; i < columnNodes.getLength(); i++) {
-                Node node = columnNodes.item(i);
-                if (node.getNodeType() == Node.ELEMENT_NODE) {
-                    Element column = (Element) node;
-                    
-                    // 3. Handle Auto-Increment
-                    if ("postgresql".equals(targetType) && "true".equalsIgnoreCase(column.getAttribute("autoIncrement"))) {
-                        column.removeAttribute("autoIncrement");
-                        column.setAttribute("type", "SERIAL");
-                        log.debug("Normalized autoIncrement to SERIAL for column: {}", column.getAttribute("name"));
-                        continue;
-                    }
+        liquibase.Scope.child(scopeValues, () -> {
+            liquibase.command.CommandScope commandScope = new liquibase.command.CommandScope("generateChangelog");
+            commandScope.addArgumentValue("changelogFile", changelogPath);
+            commandScope.addArgumentValue("includeObjects", includeObjects);
+            commandScope.execute();
+        });
+        
+        int droppedForeignKeys = ChangelogScopeFilter.dropForeignKeysOutside(Paths.get(changelogPath), tables);
+        if (droppedForeignKeys > 0) {
+            log.info("Removed {} foreign keys referencing tables outside the migration", droppedForeignKeys);
+        }
+    }
 
-                    // 4. Handle Data Type Mappings
-                    if (column.hasAttribute("type") && typeMappings != null) {
-                        String originalType = column.getAttribute("type").toUpperCase();
-                        String baseType = originalType.split("\\(")[0];
-                        String mappingKey = sourceType + "." + baseType;
-                        
-                        if (typeMappings.containsKey(mappingKey)) {
-                            String newType = typeMappings.get(mappingKey);
-                            log.debug("Normalizing type: {} -> {}", mappingKey, newType);
-                            
-                            // Preserve parameters if present
-                            if (originalType.contains("(")) {
-                                String params = originalType.substring(originalType.indexOf("("));
-                                column.setAttribute("type", newType + params);
-                            } else {
-                                column.setAttribute("type", newType);
-                            }
-                        } else if (typeMappings.containsKey(sourceType + "." + originalType)) {
-                            String newType = typeMappings.get(sourceType + "." + originalType);
-                            log.debug("Normalizing type: {} -> {}", sourceType + "." + originalType, newType);
-                            column.setAttribute("type", newType);
-                        }
-                    }
+    /**
+     * Sequences used by the tables' columns: owned by a column (SERIAL) or referenced
+     * by a column default (nextval). Only PostgreSQL has sequences.
+     */
+    private List<String> findOwnedSequences(DatabaseConnectionConfig config, List<String> tables) throws SQLException {
+        if (config.getType() != DatabaseType.POSTGRESQL) {
+            return List.of();
+        }
+        
+        String sql = """
+            SELECT s.relname FROM pg_class s
+            JOIN pg_namespace n ON n.oid = s.relnamespace
+            JOIN pg_depend d ON d.objid = s.oid AND d.classid = 'pg_class'::regclass AND d.deptype = 'a'
+            JOIN pg_class t ON t.oid = d.refobjid
+            WHERE s.relkind = 'S' AND n.nspname = ? AND t.relname = ANY (?)
+            UNION
+            SELECT s.relname FROM pg_attrdef ad
+            JOIN pg_class t ON t.oid = ad.adrelid
+            JOIN pg_namespace n ON n.oid = t.relnamespace
+            JOIN pg_depend d ON d.objid = ad.oid AND d.classid = 'pg_attrdef'::regclass
+                AND d.refclassid = 'pg_class'::regclass
+            JOIN pg_class s ON s.oid = d.refobjid AND s.relkind = 'S'
+            WHERE n.nspname = ? AND t.relname = ANY (?)
+            """;
+        
+        try (Connection connection = connectionFactory.createConnection(config);
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            Array tableNames = connection.createArrayOf("text", tables.toArray());
+            stmt.setString(1, config.getSchemaOrDefault());
+            stmt.setArray(2, tableNames);
+            stmt.setString(3, config.getSchemaOrDefault());
+            stmt.setArray(4, tableNames);
+            
+            List<String> sequences = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sequences.add(rs.getString(1));
                 }
             }
+            return sequences;
+        }
+    }
+    
+    /**
+     * Liquibase includeObjects filter: whole-name patterns per table and sequence.
+     * Columns, primary keys, indexes and foreign keys follow their table.
+     */
+    private static String includeObjects(List<String> tables, List<String> sequences) {
+        return Stream.concat(
+                tables.stream().map(table -> "table:" + Pattern.quote(table)),
+                sequences.stream().map(sequence -> "sequence:" + Pattern.quote(sequence)))
+            .collect(Collectors.joining(", "));
+    }
 
-            // 5. Write the modified XML to output file
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            DOMSource domSource = new DOMSource(doc);
-            StreamResult streamResult = new StreamResult(new File(outputPath));
-            transformer.transform(domSource, streamResult);
+    /**
+     * Rewrites the generated changelog for the target: dataTypeMappings are compiled
+     * once into lookup rules and applied while streaming the file, and autoIncrement
+     * columns become SERIAL on PostgreSQL.
+     * This is a "best-effort" translation for the POC.
+     */
+    public void normalizeChangelog(JobRequest request, String inputPath, String outputPath) {
+        try {
+            long startedAt = System.currentTimeMillis();
+            TypeMappingRules rules = TypeMappingRules.compile(
+                request.getDataTypeMappings(), request.getSource().getType());
+            boolean serialAutoIncrement = "postgresql".equals(request.getTarget().getType());
             
-            log.info("Normalization complete. Normalized changelog saved to {}", outputPath);
+            int changed = ChangelogNormalizer.normalize(
+                Paths.get(inputPath), Paths.get(outputPath), rules, serialAutoIncrement);
+            
+            log.info("Normalization complete ({} columns changed in {} ms). Normalized changelog saved to {}",
+                    changed, System.currentTimeMillis() - startedAt, outputPath);
             
         } catch (Exception e) {
             log.error("Failed to normalize changelog: {}", e.getMessage(), e);
@@ -150,13 +220,25 @@ public class SchemaExecutor {
         }
     }
 
+    /**
+     * Splits the changelog into a pre-data part applied before the data migration and
+     * a post-data part (secondary indexes, unique constraints, foreign keys) applied after it.
+     */
+    public ChangelogSplitter.Split splitChangelog(String changelogPath, String preDataPath, String postDataPath) {
+        ChangelogSplitter.Split split = ChangelogSplitter.split(
+            Paths.get(changelogPath), Paths.get(preDataPath), Paths.get(postDataPath));
+        log.info("Split changelog into {} pre-data and {} post-data changeSets",
+                split.preDataChangeSets(), split.postDataChangeSets());
+        return split;
+    }
+
     /**
      * Connects to the TARGET database and applies the specified changelog file.
      * This creates the schema on the target.
      */
     public void applyChangelog(JobRequest request, String changelogPath) {
         JobRequest.DbConfig target = request.getTarget();
-        DatabaseConnectionConfig config = convertToConnectionConfig(target);
+        DatabaseConnectionConfig config = DatabaseConnectionConfig.from(target, ConnectionRole.TARGET);
         
         log.info("Applying Liquibase changelog to target: {}", target.getHost());
 
@@ -179,19 +261,4 @@ public class SchemaExecutor {
             throw new SchemaException("Failed to apply changelog to target", e);
         }
     }
-    
-    /**
-     * Convert JobRequest.DbConfig to DatabaseConnectionConfig.
-     */
-    private DatabaseConnectionConfig convertToConnectionConfig(JobRequest.DbConfig dbConfig) {
-        return DatabaseConnectionConfig.builder()
-            .type(DatabaseType.fromString(dbConfig.getType()))
-            .host(dbConfig.getHost())
-            .port(dbConfig.getPort())
-            .database(dbConfig.getDatabase())
-            .schema(dbConfig.getSchema())
-            .user(dbConfig.getUser())
-            .password(dbConfig.getPassword())
-            .build();
-    }
 }
\ No newline at end of file
@@ -1,22 +1,44 @@
 package com.poc.migration.executor;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.poc.migration.config.MigrationProperties;
-import com.poc.migration.exception.ValidationException;
+import com.poc.migration.executor.schema.ChangelogReader;
+import com.poc.migration.executor.validation.CatalogPreCheck;
+import com.poc.migration.executor.validation.ChecksumValidator;
+import com.poc.migration.executor.validation.ColumnProfileValidator;
+import com.poc.migration.executor.validation.ParallelValidationEngine;
+import com.poc.migration.executor.validation.RangeCountValidator;
+import com.poc.migration.executor.validation.RowDiffValidator;
+import com.poc.migration.executor.validation.SampleEstimate;
+import com.poc.migration.executor.validation.SampleValidator;
+import com.poc.migration.executor.validation.ValidationOutcome;
+import com.poc.migration.executor.validation.ValidationResult;
+import com.poc.migration.executor.validation.ValidationSession;
+import com.poc.migration.infrastructure.database.ConnectionRole;
 import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
 import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
 import com.poc.migration.infrastructure.database.DatabaseType;
 import com.poc.migration.model.JobRequest;
+import com.poc.migration.model.ValidationMode;
+import com.poc.migration.service.JobDetailsService;
 import com.poc.migration.util.SqlValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Service for validating migration results.
@@ -29,66 +51,282 @@ public class ValidationExecutor {
     
     private final DatabaseConnectionFactory connectionFactory;
     private final MigrationProperties properties;
+    private final ParallelValidationEngine validationEngine;
+    private final ChecksumValidator checksumValidator;
+    private final RangeCountValidator rangeCountValidator;
+    private final RowDiffValidator rowDiffValidator;
+    private final SampleValidator sampleValidator;
+    private final ColumnProfileValidator columnProfileValidator;
+    private final JobDetailsService jobDetailsService;
+    private final ObjectMapper objectMapper;
+    private final CatalogPreCheck catalogPreCheck;
+
+    /**
+     * Validates the migration with the requested mode (default: migration.validation.mode).
+     * Returns true only if ALL tables pass.
+     */
+    public boolean validate(JobRequest request) {
+        return validate(null, request);
+    }
+
+    /**
+     * Validates the migration of a job; the job ID keys the checksum index, names ROW_DIFF reports
+     * and receives SAMPLE estimates.
+     */
+    public boolean validate(Long jobId, JobRequest request) {
+        return validate(jobId, request, null).isValid();
+    }
+
+    /**
+     * Validates the migration of a job; PROFILE mode takes column types from the changelog (may be null).
+     * The key ranges that differ are recorded on the job, for a repair to pick up.
+     */
+    public ValidationOutcome validate(Long jobId, JobRequest request, String changelogPath) {
+        ValidationMode mode = resolveMode(request);
+        log.info("Validation mode: {}", mode);
+        
+        List<String> tables = request.getTablesToMigrate();
+        if (properties.getValidation().isCatalogPreCheck()) {
+            List<CatalogPreCheck.TableEstimate> estimates = catalogPreCheck.check(
+                DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE),
+                DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET),
+                tables);
+            List<String> suspicious = estimates.stream()
+                .filter(CatalogPreCheck.TableEstimate::suspicious)
+                .map(CatalogPreCheck.TableEstimate::tableName)
+                .toList();
+            
+            if (!suspicious.isEmpty() && properties.getValidation().isCatalogFailFast()) {
+                log.error("Result: ✗ VALIDATION FAILED - catalog estimates differ for {}", suspicious);
+                return ValidationOutcome.failed();
+            }
+            if (!estimates.isEmpty()) {
+                // Suspicious tables first, so exact validation (and fail-fast) reaches them early
+                tables = estimates.stream().map(CatalogPreCheck.TableEstimate::tableName).toList();
+            }
+        }
+        
+        Map<String, ValidationResult> results = switch (mode) {
+            case ROW_COUNT -> validateRowCounts(request, tables);
+            case RANGE_COUNT -> validateRangeCounts(request, tables);
+            case CHECKSUM -> validateChecksums(jobId, request, tables);
+            case ROW_DIFF -> validateRowDiff(jobId, request, tables);
+            case SAMPLE -> validateSample(jobId, request, tables);
+            case PROFILE -> validateProfile(request, tables, changelogPath);
+        };
+        
+        ValidationOutcome outcome = ValidationOutcome.of(mode, results);
+        if (jobId != null) {
+            try {
+                jobDetailsService.recordMismatchedRanges(jobId, objectMapper.writeValueAsString(outcome.mismatchedRanges()));
+            } catch (Exception e) {
+                log.warn("Could not record mismatched ranges for job {}: {}", jobId, e.getMessage());
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Compares per-column aggregates of every table, one query per table and side.
+     * Column types come from the changelog when there is one, otherwise from JDBC metadata.
+     * Returns the per-table results.
+     */
+    public Map<String, ValidationResult> validateProfile(JobRequest request, List<String> tables, String changelogPath) {
+        log.info("========== Starting Column Profile Validation ==========");
+        
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        
+        Map<String, List<ChangelogReader.ColumnDefinition>> changelogColumns = Map.of();
+        if (changelogPath != null && Files.exists(Path.of(changelogPath))) {
+            changelogColumns = ChangelogReader.readColumns(Path.of(changelogPath));
+            log.info("Column types from changelog: {}", changelogPath);
+        } else {
+            log.info("No changelog, column types from JDBC metadata");
+        }
+        
+        Map<String, List<ChangelogReader.ColumnDefinition>> columns = changelogColumns;
+        ValidationSession session = validationEngine.newSession(null, sourceConfig, targetConfig, request);
+        Map<String, ValidationResult> results = validationEngine.validate(tables, session,
+            (table, tableSession) -> columnProfileValidator.validate(table, tableSession, columns.get(table)));
+        
+        logSummary(results);
+        return results;
+    }
+
+    /**
+     * Validates exact row counts, counting primary key ranges of each table concurrently.
+     * Returns the per-table results.
+     */
+    public Map<String, ValidationResult> validateRangeCounts(JobRequest request, List<String> tables) {
+        log.info("========== Starting Range Count Validation ==========");
+        
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        
+        ValidationSession session = validationEngine.newSession(null, sourceConfig, targetConfig, request);
+        Map<String, ValidationResult> results = validationEngine.validate(tables, session, rangeCountValidator);
+        
+        results.values().stream()
+            .filter(r -> !r.mismatchedRanges().isEmpty())
+            .forEach(r -> log.error("  Key ranges with different counts in '{}': {}", r.tableName(), r.mismatchedRanges()));
+        
+        logSummary(results);
+        return results;
+    }
+
+    /**
+     * Compares a random sample of rows per table and reports the estimated mismatch rate
+     * with its confidence upper bound. A table fails if any sampled row differs.
+     */
+    public Map<String, ValidationResult> validateSample(Long jobId, JobRequest request, List<String> tables) {
+        log.info("========== Starting Sampling Validation ==========");
+        
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        
+        ValidationSession session = validationEngine.newSession(jobId, sourceConfig, targetConfig, request);
+        Map<String, ValidationResult> results = validationEngine.validate(
+            tables, session, sampleValidator);
+        
+        List<SampleEstimate> estimates = results.values().stream()
+            .map(ValidationResult::sample)
+            .filter(Objects::nonNull)
+            .toList();
+        estimates.forEach(estimate -> log.info("  Sample estimate: {}", estimate));
+        
+        if (jobId != null) {
+            try {
+                jobDetailsService.recordValidationSample(jobId, objectMapper.writeValueAsString(estimates));
+            } catch (Exception e) {
+                log.warn("Could not record sampling estimate for job {}: {}", jobId, e.getMessage());
+            }
+        }
+        
+        logSummary(results);
+        return results;
+    }
+
+    /**
+     * Diffs every row of every table, writing differences to NDJSON reports.
+     * A table fails if it has a missing, extra or changed row.
+     */
+    public Map<String, ValidationResult> validateRowDiff(Long jobId, JobRequest request, List<String> tables) {
+        log.info("========== Starting Row Diff Validation ==========");
+        
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        
+        ValidationSession session = validationEngine.newSession(jobId, sourceConfig, targetConfig, request);
+        Map<String, ValidationResult> results = validationEngine.validate(
+            tables, session, rowDiffValidator);
+
+        logSummary(results);
+        return results;
+    }
+
+    /**
+     * Validates that per-range checksums match between source and target for all tables.
+     * With a job ID, range checksums are kept in the checksum index for later runs.
+     * Returns the per-table results.
+     */
+    public Map<String, ValidationResult> validateChecksums(Long jobId, JobRequest request, List<String> tables) {
+        log.info("========== Starting Checksum Validation ==========");
+        
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        
+        ValidationSession session = validationEngine.newSession(jobId, sourceConfig, targetConfig, request);
+        Map<String, ValidationResult> results = validationEngine.validate(
+            tables, session, checksumValidator);
+
+        results.values().stream()
+            .filter(r -> !r.mismatchedRanges().isEmpty())
+            .forEach(r -> log.error("  Mismatched key ranges in '{}': {}", r.tableName(), r.mismatchedRanges()));
+
+        logSummary(results);
+        return results;
+    }
+
+    private ValidationMode resolveMode(JobRequest request) {
+        if (request.getValidation() != null && request.getValidation().getMode() != null) {
+            return request.getValidation().getMode();
+        }
+        return properties.getValidation().getMode();
+    }
 
     /**
      * Validates that row counts match between source and target for all tables.
-     * Returns true only if ALL tables have matching counts.
+     * Tables are validated concurrently, bounded per database by migration.validation.
+     * Returns the per-table results.
      */
-    public boolean validateRowCounts(JobRequest request) {
+    public Map<String, ValidationResult> validateRowCounts(JobRequest request, List<String> tables) {
         log.info("========== Starting Row Count Validation ==========");
         
-        boolean allValid = true;
-        int totalTables = request.getTablesToMigrate().size();
-        int validTables = 0;
-        
         JobRequest.DbConfig source = request.getSource();
         JobRequest.DbConfig target = request.getTarget();
 
         // Build connection configs
-        DatabaseConnectionConfig sourceConfig = convertToConnectionConfig(source);
-        DatabaseConnectionConfig targetConfig = convertToConnectionConfig(target);
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(source, ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(target, ConnectionRole.TARGET);
         
         log.info("Source: {}:{}/{} ({})", source.getHost(), source.getPort(), source.getDatabase(), source.getType());
         log.info("Target: {}:{}/{} ({})", target.getHost(), target.getPort(), target.getDatabase(), target.getType());
 
-        // Store results for summary
-        Map<String, ValidationResult> results = new HashMap<>();
+        ValidationSession session = validationEngine.newSession(null, sourceConfig, targetConfig, request);
+        Map<String, ValidationResult> results = validationEngine.validate(
+            tables, session, this::validateRowCount);
 
-        for (String table : request.getTablesToMigrate()) {
-            try {
-                log.info("Validating table: {}", table);
-                
-                // Get counts from both databases
-                long sourceCount = getRowCount(sourceConfig, table);
-                long targetCount = getRowCount(targetConfig, table);
-                
-                // Compare counts
-                boolean isValid = (sourceCount == targetCount);
-                ValidationResult result = new ValidationResult(table, sourceCount, targetCount, isValid, null);
-                results.put(table, result);
-                
-                if (isValid) {
-                    log.info("  ✓ PASS - Table '{}': {} rows (source) == {} rows (target)", 
-                            table, sourceCount, targetCount);
-                    validTables++;
-                } else {
-                    log.error("  ✗ FAIL - Table '{}': {} rows (source) != {} rows (target). Diff: {}", 
-                            table, sourceCount, targetCount, Math.abs(sourceCount - targetCount));
-                    allValid = false;
-                }
-                
-            } catch (Exception e) {
-                log.error("  ✗ ERROR - Failed to validate table '{}': {}", table, e.getMessage(), e);
-                results.put(table, new ValidationResult(table, -1, -1, false, e.getMessage()));
-                allValid = false;
-            }
+        logSummary(results);
+        return results;
+    }
+
+    /**
+     * Compare source and target row counts of one table.
+     * Both counts run at the same time, each within its own database's cap.
+     */
+    private ValidationResult validateRowCount(String table, ValidationSession session) throws Exception {
+        log.info("Validating table: {}", table);
+        SqlValidator.validateTableName(table);
+        
+        long sourceCount;
+        long targetCount;
+        try (ExecutorService sides = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Long> sourceFuture = sides.submit(() -> session.onSource(
+                conn -> getRowCountWithConnection(conn, table, session.getSourceConfig())));
+            targetCount = session.onTarget(
+                conn -> getRowCountWithConnection(conn, table, session.getTargetConfig()));
+            sourceCount = sourceFuture.get();
+            
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        
+        // Compare counts
+        boolean isValid = (sourceCount == targetCount);
+        
+        if (isValid) {
+            log.info("  ✓ PASS - Table '{}': {} rows (source) == {} rows (target)", 
+                    table, sourceCount, targetCount);
+        } else {
+            log.error("  ✗ FAIL - Table '{}': {} rows (source) != {} rows (target). Diff: {}", 
+                    table, sourceCount, targetCount, Math.abs(sourceCount - targetCount));
         }
+        
+        return new ValidationResult(table, sourceCount, targetCount, isValid, null);
+    }
 
-        // Print summary
+    /**
+     * Log the per-table summary. Returns true if every table passed.
+     */
+    private boolean logSummary(Map<String, ValidationResult> results) {
+        long validTables = results.values().stream().filter(ValidationResult::isValid).count();
+        boolean allValid = validTables == results.size();
+        
         log.info("========== Validation Summary ==========");
-        log.info("Total tables: {}", totalTables);
+        log.info("Total tables: {}", results.size());
         log.info("Valid tables: {}", validTables);
-        log.info("Failed tables: {}", totalTables - validTables);
+        log.info("Failed tables: {}", results.size() - validTables);
         
         if (allValid) {
             log.info("Result: ✓ ALL VALIDATIONS PASSED");
@@ -106,40 +344,6 @@ public class ValidationExecutor {
         return allValid;
     }
 
-    /**
-     * Gets the row count for a specific table using a prepared statement.
-     * Handles schema qualification and SQL injection prevention.
-     */
-    private long getRowCount(DatabaseConnectionConfig config, String tableName) throws Exception {
-        // Validate table name to prevent SQL injection
-        SqlValidator.validateTableName(tableName);
-
-        // Build the SQL query with proper schema/database qualification
-        String sql = buildCountQuery(config, tableName);
-        
-        log.debug("Executing: {}", sql);
-        
-        try (Connection conn = connectionFactory.createConnection(config);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            // Set query timeout from configuration
-            stmt.setQueryTimeout(properties.getMonitoring().getQueryTimeoutSeconds());
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    long count = rs.getLong(1);
-                    log.debug("  Count result: {}", count);
-                    return count;
-                } else {
-                    throw new SQLException("No result returned from count query");
-                }
-            }
-        } catch (SQLException e) {
-            log.error("Failed to get row count for table '{}': {}", tableName, e.getMessage());
-            throw new ValidationException("Database query failed for table " + tableName + ": " + e.getMessage(), e);
-        }
-    }
-
     /**
      * Builds the COUNT query with proper schema qualification.
      */
@@ -155,17 +359,6 @@ public class ValidationExecutor {
         }
     }
 
-    /**
-     * Simple record to store validation results.
-     */
-    private record ValidationResult(
-            String tableName,
-            long sourceCount,
-            long targetCount,
-            boolean isValid,
-            String error
-    ) {}
-
     /**
      * Validates with connection reuse (better for many tables).
      */
@@ -175,8 +368,8 @@ public class ValidationExecutor {
         JobRequest.DbConfig source = request.getSource();
         JobRequest.DbConfig target = request.getTarget();
 
-        DatabaseConnectionConfig sourceConfig = convertToConnectionConfig(source);
-        DatabaseConnectionConfig targetConfig = convertToConnectionConfig(target);
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(source, ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(target, ConnectionRole.TARGET);
 
         // Reuse connections
         try (Connection sourceConn = connectionFactory.createConnection(sourceConfig);
@@ -229,19 +422,4 @@ public class ValidationExecutor {
             }
         }
     }
-    
-    /**
-     * Convert JobRequest.DbConfig to DatabaseConnectionConfig.
-     */
-    private DatabaseConnectionConfig convertToConnectionConfig(JobRequest.DbConfig dbConfig) {
-        return DatabaseConnectionConfig.builder()
-            .type(DatabaseType.fromString(dbConfig.getType()))
-            .host(dbConfig.getHost())
-            .port(dbConfig.getPort())
-            .database(dbConfig.getDatabase())
-            .schema(dbConfig.getSchema())
-            .user(dbConfig.getUser())
-            .password(dbConfig.getPassword())
-            .build();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.exception.SchemaException;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Rewrites column types of a changelog for the target database in one streaming
+ * (StAX) pass: each event is copied straight to the output, so memory does not
+ * grow with the size of the changelog.
+ */
+public final class ChangelogNormalizer {
+    
+    private static final String SERIAL = "SERIAL";
+    
+    private ChangelogNormalizer() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Copy {@code input} to {@code output}, mapping column types with {@code rules}.
+     * With {@code serialAutoIncrement} (PostgreSQL targets), autoIncrement columns become
+     * SERIAL instead. Returns the number of columns changed.
+     */
+    public static int normalize(Path input, Path output, TypeMappingRules rules, boolean serialAutoIncrement) {
+        int changed = 0;
+        try (InputStream in = Files.newInputStream(input);
+             OutputStream out = Files.newOutputStream(output)) {
+            XMLStreamReader reader = ChangelogReader.newInputFactory().createXMLStreamReader(in);
+            XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out, StaxCopier.ENCODING);
+            try {
+                StaxCopier.copy(reader, writer);
+                while (reader.hasNext()) {
+                    reader.next();
+                    if (reader.isStartElement() && "column".equals(reader.getLocalName())) {
+                        if (writeColumn(reader, writer, rules, serialAutoIncrement)) {
+                            changed++;
+                        }
+                    } else {
+                        StaxCopier.copy(reader, writer);
+                    }
+                }
+                writer.flush();
+            } finally {
+                writer.close();
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new SchemaException("Failed to normalize changelog " + input, e);
+        }
+        return changed;
+    }
+    
+    /**
+     * Write the start tag of a column with its type rewritten. Returns whether it changed.
+     */
+    private static boolean writeColumn(XMLStreamReader reader, XMLStreamWriter writer,
+            TypeMappingRules rules, boolean serialAutoIncrement) throws XMLStreamException {
+        boolean serial = serialAutoIncrement && "true".equalsIgnoreCase(reader.getAttributeValue(null, "autoIncrement"));
+        boolean changed = serial;
+        boolean typed = false;
+        
+        StaxCopier.startElement(reader, writer);
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attribute = reader.getAttributeLocalName(i);
+            String value = reader.getAttributeValue(i);
+            if (serial && "autoIncrement".equals(attribute)) {
+                continue;
+            }
+            if ("type".equals(attribute)) {
+                typed = true;
+                String mapped = serial ? SERIAL : rules.rewrite(value);
+                if (mapped != null) {
+                    value = mapped;
+                    changed = true;
+                }
+            }
+            StaxCopier.writeAttribute(reader, writer, i, value);
+        }
+        if (serial && !typed) {
+            writer.writeAttribute("type", SERIAL);
+        }
+        return changed;
+    }
+}
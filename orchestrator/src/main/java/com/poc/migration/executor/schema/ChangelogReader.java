@@ -0,0 +1,78 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.exception.SchemaException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming (StAX) reader for Liquibase XML changelogs.
+ * Reads only what it needs, so large changelogs are never held in memory as a DOM.
+ */
+public final class ChangelogReader {
+    
+    private ChangelogReader() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Columns and their declared types per table, from createTable and addColumn
+     * changes, in changelog order.
+     */
+    public static Map<String, List<ColumnDefinition>> readColumns(Path changelog) {
+        Map<String, List<ColumnDefinition>> tables = new LinkedHashMap<>();
+        
+        try (InputStream in = Files.newInputStream(changelog)) {
+            XMLStreamReader reader = newInputFactory().createXMLStreamReader(in);
+            try {
+                String table = null;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String element = reader.getLocalName();
+                        if ("createTable".equals(element) || "addColumn".equals(element)) {
+                            table = reader.getAttributeValue(null, "tableName");
+                        } else if ("column".equals(element) && table != null) {
+                            tables.computeIfAbsent(table, name -> new ArrayList<>()).add(new ColumnDefinition(
+                                reader.getAttributeValue(null, "name"), reader.getAttributeValue(null, "type")));
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT
+                            && ("createTable".equals(reader.getLocalName()) || "addColumn".equals(reader.getLocalName()))) {
+                        table = null;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new SchemaException("Failed to read changelog " + changelog, e);
+        }
+        return tables;
+    }
+    
+    /**
+     * Input factory with DTDs and external entities disabled.
+     */
+    static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+    
+    /**
+     * Column of a table as declared in the changelog; type may be null.
+     */
+    public record ColumnDefinition(String name, String type) {}
+}
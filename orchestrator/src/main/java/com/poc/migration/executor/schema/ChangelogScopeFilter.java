@@ -0,0 +1,145 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.exception.SchemaException;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Removes foreign keys that reference tables outside the migration scope from a
+ * generated changelog. Liquibase includes a table's foreign keys with the table even
+ * when the referenced table was filtered out, and they would fail on the target.
+ * Streams the changelog twice (StAX): the first pass finds changeSets left without
+ * changes, which the second pass drops entirely.
+ */
+public final class ChangelogScopeFilter {
+    
+    static final Set<String> NON_CHANGES = Set.of("comment", "preConditions", "validCheckSum", "rollback");
+    
+    private ChangelogScopeFilter() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Rewrite the changelog in place. Returns the number of foreign keys removed.
+     */
+    public static int dropForeignKeysOutside(Path changelog, Collection<String> tables) {
+        Set<String> scope = tables.stream()
+            .map(table -> table.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toSet());
+        
+        Set<Integer> emptied = new HashSet<>();
+        int dropped = scan(changelog, scope, emptied);
+        if (dropped == 0) {
+            return 0;
+        }
+        
+        Path filtered = changelog.resolveSibling(changelog.getFileName() + ".scoped");
+        try (InputStream in = Files.newInputStream(changelog);
+             OutputStream out = Files.newOutputStream(filtered)) {
+            XMLStreamReader reader = ChangelogReader.newInputFactory().createXMLStreamReader(in);
+            XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out, StaxCopier.ENCODING);
+            try {
+                int depth = 0;
+                int changeSet = -1;
+                StaxCopier.copy(reader, writer);
+                while (reader.hasNext()) {
+                    reader.next();
+                    if (reader.isStartElement()) {
+                        depth++;
+                        boolean skip = depth == 2 && "changeSet".equals(reader.getLocalName())
+                            ? emptied.contains(++changeSet)
+                            : depth == 3 && isOutOfScopeForeignKey(reader, scope);
+                        if (skip) {
+                            StaxCopier.skipElement(reader);
+                            depth--;
+                            continue;
+                        }
+                    } else if (reader.isEndElement()) {
+                        depth--;
+                    }
+                    StaxCopier.copy(reader, writer);
+                }
+                writer.flush();
+            } finally {
+                writer.close();
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new SchemaException("Failed to scope changelog " + changelog, e);
+        }
+        
+        try {
+            Files.move(filtered, changelog, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new SchemaException("Failed to replace changelog " + changelog, e);
+        }
+        return dropped;
+    }
+    
+    /**
+     * Count out-of-scope foreign keys and collect the positions of changeSets that
+     * have no other change.
+     */
+    private static int scan(Path changelog, Set<String> scope, Set<Integer> emptied) {
+        int dropped = 0;
+        try (InputStream in = Files.newInputStream(changelog)) {
+            XMLStreamReader reader = ChangelogReader.newInputFactory().createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                int changeSet = -1;
+                int kept = 0;
+                int removed = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (depth == 2 && "changeSet".equals(reader.getLocalName())) {
+                            changeSet++;
+                            kept = 0;
+                            removed = 0;
+                        } else if (depth == 3 && isOutOfScopeForeignKey(reader, scope)) {
+                            removed++;
+                            dropped++;
+                        } else if (depth == 3 && !NON_CHANGES.contains(reader.getLocalName())) {
+                            kept++;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 2 && "changeSet".equals(reader.getLocalName()) && removed > 0 && kept == 0) {
+                            emptied.add(changeSet);
+                        }
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new SchemaException("Failed to read changelog " + changelog, e);
+        }
+        return dropped;
+    }
+    
+    private static boolean isOutOfScopeForeignKey(XMLStreamReader reader, Set<String> scope) {
+        if (!"addForeignKeyConstraint".equals(reader.getLocalName())) {
+            return false;
+        }
+        String referenced = reader.getAttributeValue(null, "referencedTableName");
+        return referenced != null && !scope.contains(referenced.toLowerCase(Locale.ROOT));
+    }
+}
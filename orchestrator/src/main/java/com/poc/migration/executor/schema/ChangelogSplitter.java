@@ -0,0 +1,188 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.exception.SchemaException;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits a changelog into a pre-data part (tables, primary keys and everything else)
+ * and a post-data part (secondary indexes, unique constraints and foreign keys), so
+ * the post-data part can be applied after the bulk load instead of slowing every
+ * inserted row. Unique indexes and constraints of tables without a primary key stay
+ * in pre-data: the migration uses them as the row key. A changeSet moves to post-data
+ * only when all its changes are post-data changes. Streams the changelog twice (StAX):
+ * the first pass classifies changeSets, the second writes both parts.
+ */
+public final class ChangelogSplitter {
+    
+    private ChangelogSplitter() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Write the pre-data and post-data parts of {@code changelog}.
+     */
+    public static Split split(Path changelog, Path preData, Path postData) {
+        Plan plan = scan(changelog);
+        
+        try (InputStream in = Files.newInputStream(changelog);
+             OutputStream preOut = Files.newOutputStream(preData);
+             OutputStream postOut = Files.newOutputStream(postData)) {
+            XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+            XMLStreamReader reader = ChangelogReader.newInputFactory().createXMLStreamReader(in);
+            XMLStreamWriter pre = outputFactory.createXMLStreamWriter(preOut, StaxCopier.ENCODING);
+            XMLStreamWriter post = outputFactory.createXMLStreamWriter(postOut, StaxCopier.ENCODING);
+            try {
+                int depth = 0;
+                int changeSet = -1;
+                XMLStreamWriter routed = null;
+                copy(reader, routed, pre, post);
+                while (reader.hasNext()) {
+                    reader.next();
+                    if (reader.isStartElement()) {
+                        depth++;
+                        if (depth == 2 && "changeSet".equals(reader.getLocalName())) {
+                            routed = plan.deferred().contains(++changeSet) ? post : pre;
+                        }
+                    }
+                    copy(reader, routed, pre, post);
+                    if (reader.isEndElement()) {
+                        if (depth == 2) {
+                            routed = null;
+                        }
+                        depth--;
+                    }
+                }
+                pre.flush();
+                post.flush();
+            } finally {
+                pre.close();
+                post.close();
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new SchemaException("Failed to split changelog " + changelog, e);
+        }
+        return new Split(plan.changeSets() - plan.deferred().size(), plan.deferred().size());
+    }
+    
+    /**
+     * Copy the event to the writer of the current changeSet, or to both outside changeSets.
+     */
+    private static void copy(XMLStreamReader reader, XMLStreamWriter routed,
+            XMLStreamWriter pre, XMLStreamWriter post) throws XMLStreamException {
+        if (routed != null) {
+            StaxCopier.copy(reader, routed);
+        } else {
+            StaxCopier.copy(reader, pre);
+            StaxCopier.copy(reader, post);
+        }
+    }
+    
+    /**
+     * Classify the changeSets of the changelog.
+     */
+    private static Plan scan(Path changelog) {
+        List<List<Change>> changeSets = new ArrayList<>();
+        Set<String> primaryKeyTables = new HashSet<>();
+        
+        try (InputStream in = Files.newInputStream(changelog)) {
+            XMLStreamReader reader = ChangelogReader.newInputFactory().createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                String createdTable = null;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        String element = reader.getLocalName();
+                        if (depth == 2 && "changeSet".equals(element)) {
+                            changeSets.add(new ArrayList<>());
+                        } else if (depth == 3 && !changeSets.isEmpty()
+                                && !ChangelogScopeFilter.NON_CHANGES.contains(element)) {
+                            String table = tableName(reader, element);
+                            changeSets.getLast().add(new Change(element, table,
+                                "true".equalsIgnoreCase(reader.getAttributeValue(null, "unique"))));
+                            if ("addPrimaryKey".equals(element)) {
+                                primaryKeyTables.add(table);
+                            }
+                            createdTable = "createTable".equals(element) ? table : null;
+                        } else if (depth == 5 && createdTable != null && "constraints".equals(element)
+                                && "true".equalsIgnoreCase(reader.getAttributeValue(null, "primaryKey"))) {
+                            primaryKeyTables.add(createdTable);
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 3) {
+                            createdTable = null;
+                        }
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new SchemaException("Failed to read changelog " + changelog, e);
+        }
+        
+        Set<Integer> deferred = new HashSet<>();
+        for (int i = 0; i < changeSets.size(); i++) {
+            List<Change> changes = changeSets.get(i);
+            if (!changes.isEmpty() && changes.stream().allMatch(change -> change.isPostData(primaryKeyTables))) {
+                deferred.add(i);
+            }
+        }
+        return new Plan(deferred, changeSets.size());
+    }
+    
+    private static String tableName(XMLStreamReader reader, String element) {
+        String table = reader.getAttributeValue(null,
+            "addForeignKeyConstraint".equals(element) ? "baseTableName" : "tableName");
+        return table != null ? table.toLowerCase(Locale.ROOT) : null;
+    }
+    
+    /**
+     * Number of changeSets in each part.
+     */
+    public record Split(int preDataChangeSets, int postDataChangeSets) {
+        
+        public boolean hasPostData() {
+            return postDataChangeSets > 0;
+        }
+    }
+    
+    /**
+     * Positions of the changeSets that belong to post-data, and the number of changeSets.
+     */
+    private record Plan(Set<Integer> deferred, int changeSets) {}
+    
+    /**
+     * One change of a changeSet, with the table it applies to.
+     */
+    private record Change(String type, String table, boolean unique) {
+        
+        boolean isPostData(Set<String> primaryKeyTables) {
+            return switch (type) {
+                case "addForeignKeyConstraint" -> true;
+                case "createIndex" -> !unique || primaryKeyTables.contains(table);
+                case "addUniqueConstraint" -> primaryKeyTables.contains(table);
+                default -> false;
+            };
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.exception.SchemaException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes a {@link SchemaModel} as a Liquibase XML changelog laid out like the one
+ * generateChangelog produces: one changeSet per change, all createTable changes first,
+ * then createIndex, then addForeignKeyConstraint.
+ */
+final class ChangelogWriter {
+    
+    static final String LIQUIBASE_NAMESPACE = "http://www.liquibase.org/xml/ns/dbchangelog";
+    private static final String SCHEMA_LOCATION = LIQUIBASE_NAMESPACE
+        + " http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd";
+    private static final String AUTHOR = "migration-orchestrator (generated)";
+    
+    private ChangelogWriter() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Write the changelog for the tables, in the given order.
+     */
+    static void write(Path changelog, List<SchemaModel.Table> tables) {
+        try (OutputStream out = Files.newOutputStream(changelog)) {
+            XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out, StaxCopier.ENCODING);
+            try {
+                new Session(writer, String.valueOf(System.currentTimeMillis())).write(tables);
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new SchemaException("Failed to write changelog " + changelog, e);
+        }
+    }
+    
+    /**
+     * State of one write: the writer and the changeSet counter.
+     */
+    private static final class Session {
+        
+        private final XMLStreamWriter writer;
+        private final String idPrefix;
+        private int changeSets;
+        
+        Session(XMLStreamWriter writer, String idPrefix) {
+            this.writer = writer;
+            this.idPrefix = idPrefix;
+        }
+        
+        void write(List<SchemaModel.Table> tables) throws XMLStreamException {
+            writer.writeStartDocument(StaxCopier.ENCODING, "1.0");
+            newLine(0);
+            writer.writeStartElement("", "databaseChangeLog", LIQUIBASE_NAMESPACE);
+            writer.writeDefaultNamespace(LIQUIBASE_NAMESPACE);
+            writer.writeNamespace("xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
+            writer.writeAttribute("xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation", SCHEMA_LOCATION);
+            
+            for (SchemaModel.Table table : tables) {
+                createTable(table);
+            }
+            for (SchemaModel.Table table : tables) {
+                for (SchemaModel.Index index : table.indexes()) {
+                    createIndex(table, index);
+                }
+            }
+            for (SchemaModel.Table table : tables) {
+                for (SchemaModel.ForeignKey foreignKey : table.foreignKeys()) {
+                    addForeignKeyConstraint(table, foreignKey);
+                }
+            }
+            
+            newLine(0);
+            writer.writeEndElement();
+            newLine(0);
+            writer.writeEndDocument();
+        }
+        
+        private void createTable(SchemaModel.Table table) throws XMLStreamException {
+            startChangeSet();
+            start(2, "createTable");
+            writer.writeAttribute("tableName", table.name());
+            for (SchemaModel.Column column : table.columns()) {
+                boolean primaryKey = table.primaryKey().contains(column.name());
+                boolean constrained = primaryKey || !column.nullable();
+                if (constrained) {
+                    start(3, "column");
+                } else {
+                    empty(3, "column");
+                }
+                if (column.autoIncrement()) {
+                    writer.writeAttribute("autoIncrement", "true");
+                }
+                if (column.defaultAttribute() != null) {
+                    writer.writeAttribute(column.defaultAttribute(), column.defaultValue());
+                }
+                writer.writeAttribute("name", column.name());
+                writer.writeAttribute("type", column.type());
+                if (constrained) {
+                    empty(4, "constraints");
+                    writer.writeAttribute("nullable", "false");
+                    if (primaryKey) {
+                        writer.writeAttribute("primaryKey", "true");
+                        if (table.primaryKeyName() != null) {
+                            writer.writeAttribute("primaryKeyName", table.primaryKeyName());
+                        }
+                    }
+                    end(3);
+                }
+            }
+            end(2);
+            end(1);
+        }
+        
+        private void createIndex(SchemaModel.Table table, SchemaModel.Index index) throws XMLStreamException {
+            startChangeSet();
+            start(2, "createIndex");
+            writer.writeAttribute("indexName", index.name());
+            writer.writeAttribute("tableName", table.name());
+            if (index.unique()) {
+                writer.writeAttribute("unique", "true");
+            }
+            for (String column : index.columns()) {
+                empty(3, "column");
+                writer.writeAttribute("name", column);
+            }
+            end(2);
+            end(1);
+        }
+        
+        private void addForeignKeyConstraint(SchemaModel.Table table, SchemaModel.ForeignKey foreignKey)
+                throws XMLStreamException {
+            startChangeSet();
+            empty(2, "addForeignKeyConstraint");
+            writer.writeAttribute("baseColumnNames", String.join(",", foreignKey.columns()));
+            writer.writeAttribute("baseTableName", table.name());
+            writer.writeAttribute("constraintName", foreignKey.name());
+            writer.writeAttribute("deferrable", "false");
+            writer.writeAttribute("initiallyDeferred", "false");
+            writer.writeAttribute("onDelete", foreignKey.onDelete());
+            writer.writeAttribute("onUpdate", foreignKey.onUpdate());
+            writer.writeAttribute("referencedColumnNames", String.join(",", foreignKey.referencedColumns()));
+            writer.writeAttribute("referencedTableName", foreignKey.referencedTable());
+            writer.writeAttribute("validate", "true");
+            end(1);
+        }
+        
+        private void startChangeSet() throws XMLStreamException {
+            start(1, "changeSet");
+            writer.writeAttribute("author", AUTHOR);
+            writer.writeAttribute("id", idPrefix + "-" + (++changeSets));
+        }
+        
+        private void start(int depth, String element) throws XMLStreamException {
+            newLine(depth);
+            writer.writeStartElement(LIQUIBASE_NAMESPACE, element);
+        }
+        
+        private void empty(int depth, String element) throws XMLStreamException {
+            newLine(depth);
+            writer.writeEmptyElement(LIQUIBASE_NAMESPACE, element);
+        }
+        
+        /**
+         * Close the element started at {@code depth}, on its own line.
+         */
+        private void end(int depth) throws XMLStreamException {
+            newLine(depth);
+            writer.writeEndElement();
+        }
+        
+        private void newLine(int depth) throws XMLStreamException {
+            writer.writeCharacters("\n" + "    ".repeat(depth));
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.exception.SchemaException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the source schema of the migrated tables straight from the catalog
+ * (information_schema on MySQL, pg_catalog on PostgreSQL) and writes it as a Liquibase
+ * changelog. Columns, indexes and foreign keys each take one set-based query covering
+ * every table, and the three queries run concurrently on their own connections,
+ * instead of Liquibase's DatabaseMetaData calls per table and object type.
+ * Partial, expression and MySQL prefix indexes are left out.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NativeSchemaExtractor {
+    
+    private static final Pattern MYSQL_INTEGER_WIDTH =
+        Pattern.compile("^(TINYINT|SMALLINT|MEDIUMINT|INT|INTEGER|BIGINT)\\(\\d+\\)");
+    private static final Set<String> MYSQL_NUMERIC_TYPES = Set.of(
+        "tinyint", "smallint", "mediumint", "int", "integer", "bigint", "decimal", "numeric", "float", "double");
+    
+    private static final Pattern PG_STRING_DEFAULT = Pattern.compile("^'((?:[^']|'')*)'(::.+)?$");
+    private static final Pattern PG_NUMERIC_DEFAULT = Pattern.compile("^\\(?(-?\\d+(\\.\\d+)?)\\)?(::.+)?$");
+    private static final Map<String, String> PG_RULES = Map.of(
+        "a", "NO ACTION", "r", "RESTRICT", "c", "CASCADE", "n", "SET NULL", "d", "SET DEFAULT");
+    
+    private static final String MYSQL_COLUMNS = """
+        SELECT TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, DATA_TYPE, IS_NULLABLE, COLUMN_DEFAULT, EXTRA
+        FROM information_schema.COLUMNS
+        WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (%s)
+        ORDER BY TABLE_NAME, ORDINAL_POSITION
+        """;
+    private static final String MYSQL_INDEXES = """
+        SELECT TABLE_NAME, INDEX_NAME, NON_UNIQUE = 0, COLUMN_NAME, INDEX_NAME = 'PRIMARY', SUB_PART
+        FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (%s)
+        ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX
+        """;
+    private static final String MYSQL_FOREIGN_KEYS = """
+        SELECT k.TABLE_NAME, k.CONSTRAINT_NAME, k.COLUMN_NAME, k.REFERENCED_TABLE_NAME,
+               k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE
+        FROM information_schema.KEY_COLUMN_USAGE k
+        JOIN information_schema.REFERENTIAL_CONSTRAINTS r
+          ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME
+         AND r.TABLE_NAME = k.TABLE_NAME
+        WHERE k.TABLE_SCHEMA = ? AND k.TABLE_NAME IN (%s)
+        ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.ORDINAL_POSITION
+        """;
+    
+    private static final String PG_COLUMNS = """
+        SELECT c.relname, a.attname, format_type(a.atttypid, a.atttypmod), NOT a.attnotnull,
+               pg_get_expr(d.adbin, d.adrelid), a.attidentity IN ('a', 'd')
+        FROM pg_attribute a
+        JOIN pg_class c ON c.oid = a.attrelid
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum
+        WHERE n.nspname = ? AND c.relname = ANY (?) AND c.relkind IN ('r', 'p')
+          AND a.attnum > 0 AND NOT a.attisdropped
+        ORDER BY c.relname, a.attnum
+        """;
+    private static final String PG_INDEXES = """
+        SELECT t.relname, i.relname, ix.indisunique, a.attname, ix.indisprimary, NULL::int
+        FROM pg_index ix
+        JOIN pg_class t ON t.oid = ix.indrelid
+        JOIN pg_class i ON i.oid = ix.indexrelid
+        JOIN pg_namespace n ON n.oid = t.relnamespace
+        CROSS JOIN LATERAL unnest(ix.indkey) WITH ORDINALITY AS k(attnum, ord)
+        LEFT JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum AND k.attnum > 0
+        WHERE n.nspname = ? AND t.relname = ANY (?) AND k.ord <= ix.indnkeyatts AND ix.indpred IS NULL
+        ORDER BY t.relname, i.relname, k.ord
+        """;
+    private static final String PG_FOREIGN_KEYS = """
+        SELECT t.relname, con.conname, a.attname, rt.relname, ra.attname, con.confupdtype, con.confdeltype
+        FROM pg_constraint con
+        JOIN pg_class t ON t.oid = con.conrelid
+        JOIN pg_class rt ON rt.oid = con.confrelid
+        JOIN pg_namespace n ON n.oid = t.relnamespace
+        CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(attnum, refattnum, ord)
+        JOIN pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum
+        JOIN pg_attribute ra ON ra.attrelid = con.confrelid AND ra.attnum = k.refattnum
+        WHERE con.contype = 'f' AND n.nspname = ? AND t.relname = ANY (?)
+        ORDER BY t.relname, con.conname, k.ord
+        """;
+    
+    private final DatabaseConnectionFactory connectionFactory;
+    
+    /**
+     * Write the changelog for the tables to {@code changelog}. Foreign keys to tables
+     * outside the list are left out.
+     */
+    public void extract(DatabaseConnectionConfig config, List<String> tables, Path changelog) {
+        boolean postgres = config.getType() == DatabaseType.POSTGRESQL;
+        
+        Map<String, List<SchemaModel.Column>> columns;
+        Map<String, List<IndexRow>> indexes;
+        Map<String, List<ForeignKeyRow>> foreignKeys;
+        try (ExecutorService queries = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Map<String, List<SchemaModel.Column>>> columnsFuture = queries.submit(() -> query(
+                config, tables, postgres ? PG_COLUMNS : MYSQL_COLUMNS,
+                postgres ? NativeSchemaExtractor::pgColumn : NativeSchemaExtractor::mysqlColumn));
+            Future<Map<String, List<IndexRow>>> indexesFuture = queries.submit(() -> query(
+                config, tables, postgres ? PG_INDEXES : MYSQL_INDEXES, NativeSchemaExtractor::indexRow));
+            Future<Map<String, List<ForeignKeyRow>>> foreignKeysFuture = queries.submit(() -> query(
+                config, tables, postgres ? PG_FOREIGN_KEYS : MYSQL_FOREIGN_KEYS,
+                rs -> foreignKeyRow(rs, postgres)));
+            columns = columnsFuture.get();
+            indexes = indexesFuture.get();
+            foreignKeys = foreignKeysFuture.get();
+            
+        } catch (ExecutionException e) {
+            throw new SchemaException("Failed to read source catalog", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SchemaException("Interrupted while reading source catalog", e);
+        }
+        
+        Set<String> scope = tables.stream()
+            .map(table -> table.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toSet());
+        List<SchemaModel.Table> model = new ArrayList<>();
+        for (String table : tables) {
+            if (!columns.containsKey(table)) {
+                throw new SchemaException("Table '" + table + "' not found in source schema " + config.getSchemaOrDefault());
+            }
+            model.add(toTable(table, columns.get(table),
+                indexes.getOrDefault(table, List.of()), foreignKeys.getOrDefault(table, List.of()), scope, postgres));
+        }
+        
+        ChangelogWriter.write(changelog, model);
+        log.info("Native extractor wrote {} tables, {} indexes and {} foreign keys",
+                model.size(),
+                model.stream().mapToInt(table -> table.indexes().size()).sum(),
+                model.stream().mapToInt(table -> table.foreignKeys().size()).sum());
+    }
+    
+    /**
+     * Run one catalog query for all tables and group its rows by table (first column).
+     * MySQL statements get one placeholder per table; PostgreSQL ones take an array.
+     */
+    private <T> Map<String, List<T>> query(DatabaseConnectionConfig config, List<String> tables,
+            String sql, RowMapper<T> mapper) throws SQLException {
+        boolean postgres = config.getType() == DatabaseType.POSTGRESQL;
+        String statement = postgres ? sql : sql.formatted(String.join(", ", Collections.nCopies(tables.size(), "?")));
+        
+        try (Connection connection = connectionFactory.createConnection(config);
+             PreparedStatement stmt = connection.prepareStatement(statement)) {
+            stmt.setString(1, config.getSchemaOrDefault());
+            if (postgres) {
+                stmt.setArray(2, connection.createArrayOf("text", tables.toArray()));
+            } else {
+                for (int i = 0; i < tables.size(); i++) {
+                    stmt.setString(i + 2, tables.get(i));
+                }
+            }
+            
+            // Catalogs may report table names in a different case (lower_case_table_names)
+            Map<String, List<T>> rows = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.computeIfAbsent(rs.getString(1), table -> new ArrayList<>()).add(mapper.map(rs));
+                }
+            }
+            return rows;
+        }
+    }
+    
+    /**
+     * Assemble a table from its catalog rows. Index and foreign key rows come one per
+     * column, ordered by name and position.
+     */
+    private static SchemaModel.Table toTable(String table, List<SchemaModel.Column> columns,
+            List<IndexRow> indexRows, List<ForeignKeyRow> foreignKeyRows, Set<String> scope, boolean postgres) {
+        List<String> primaryKey = new ArrayList<>();
+        String primaryKeyName = null;
+        Map<String, List<String>> indexColumns = new LinkedHashMap<>();
+        Map<String, Boolean> uniqueIndexes = new LinkedHashMap<>();
+        Set<String> expressionIndexes = new HashSet<>();
+        Set<String> prefixIndexes = new HashSet<>();
+        for (IndexRow row : indexRows) {
+            if (row.primary()) {
+                primaryKey.add(row.column());
+                primaryKeyName = postgres ? row.name() : null;
+            } else if (row.column() == null) {
+                expressionIndexes.add(row.name());
+            } else {
+                if (row.prefix()) {
+                    prefixIndexes.add(row.name());
+                }
+                indexColumns.computeIfAbsent(row.name(), name -> new ArrayList<>()).add(row.column());
+                uniqueIndexes.put(row.name(), row.unique());
+            }
+        }
+        List<SchemaModel.Index> indexes = new ArrayList<>();
+        indexColumns.forEach((name, indexed) -> {
+            if (expressionIndexes.contains(name)) {
+                log.warn("Skipping expression index {}.{}, not supported by the native extractor", table, name);
+            } else if (prefixIndexes.contains(name)) {
+                // Indexing the full column could exceed the key length or fail on TEXT/BLOB
+                log.warn("Skipping prefix index {}.{}, not supported by the native extractor", table, name);
+            } else {
+                indexes.add(new SchemaModel.Index(name, indexed, uniqueIndexes.get(name)));
+            }
+        });
+        
+        Map<String, List<ForeignKeyRow>> byConstraint = foreignKeyRows.stream()
+            .collect(Collectors.groupingBy(ForeignKeyRow::name, LinkedHashMap::new, Collectors.toList()));
+        List<SchemaModel.ForeignKey> foreignKeys = new ArrayList<>();
+        byConstraint.forEach((name, rows) -> {
+            ForeignKeyRow first = rows.getFirst();
+            if (!scope.contains(first.referencedTable().toLowerCase(Locale.ROOT))) {
+                log.info("Leaving out foreign key {}.{} to {}, outside the migration", table, name, first.referencedTable());
+                return;
+            }
+            foreignKeys.add(new SchemaModel.ForeignKey(name,
+                rows.stream().map(ForeignKeyRow::column).toList(),
+                first.referencedTable(),
+                rows.stream().map(ForeignKeyRow::referencedColumn).toList(),
+                first.onUpdate(), first.onDelete()));
+        });
+        
+        return new SchemaModel.Table(table, columns, primaryKey, primaryKeyName, indexes, foreignKeys);
+    }
+    
+    /**
+     * MySQL column: the base type in upper case as Liquibase writes it, keeping
+     * parameters, UNSIGNED and ENUM/SET values, dropping integer display widths
+     * except TINYINT(1).
+     */
+    private static SchemaModel.Column mysqlColumn(ResultSet rs) throws SQLException {
+        String columnType = rs.getString(3);
+        String dataType = rs.getString(4).toLowerCase(Locale.ROOT);
+        String type = dataType.toUpperCase(Locale.ROOT) + columnType.substring(dataType.length());
+        Matcher width = MYSQL_INTEGER_WIDTH.matcher(type);
+        if (width.find() && !type.startsWith("TINYINT(1)")) {
+            type = width.group(1) + type.substring(width.end());
+        }
+        type = type.replace(" unsigned", " UNSIGNED").replace(" zerofill", " ZEROFILL");
+        
+        String extra = rs.getString(7) != null ? rs.getString(7).toLowerCase(Locale.ROOT) : "";
+        String defaultValue = rs.getString(6);
+        String defaultAttribute = null;
+        if (defaultValue != null) {
+            if (extra.contains("default_generated") || "bit".equals(dataType)) {
+                defaultAttribute = "defaultValueComputed";
+            } else if (MYSQL_NUMERIC_TYPES.contains(dataType)) {
+                defaultAttribute = "defaultValueNumeric";
+            } else {
+                defaultAttribute = "defaultValue";
+            }
+        }
+        return new SchemaModel.Column(rs.getString(2), type, "YES".equals(rs.getString(5)),
+            extra.contains("auto_increment"), defaultAttribute, defaultValue);
+    }
+    
+    /**
+     * PostgreSQL column: format_type() in upper case with the SQL-standard character
+     * type names shortened as Liquibase writes them; nextval() defaults and identity
+     * columns become autoIncrement.
+     */
+    private static SchemaModel.Column pgColumn(ResultSet rs) throws SQLException {
+        String type = rs.getString(3);
+        if (!type.contains("\"")) {
+            type = type.toUpperCase(Locale.ROOT)
+                .replace("CHARACTER VARYING", "VARCHAR")
+                .replaceFirst("^CHARACTER(?=\\(|$)", "CHAR");
+        }
+        
+        String expression = rs.getString(5);
+        boolean autoIncrement = rs.getBoolean(6) || expression != null && expression.startsWith("nextval(");
+        String defaultAttribute = null;
+        String defaultValue = null;
+        if (expression != null && !autoIncrement && !expression.startsWith("NULL::")) {
+            Matcher string = PG_STRING_DEFAULT.matcher(expression);
+            Matcher numeric = PG_NUMERIC_DEFAULT.matcher(expression);
+            if (string.matches()) {
+                defaultAttribute = "defaultValue";
+                defaultValue = string.group(1).replace("''", "'");
+            } else if (numeric.matches()) {
+                defaultAttribute = "defaultValueNumeric";
+                defaultValue = numeric.group(1);
+            } else if ("true".equals(expression) || "false".equals(expression)) {
+                defaultAttribute = "defaultValueBoolean";
+                defaultValue = expression;
+            } else {
+                defaultAttribute = "defaultValueComputed";
+                defaultValue = expression;
+            }
+        }
+        return new SchemaModel.Column(rs.getString(2), type, rs.getBoolean(4), autoIncrement,
+            defaultAttribute, defaultValue);
+    }
+    
+    private static IndexRow indexRow(ResultSet rs) throws SQLException {
+        return new IndexRow(rs.getString(2), rs.getBoolean(3), rs.getString(4), rs.getBoolean(5),
+            rs.getObject(6) != null);
+    }
+    
+    private static ForeignKeyRow foreignKeyRow(ResultSet rs, boolean postgres) throws SQLException {
+        String onUpdate = rs.getString(6);
+        String onDelete = rs.getString(7);
+        return new ForeignKeyRow(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            postgres ? PG_RULES.get(onUpdate) : onUpdate,
+            postgres ? PG_RULES.get(onDelete) : onDelete);
+    }
+    
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+    
+    /**
+     * One column of an index; column is null for an expression, prefix is set when only
+     * the leading part of the column is indexed (MySQL SUB_PART).
+     */
+    private record IndexRow(String name, boolean unique, String column, boolean primary, boolean prefix) {}
+    
+    /**
+     * One column pair of a foreign key.
+     */
+    private record ForeignKeyRow(String name, String column, String referencedTable, String referencedColumn,
+                                 String onUpdate, String onDelete) {}
+}
@@ -0,0 +1,150 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.model.JobRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Changelogs cached under {@code <outputDir>/cache}. Each changelog is stored once,
+ * gzip-compressed and named by the SHA-256 of its content ({@code objects/<hash>.xml.gz});
+ * {@code refs/<key>} files map a lookup key to that hash. Generated changelogs are keyed
+ * by the source schema fingerprint, normalized ones by the generated changelog's hash
+ * and the normalization inputs. Entries are written to a temporary file and moved in
+ * place, so concurrent jobs never read a partial entry.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaCache {
+    
+    private final MigrationProperties properties;
+    
+    /**
+     * Decompress the changelog stored under {@code key} to {@code target}.
+     * Returns its content hash, or empty on a miss or a corrupt entry.
+     */
+    public Optional<String> restore(String key, Path target) {
+        Path ref = refs().resolve(key);
+        try {
+            String hash = Files.readString(ref).trim();
+            MessageDigest digest = SchemaFingerprinter.sha256();
+            try (InputStream in = new DigestInputStream(
+                    new GZIPInputStream(Files.newInputStream(object(hash))), digest);
+                 OutputStream out = Files.newOutputStream(target)) {
+                in.transferTo(out);
+            }
+            
+            if (!hash.equals(HexFormat.of().formatHex(digest.digest()))) {
+                log.warn("Schema cache entry {} is corrupt, ignoring it", hash);
+                Files.deleteIfExists(target);
+                return Optional.empty();
+            }
+            return Optional.of(hash);
+            
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Failed to read schema cache entry {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Store the changelog at {@code source} under {@code key}. Returns its content hash,
+     * or empty when it could not be stored; the cache never fails a job.
+     */
+    public Optional<String> store(String key, Path source) {
+        try {
+            Files.createDirectories(refs());
+            Files.createDirectories(objects());
+            
+            Path compressed = Files.createTempFile(objects(), "changelog-", ".tmp");
+            MessageDigest digest = SchemaFingerprinter.sha256();
+            try (InputStream in = Files.newInputStream(source);
+                 OutputStream out = new DigestOutputStream(
+                     new GZIPOutputStream(Files.newOutputStream(compressed)), digest)) {
+                in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            
+            try {
+                Files.move(compressed, object(hash), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content already cached, possibly by a concurrent job
+                Files.delete(compressed);
+            }
+            
+            Path ref = Files.createTempFile(refs(), "ref-", ".tmp");
+            Files.writeString(ref, hash);
+            Files.move(ref, refs().resolve(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            
+            log.info("Cached changelog {} as {}", source, hash);
+            return Optional.of(hash);
+            
+        } catch (IOException e) {
+            log.warn("Failed to cache changelog {}: {}", source, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Key of the generated changelog of a source schema.
+     */
+    public static String generatedKey(String fingerprint) {
+        return "generated-" + fingerprint;
+    }
+    
+    /**
+     * Key of the normalized changelog: the generated changelog's content and every
+     * input of normalization.
+     */
+    public static String normalizedKey(String generatedHash, JobRequest request) {
+        MessageDigest digest = SchemaFingerprinter.sha256();
+        SchemaFingerprinter.update(digest, generatedHash);
+        SchemaFingerprinter.update(digest, request.getSource().getType());
+        SchemaFingerprinter.update(digest, request.getTarget().getType());
+        if (request.getDataTypeMappings() != null) {
+            new TreeMap<>(request.getDataTypeMappings()).forEach((type, mapped) -> {
+                SchemaFingerprinter.update(digest, type);
+                SchemaFingerprinter.update(digest, mapped);
+            });
+        }
+        return "normalized-" + HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private Path root() {
+        return Paths.get(properties.getSchema().getOutputDir(), "cache");
+    }
+    
+    private Path refs() {
+        return root().resolve("refs");
+    }
+    
+    private Path objects() {
+        return root().resolve("objects");
+    }
+    
+    private Path object(String hash) {
+        return objects().resolve(hash + ".xml.gz");
+    }
+}
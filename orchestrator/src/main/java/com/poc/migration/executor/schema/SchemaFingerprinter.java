@@ -0,0 +1,159 @@
+package com.poc.migration.executor.schema;
+
+import com.poc.migration.exception.SchemaException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import com.poc.migration.model.SchemaExtractor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Fingerprints the source schema of the migrated tables: a SHA-256 over the catalog
+ * rows of their columns, indexes and constraints, read with a single query. Two jobs
+ * get the same fingerprint when they would generate the same changelog, so it keys
+ * the schema cache.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaFingerprinter {
+    
+    /**
+     * Bump when the changelog layout changes, so older cache entries stop matching.
+     */
+    private static final String FORMAT_VERSION = "1";
+    
+    private static final String MYSQL_CATALOG = """
+        SELECT TABLE_NAME, 'C', COLUMN_NAME,
+               CONCAT_WS('|', ORDINAL_POSITION, COLUMN_TYPE, IS_NULLABLE, COLUMN_DEFAULT, EXTRA)
+        FROM information_schema.COLUMNS
+        WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (%1$s)
+        UNION ALL
+        SELECT TABLE_NAME, 'I', INDEX_NAME, CONCAT_WS('|', SEQ_IN_INDEX, NON_UNIQUE, COLUMN_NAME, SUB_PART)
+        FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (%1$s)
+        UNION ALL
+        SELECT k.TABLE_NAME, 'F', k.CONSTRAINT_NAME,
+               CONCAT_WS('|', k.ORDINAL_POSITION, k.COLUMN_NAME, k.REFERENCED_TABLE_NAME,
+                         k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE)
+        FROM information_schema.KEY_COLUMN_USAGE k
+        JOIN information_schema.REFERENTIAL_CONSTRAINTS r
+          ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME
+         AND r.TABLE_NAME = k.TABLE_NAME
+        WHERE k.TABLE_SCHEMA = ? AND k.TABLE_NAME IN (%1$s)
+        ORDER BY 1, 2, 3, 4
+        """;
+    
+    private static final String PG_CATALOG = """
+        SELECT c.relname, 'C', a.attname,
+               concat_ws('|', a.attnum, format_type(a.atttypid, a.atttypmod), a.attnotnull,
+                         pg_get_expr(d.adbin, d.adrelid), a.attidentity)
+        FROM pg_attribute a
+        JOIN pg_class c ON c.oid = a.attrelid
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum
+        WHERE n.nspname = ? AND c.relname = ANY (?) AND a.attnum > 0 AND NOT a.attisdropped
+        UNION ALL
+        SELECT t.relname, 'I', i.relname, pg_get_indexdef(i.oid)
+        FROM pg_index ix
+        JOIN pg_class t ON t.oid = ix.indrelid
+        JOIN pg_class i ON i.oid = ix.indexrelid
+        JOIN pg_namespace n ON n.oid = t.relnamespace
+        WHERE n.nspname = ? AND t.relname = ANY (?)
+        UNION ALL
+        SELECT t.relname, 'K', con.conname, pg_get_constraintdef(con.oid)
+        FROM pg_constraint con
+        JOIN pg_class t ON t.oid = con.conrelid
+        JOIN pg_namespace n ON n.oid = t.relnamespace
+        WHERE n.nspname = ? AND t.relname = ANY (?)
+        ORDER BY 1, 2, 3, 4
+        """;
+    
+    private final DatabaseConnectionFactory connectionFactory;
+    
+    /**
+     * Fingerprint of the tables' schema as the given extractor would read it, as hex.
+     */
+    public String fingerprint(DatabaseConnectionConfig config, List<String> tables, SchemaExtractor extractor) {
+        boolean postgres = config.getType() == DatabaseType.POSTGRESQL;
+        String sql = postgres
+            ? PG_CATALOG
+            : MYSQL_CATALOG.formatted(String.join(", ", Collections.nCopies(tables.size(), "?")));
+        
+        MessageDigest digest = sha256();
+        update(digest, FORMAT_VERSION);
+        update(digest, extractor.name());
+        update(digest, config.getType().name());
+        tables.stream()
+            .map(table -> table.toLowerCase(Locale.ROOT))
+            .sorted()
+            .forEach(table -> update(digest, table));
+        
+        long startedAt = System.currentTimeMillis();
+        int rows = 0;
+        try (Connection connection = connectionFactory.createConnection(config);
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int part = 0; part < 3; part++) {
+                stmt.setString(index++, config.getSchemaOrDefault());
+                if (postgres) {
+                    stmt.setArray(index++, connection.createArrayOf("text", tables.toArray()));
+                } else {
+                    for (String table : tables) {
+                        stmt.setString(index++, table);
+                    }
+                }
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    for (int column = 1; column <= 4; column++) {
+                        update(digest, rs.getString(column));
+                    }
+                    rows++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new SchemaException("Failed to fingerprint source schema", e);
+        }
+        
+        String fingerprint = HexFormat.of().formatHex(digest.digest());
+        log.info("Source schema fingerprint {} from {} catalog rows in {} ms",
+                fingerprint, rows, System.currentTimeMillis() - startedAt);
+        return fingerprint;
+    }
+    
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Add a value to the digest, terminated so adjacent values cannot run together.
+     */
+    static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 1);
+        } else {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.poc.migration.executor.schema;
+
+import java.util.List;
+
+/**
+ * Source schema as read from the catalog by {@link NativeSchemaExtractor}; just enough
+ * for createTable, createIndex and addForeignKeyConstraint changes.
+ */
+final class SchemaModel {
+    
+    private SchemaModel() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * A table with its columns in ordinal order. {@code primaryKeyName} is null when
+     * the name should be left to the target (MySQL names every primary key PRIMARY).
+     */
+    record Table(String name, List<Column> columns, List<String> primaryKey, String primaryKeyName,
+                 List<Index> indexes, List<ForeignKey> foreignKeys) {}
+    
+    /**
+     * A column; {@code defaultAttribute} is the Liquibase attribute carrying the default
+     * (defaultValue, defaultValueNumeric, defaultValueBoolean or defaultValueComputed).
+     */
+    record Column(String name, String type, boolean nullable, boolean autoIncrement,
+                  String defaultAttribute, String defaultValue) {}
+    
+    /**
+     * A secondary index or unique constraint (primary keys are on the table).
+     */
+    record Index(String name, List<String> columns, boolean unique) {}
+    
+    record ForeignKey(String name, List<String> columns, String referencedTable,
+                      List<String> referencedColumns, String onUpdate, String onDelete) {}
+}
@@ -0,0 +1,105 @@
+package com.poc.migration.executor.schema;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Copies the current StAX event of a reader to a writer, so changelogs can be rewritten
+ * while streaming. Liquibase writes XML 1.1, for which the JDK parser also reports
+ * namespace declarations as attributes (and its event writer then fails); those
+ * attributes are dropped here since the declarations are written as namespaces.
+ */
+final class StaxCopier {
+    
+    static final String ENCODING = "UTF-8";
+    
+    private StaxCopier() {
+        // Utility class - prevent instantiation
+    }
+    
+    /**
+     * Write the reader's current event.
+     */
+    static void copy(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        switch (reader.getEventType()) {
+            case XMLStreamConstants.START_DOCUMENT -> writer.writeStartDocument(ENCODING,
+                reader.getVersion() != null ? reader.getVersion() : "1.0");
+            case XMLStreamConstants.START_ELEMENT -> {
+                startElement(reader, writer);
+                copyAttributes(reader, writer);
+            }
+            case XMLStreamConstants.END_ELEMENT -> writer.writeEndElement();
+            case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE -> writer.writeCharacters(reader.getText());
+            case XMLStreamConstants.CDATA -> writer.writeCData(reader.getText());
+            case XMLStreamConstants.COMMENT -> writer.writeComment(reader.getText());
+            case XMLStreamConstants.PROCESSING_INSTRUCTION -> writer.writeProcessingInstruction(
+                reader.getPITarget(), reader.getPIData());
+            case XMLStreamConstants.END_DOCUMENT -> writer.writeEndDocument();
+            default -> {
+                // DTD and entity events are not expected in changelogs
+            }
+        }
+    }
+    
+    /**
+     * Write the start tag of the current element with its namespace declarations, but no attributes.
+     */
+    static void startElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        String prefix = reader.getPrefix() != null ? reader.getPrefix() : "";
+        String namespace = reader.getNamespaceURI() != null ? reader.getNamespaceURI() : "";
+        writer.writeStartElement(prefix, reader.getLocalName(), namespace);
+        
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String declared = reader.getNamespacePrefix(i);
+            if (declared == null || declared.isEmpty()) {
+                writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.writeNamespace(declared, reader.getNamespaceURI(i));
+            }
+        }
+    }
+    
+    /**
+     * Write the attributes of the current element, skipping namespace declarations.
+     */
+    static void copyAttributes(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            writeAttribute(reader, writer, i, reader.getAttributeValue(i));
+        }
+    }
+    
+    /**
+     * Write attribute {@code index} of the current element with the given value.
+     */
+    static void writeAttribute(XMLStreamReader reader, XMLStreamWriter writer, int index, String value)
+            throws XMLStreamException {
+        String namespace = reader.getAttributeNamespace(index);
+        if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(namespace)) {
+            return;
+        }
+        String prefix = reader.getAttributePrefix(index);
+        if (prefix == null || prefix.isEmpty()) {
+            writer.writeAttribute(reader.getAttributeLocalName(index), value);
+        } else {
+            writer.writeAttribute(prefix, namespace, reader.getAttributeLocalName(index), value);
+        }
+    }
+    
+    /**
+     * Advance past the end of the current element without writing it.
+     */
+    static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
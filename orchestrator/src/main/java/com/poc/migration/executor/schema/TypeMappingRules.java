@@ -0,0 +1,64 @@
+package com.poc.migration.executor.schema;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Job dataTypeMappings compiled for one source database type. Keys are
+ * {@code "<sourceType>.<TYPE>"}; a key naming a base type ("mysql.DECIMAL") rewrites
+ * the base and keeps the parameters (DECIMAL(10,2) becomes NUMERIC(10,2)), a key naming
+ * a full type ("mysql.TINYINT(1)") replaces the whole type. Base keys win.
+ * Not thread-safe: rewrites are memoized, since a changelog repeats few distinct types.
+ */
+public final class TypeMappingRules {
+    
+    private final Map<String, String> rules;
+    private final Map<String, String> rewrites = new HashMap<>();
+    
+    private TypeMappingRules(Map<String, String> rules) {
+        this.rules = rules;
+    }
+    
+    /**
+     * Keep the mappings that apply to {@code sourceType}, keyed by type.
+     */
+    public static TypeMappingRules compile(Map<String, String> typeMappings, String sourceType) {
+        Map<String, String> rules = new HashMap<>();
+        if (typeMappings != null) {
+            String prefix = sourceType + ".";
+            typeMappings.forEach((key, target) -> {
+                if (key.startsWith(prefix)) {
+                    rules.put(key.substring(prefix.length()), target);
+                }
+            });
+        }
+        return new TypeMappingRules(rules);
+    }
+    
+    /**
+     * The mapped type, or null when no rule applies.
+     */
+    public String rewrite(String type) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        String rewritten = rewrites.computeIfAbsent(type, this::apply);
+        return rewritten.equals(type) ? null : rewritten;
+    }
+    
+    /**
+     * The mapped type, or {@code type} itself when no rule applies.
+     */
+    private String apply(String type) {
+        String upper = type.toUpperCase(Locale.ROOT);
+        int parameters = upper.indexOf('(');
+        String baseType = parameters < 0 ? upper : upper.substring(0, parameters);
+        
+        String mapped = rules.get(baseType);
+        if (mapped != null) {
+            return parameters < 0 ? mapped : mapped + upper.substring(parameters);
+        }
+        return rules.getOrDefault(upper, type);
+    }
+}
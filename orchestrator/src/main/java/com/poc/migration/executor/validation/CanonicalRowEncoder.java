@@ -0,0 +1,496 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.infrastructure.database.DatabaseType;
+import com.poc.migration.util.XxHash64;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Encodes a row into a dialect-neutral byte form and hashes it, so MySQL and
+ * PostgreSQL rows holding the same data hash equally:
+ * <ul>
+ *   <li>integers, booleans and integral decimals become the same 8-byte long
+ *       (TINYINT vs SMALLINT, DECIMAL(10,0) vs BIGINT); TINYINT(1) is read as a
+ *       number, or as a truth value when the target column or mapping is BOOLEAN</li>
+ *   <li>other decimals are compared without trailing zeros (DECIMAL scale)</li>
+ *   <li>CHAR(n) values are compared without trailing spaces (PAD SPACE)</li>
+ *   <li>timestamps and times are truncated to the coarser precision of the two sides</li>
+ * </ul>
+ * Integer and floating-point values are read with primitive getters and every row is
+ * written into one reusable buffer. Text, decimal, binary and temporal values are still
+ * returned as objects by the driver, so encoding is not allocation-free.
+ * An encoder is not thread-safe.
+ */
+public final class CanonicalRowEncoder {
+    
+    private static final byte NULL = 'N';
+    private static final byte LONG = 'I';
+    private static final byte DECIMAL = 'D';
+    private static final byte DOUBLE = 'F';
+    private static final byte TEXT = 'S';
+    private static final byte BYTES = 'B';
+    private static final byte TIMESTAMP = 'T';
+    private static final byte DATE = 'd';
+    private static final byte TIME = 't';
+    
+    private static final int[] NANOS_UNIT = {
+        1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+    
+    private final Column[] columns;
+    private byte[] buffer = new byte[512];
+    private int length;
+    
+    private CanonicalRowEncoder(Column[] columns) {
+        this.columns = columns;
+    }
+    
+    /**
+     * Encode the current row of {@code rs} and return its 64-bit hash.
+     */
+    public long hashRow(ResultSet rs) throws SQLException {
+        return hashRow(rs, 1);
+    }
+    
+    /**
+     * Hash of the current row, reading the columns from {@code firstColumn} onwards.
+     */
+    public long hashRow(ResultSet rs, int firstColumn) throws SQLException {
+        encode(rs, firstColumn);
+        return XxHash64.hash(buffer, 0, length, 0);
+    }
+    
+    /**
+     * Encode the current row of {@code rs}; columns are read in select order.
+     */
+    public void encode(ResultSet rs) throws SQLException {
+        encode(rs, 1);
+    }
+    
+    public void encode(ResultSet rs, int firstColumn) throws SQLException {
+        length = 0;
+        for (int i = 0; i < columns.length; i++) {
+            encodeColumn(rs, firstColumn + i, columns[i]);
+        }
+    }
+    
+    /**
+     * Copy of the last encoded row.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+    
+    /**
+     * Values of an encoded row, for reports: integers as Long, decimals as BigDecimal,
+     * floats as Double, text as String, binary as byte[], temporal values as java.time.
+     */
+    public static List<Object> decode(byte[] encoded) {
+        ByteBuffer in = ByteBuffer.wrap(encoded);
+        List<Object> values = new ArrayList<>();
+        while (in.hasRemaining()) {
+            byte tag = in.get();
+            switch (tag) {
+                case NULL -> values.add(null);
+                case LONG -> values.add(in.getLong());
+                case DOUBLE -> values.add(Double.longBitsToDouble(in.getLong()));
+                case DATE -> values.add(LocalDate.ofEpochDay(in.getLong()));
+                case TIME -> values.add(LocalTime.ofNanoOfDay(in.getLong()));
+                case TIMESTAMP -> values.add(LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC));
+                case DECIMAL -> {
+                    int scale = in.getInt();
+                    byte[] unscaled = new byte[in.getInt()];
+                    in.get(unscaled);
+                    values.add(new BigDecimal(new BigInteger(unscaled), scale));
+                }
+                case TEXT, BYTES -> {
+                    byte[] bytes = new byte[in.getInt()];
+                    in.get(bytes);
+                    values.add(tag == TEXT ? new String(bytes, StandardCharsets.UTF_8) : bytes);
+                }
+                default -> throw new IllegalArgumentException("Unknown value tag: " + (char) tag);
+            }
+        }
+        return values;
+    }
+    
+    private void encodeColumn(ResultSet rs, int index, Column column) throws SQLException {
+        switch (column.reader()) {
+            case LONG -> {
+                long value = rs.getLong(index);
+                if (rs.wasNull()) {
+                    writeNull();
+                } else {
+                    writeLong(LONG, value);
+                }
+            }
+            case BOOLEAN -> {
+                boolean value = rs.getBoolean(index);
+                if (rs.wasNull()) {
+                    writeNull();
+                } else {
+                    writeLong(LONG, value ? 1 : 0);
+                }
+            }
+            case DECIMAL -> writeDecimal(rs.getBigDecimal(index));
+            case DOUBLE -> {
+                double value = rs.getDouble(index);
+                if (rs.wasNull()) {
+                    writeNull();
+                } else {
+                    writeDouble(column.singlePrecision() ? (float) value : value);
+                }
+            }
+            case STRING -> writeText(rs.getString(index), column.trimTrailingSpaces());
+            case BYTES -> writeBytes(rs.getBytes(index));
+            case TIMESTAMP -> writeTimestamp(rs.getTimestamp(index), column.fractionalDigits());
+            case DATE -> {
+                LocalDate value = rs.getObject(index, LocalDate.class);
+                if (value == null) {
+                    writeNull();
+                } else {
+                    writeLong(DATE, value.toEpochDay());
+                }
+            }
+            case TIME -> {
+                LocalTime value = rs.getObject(index, LocalTime.class);
+                if (value == null) {
+                    writeNull();
+                } else {
+                    writeLong(TIME, truncateNanos(value.toNanoOfDay(), column.fractionalDigits()));
+                }
+            }
+        }
+    }
+    
+    private void writeNull() {
+        ensure(1);
+        buffer[length++] = NULL;
+    }
+    
+    private void writeLong(byte tag, long value) {
+        ensure(9);
+        buffer[length++] = tag;
+        putLong(value);
+    }
+    
+    private void writeDouble(double value) {
+        // -0.0 == 0.0, and every NaN is the same NaN
+        writeLong(DOUBLE, Double.doubleToLongBits(value == 0 ? 0.0 : value));
+    }
+    
+    /**
+     * Integral values share the LONG form with integer columns; others are
+     * written as (scale, unscaled) without trailing zeros.
+     */
+    private void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        if (value.signum() == 0) {
+            writeLong(LONG, 0);
+            return;
+        }
+        
+        BigDecimal stripped = value.stripTrailingZeros();
+        if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 18) {
+            writeLong(LONG, stripped.longValueExact());
+            return;
+        }
+        
+        byte[] unscaled = stripped.unscaledValue().toByteArray();
+        ensure(9 + unscaled.length);
+        buffer[length++] = DECIMAL;
+        putInt(stripped.scale());
+        putInt(unscaled.length);
+        System.arraycopy(unscaled, 0, buffer, length, unscaled.length);
+        length += unscaled.length;
+    }
+    
+    /**
+     * Length-prefixed UTF-8, encoded straight into the buffer.
+     */
+    private void writeText(String value, boolean trimTrailingSpaces) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        
+        int end = value.length();
+        if (trimTrailingSpaces) {
+            while (end > 0 && value.charAt(end - 1) == ' ') {
+                end--;
+            }
+        }
+        
+        ensure(5 + end * 3);
+        buffer[length++] = TEXT;
+        int lengthAt = length;
+        length += 4;
+        
+        for (int i = 0; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (cp >> 18));
+                buffer[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        
+        int byteLength = length - lengthAt - 4;
+        int textEnd = length;
+        length = lengthAt;
+        putInt(byteLength);
+        length = textEnd;
+    }
+    
+    private void writeBytes(byte[] value) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        ensure(5 + value.length);
+        buffer[length++] = BYTES;
+        putInt(value.length);
+        System.arraycopy(value, 0, buffer, length, value.length);
+        length += value.length;
+    }
+    
+    /**
+     * Wall-clock time as epoch seconds (UTC) and nanos, truncated to the common precision.
+     */
+    private void writeTimestamp(Timestamp value, int fractionalDigits) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        LocalDateTime dateTime = value.toLocalDateTime();
+        ensure(13);
+        buffer[length++] = TIMESTAMP;
+        putLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        putInt((int) truncateNanos(dateTime.getNano(), fractionalDigits));
+    }
+    
+    private static long truncateNanos(long nanos, int fractionalDigits) {
+        long unit = NANOS_UNIT[Math.max(0, Math.min(9, fractionalDigits))];
+        return nanos - nanos % unit;
+    }
+    
+    private void putLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (value >>> shift);
+        }
+    }
+    
+    private void putInt(int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (value >>> shift);
+        }
+    }
+    
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+    
+    /**
+     * Canonical category of a column, shared by both sides.
+     */
+    enum Category { INTEGER, DECIMAL, FLOAT, TEXT, FIXED_TEXT, BINARY, TIMESTAMP, DATE, TIME }
+    
+    /**
+     * Getter used to read a column on one side.
+     */
+    enum Reader { LONG, BOOLEAN, DECIMAL, DOUBLE, STRING, BYTES, TIMESTAMP, DATE, TIME }
+    
+    private record Column(Reader reader, boolean singlePrecision, boolean trimTrailingSpaces, int fractionalDigits) {}
+    
+    /**
+     * Per-column categories for a source/target column pairing; creates encoders for either side.
+     * Immutable and shareable across threads.
+     */
+    public static final class Layout {
+        
+        private final Column[] sourceColumns;
+        private final Column[] targetColumns;
+        
+        private Layout(Column[] sourceColumns, Column[] targetColumns) {
+            this.sourceColumns = sourceColumns;
+            this.targetColumns = targetColumns;
+        }
+        
+        /**
+         * Build the layout for aligned column lists. The category of each column comes from
+         * the target type named in {@code dataTypeMappings} ("mysql.TINYINT" -> "SMALLINT"),
+         * falling back to the source column's JDBC type.
+         */
+        public static Layout of(TableMetadata source, TableMetadata target, List<String> sourceColumnNames,
+                List<String> targetColumnNames, DatabaseType sourceType, Map<String, String> dataTypeMappings) {
+            int count = sourceColumnNames.size();
+            Column[] sourceColumns = new Column[count];
+            Column[] targetColumns = new Column[count];
+            
+            for (int i = 0; i < count; i++) {
+                TableMetadata.ColumnType sourceColumn = source.columnType(sourceColumnNames.get(i));
+                TableMetadata.ColumnType targetColumn = target.columnType(targetColumnNames.get(i));
+                
+                Category category = category(sourceColumn, sourceType, dataTypeMappings);
+                if (category == Category.TEXT && (sourceColumn.isFixedText() || targetColumn.isFixedText())) {
+                    category = Category.FIXED_TEXT;
+                }
+                
+                // Truth values only when the target keeps nothing else; TINYINT(1) holds -128..127
+                boolean asBoolean = isBoolean(targetColumn)
+                    || isBooleanTypeName(mappedType(sourceColumn, sourceType, dataTypeMappings));
+                boolean singlePrecision = sourceColumn.sqlType() == Types.REAL || targetColumn.sqlType() == Types.REAL;
+                int fractionalDigits = Math.min(sourceColumn.decimalDigits(), targetColumn.decimalDigits());
+                
+                sourceColumns[i] = column(category, sourceColumn, asBoolean, singlePrecision, fractionalDigits);
+                targetColumns[i] = column(category, targetColumn, asBoolean, singlePrecision, fractionalDigits);
+            }
+            return new Layout(sourceColumns, targetColumns);
+        }
+        
+        public CanonicalRowEncoder sourceEncoder() {
+            return new CanonicalRowEncoder(sourceColumns);
+        }
+        
+        public CanonicalRowEncoder targetEncoder() {
+            return new CanonicalRowEncoder(targetColumns);
+        }
+        
+        private static Column column(Category category, TableMetadata.ColumnType type, boolean asBoolean,
+                boolean singlePrecision, int fractionalDigits) {
+            return new Column(reader(category, type, asBoolean), singlePrecision,
+                category == Category.FIXED_TEXT, fractionalDigits);
+        }
+        
+        private static Reader reader(Category category, TableMetadata.ColumnType type, boolean asBoolean) {
+            return switch (category) {
+                case INTEGER -> {
+                    if (asBoolean || isBoolean(type)) {
+                        yield Reader.BOOLEAN;
+                    }
+                    yield type.sqlType() == Types.DECIMAL || type.sqlType() == Types.NUMERIC
+                        ? Reader.DECIMAL
+                        : Reader.LONG;
+                }
+                case DECIMAL -> Reader.DECIMAL;
+                case FLOAT -> Reader.DOUBLE;
+                case TEXT, FIXED_TEXT -> Reader.STRING;
+                case BINARY -> Reader.BYTES;
+                case TIMESTAMP -> Reader.TIMESTAMP;
+                case DATE -> Reader.DATE;
+                case TIME -> Reader.TIME;
+            };
+        }
+        
+        static Category category(TableMetadata.ColumnType source, DatabaseType sourceType,
+                Map<String, String> dataTypeMappings) {
+            String mapped = mappedType(source, sourceType, dataTypeMappings);
+            if (mapped != null) {
+                Category category = categoryOfTypeName(mapped);
+                if (category != null) {
+                    return category;
+                }
+            }
+            
+            // MySQL reports BIGINT UNSIGNED as BIGINT, but it does not fit in a long
+            if (source.sqlType() == Types.BIGINT && source.typeName() != null
+                    && source.typeName().toUpperCase(Locale.ROOT).contains("UNSIGNED")) {
+                return Category.DECIMAL;
+            }
+            return categoryOfSqlType(source.sqlType());
+        }
+        
+        /**
+         * Target type named for the source column in {@code dataTypeMappings}, or null.
+         */
+        static String mappedType(TableMetadata.ColumnType source, DatabaseType sourceType,
+                Map<String, String> dataTypeMappings) {
+            if (dataTypeMappings == null || source.typeName() == null) {
+                return null;
+            }
+            String baseType = source.typeName().toUpperCase(Locale.ROOT).split("[( ]")[0];
+            return dataTypeMappings.get(sourceType.getTypeName() + "." + baseType);
+        }
+        
+        /**
+         * A real boolean column (PostgreSQL bool), as opposed to the BIT that MySQL reports
+         * for TINYINT(1) and BIT(1), which are read as numbers.
+         */
+        static boolean isBoolean(TableMetadata.ColumnType type) {
+            return type.sqlType() == Types.BOOLEAN || isBooleanTypeName(type.typeName());
+        }
+        
+        private static boolean isBooleanTypeName(String typeName) {
+            if (typeName == null) {
+                return false;
+            }
+            String baseType = typeName.toUpperCase(Locale.ROOT).split("\\(")[0].trim();
+            return baseType.equals("BOOL") || baseType.equals("BOOLEAN");
+        }
+        
+        private static Category categoryOfSqlType(int sqlType) {
+            return switch (sqlType) {
+                case Types.BIT, Types.BOOLEAN, Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT ->
+                    Category.INTEGER;
+                case Types.DECIMAL, Types.NUMERIC -> Category.DECIMAL;
+                case Types.REAL, Types.FLOAT, Types.DOUBLE -> Category.FLOAT;
+                case Types.CHAR, Types.NCHAR -> Category.FIXED_TEXT;
+                case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> Category.BINARY;
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> Category.TIMESTAMP;
+                case Types.DATE -> Category.DATE;
+                case Types.TIME, Types.TIME_WITH_TIMEZONE -> Category.TIME;
+                default -> Category.TEXT;
+            };
+        }
+        
+        private static Category categoryOfTypeName(String typeName) {
+            String baseType = typeName.toUpperCase(Locale.ROOT).split("\\(")[0].trim();
+            return switch (baseType) {
+                case "BOOLEAN", "BOOL", "BIT", "TINYINT", "SMALLINT", "MEDIUMINT", "INT", "INTEGER", "BIGINT",
+                     "INT2", "INT4", "INT8", "SERIAL", "BIGSERIAL", "SMALLSERIAL", "YEAR" -> Category.INTEGER;
+                case "DECIMAL", "NUMERIC" -> Category.DECIMAL;
+                case "REAL", "FLOAT", "FLOAT4", "FLOAT8", "DOUBLE", "DOUBLE PRECISION" -> Category.FLOAT;
+                case "CHAR", "CHARACTER", "NCHAR", "BPCHAR" -> Category.FIXED_TEXT;
+                case "VARCHAR", "CHARACTER VARYING", "TEXT", "TINYTEXT", "MEDIUMTEXT", "LONGTEXT", "JSON", "JSONB",
+                     "UUID", "ENUM" -> Category.TEXT;
+                case "BYTEA", "BLOB", "TINYBLOB", "MEDIUMBLOB", "LONGBLOB", "BINARY", "VARBINARY" -> Category.BINARY;
+                case "TIMESTAMP", "TIMESTAMPTZ", "DATETIME" -> Category.TIMESTAMP;
+                case "DATE" -> Category.DATE;
+                case "TIME", "TIMETZ" -> Category.TIME;
+                default -> null;
+            };
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.service.migration.TableStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Near-instant pre-check comparing catalog row estimates of source and target,
+ * run before any exact validation query. Estimates can be off by tens of percent
+ * (InnoDB sampling, stale reltuples), so only order-of-magnitude gaps on tables
+ * of meaningful size are flagged.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogPreCheck {
+    
+    private final TableStatisticsService statisticsService;
+    private final MigrationProperties properties;
+    
+    /**
+     * Estimates for the given tables, most suspicious first (otherwise in the given order).
+     * Returns an empty list if the catalogs cannot be read.
+     */
+    public List<TableEstimate> check(DatabaseConnectionConfig sourceConfig, DatabaseConnectionConfig targetConfig,
+            List<String> tables) {
+        Map<String, TableStatisticsService.TableStatistics> sourceStatistics;
+        Map<String, TableStatisticsService.TableStatistics> targetStatistics;
+        try {
+            sourceStatistics = statisticsService.getStatistics(sourceConfig, tables);
+            targetStatistics = statisticsService.getStatistics(targetConfig, tables);
+        } catch (Exception e) {
+            log.warn("Catalog pre-check skipped: {}", e.getMessage());
+            return List.of();
+        }
+        
+        MigrationProperties.ValidationConfig validation = properties.getValidation();
+        List<TableEstimate> estimates = new ArrayList<>();
+        for (String table : tables) {
+            TableStatisticsService.TableStatistics source = sourceStatistics.get(table);
+            TableStatisticsService.TableStatistics target = targetStatistics.get(table);
+            
+            if (source == null) {
+                // Exact validation reports the missing source table
+                estimates.add(new TableEstimate(table, -1, target != null ? target.estimatedRows() : -1, 1.0, false));
+                continue;
+            }
+            if (target == null) {
+                estimates.add(new TableEstimate(table, source.estimatedRows(), -1, Double.POSITIVE_INFINITY, true));
+                continue;
+            }
+            
+            long sourceRows = source.estimatedRows();
+            long targetRows = target.estimatedRows();
+            double deviation = (double) (Math.max(sourceRows, targetRows) + 1) / (Math.min(sourceRows, targetRows) + 1);
+            boolean suspicious = Math.max(sourceRows, targetRows) >= validation.getCatalogMinRows()
+                && deviation > validation.getCatalogMaxDeviation();
+            estimates.add(new TableEstimate(table, sourceRows, targetRows, deviation, suspicious));
+        }
+        
+        estimates.sort(Comparator.comparing(TableEstimate::suspicious).reversed()
+            .thenComparingDouble(estimate -> estimate.suspicious() ? -estimate.deviation() : 0));
+        
+        long suspicious = estimates.stream().filter(TableEstimate::suspicious).count();
+        estimates.stream()
+            .filter(TableEstimate::suspicious)
+            .forEach(estimate -> log.warn("  ⚠ Catalog estimates differ for '{}': ~{} rows (source) vs ~{} rows (target)",
+                estimate.tableName(), estimate.sourceRows(), estimate.targetRows()));
+        log.info("Catalog pre-check: {}/{} tables look suspicious", suspicious, estimates.size());
+        return estimates;
+    }
+    
+    /**
+     * Catalog row estimates of one table; -1 if the table is not in that catalog.
+     * Deviation is the ratio of the larger to the smaller estimate.
+     */
+    public record TableEstimate(
+            String tableName,
+            long sourceRows,
+            long targetRows,
+            double deviation,
+            boolean suspicious
+    ) {}
+}
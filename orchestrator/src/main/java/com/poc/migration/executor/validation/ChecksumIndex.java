@@ -0,0 +1,233 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.model.TableChecksumNode;
+import com.poc.migration.model.TableChecksumNodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Persistent Merkle tree of range checksums per job and table, stored next to Job.
+ * Leaves are the checksum ranges; each parent sums the counts and checksums of up to
+ * FANOUT children. Later validations reuse unchanged leaves and only descend into
+ * subtrees that are dirty or did not match.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChecksumIndex {
+    
+    static final int FANOUT = 16;
+    
+    private final TableChecksumNodeRepository repository;
+    
+    /**
+     * Stored tree of a table, or null if none was built.
+     */
+    public Tree load(Long jobId, String table) {
+        List<TableChecksumNode> nodes = repository.findByJobIdAndTableNameOrderByLevelAscPositionAsc(jobId, table);
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        
+        Map<Integer, List<TableChecksumNode>> levels = new TreeMap<>();
+        for (TableChecksumNode node : nodes) {
+            levels.computeIfAbsent(node.getLevel(), level -> new ArrayList<>()).add(node);
+        }
+        return new Tree(new ArrayList<>(levels.values()));
+    }
+    
+    /**
+     * Replace the tree of a table with one built from the given leaves (in key order).
+     */
+    @Transactional
+    public void save(Long jobId, String table, List<RangeChecksum> leaves, LocalDateTime computedAt) {
+        repository.deleteByJobIdAndTableName(jobId, table);
+        
+        List<TableChecksumNode> level = new ArrayList<>();
+        for (int i = 0; i < leaves.size(); i++) {
+            RangeChecksum leaf = leaves.get(i);
+            level.add(node(jobId, table, 0, i, leaf.range().lower(), leaf.range().upper(), leaf.sourceRows(),
+                leaf.sourceChecksum(), leaf.targetRows(), leaf.targetChecksum(), computedAt));
+        }
+        
+        List<TableChecksumNode> all = new ArrayList<>(level);
+        for (int depth = 1; level.size() > 1; depth++) {
+            List<TableChecksumNode> parents = new ArrayList<>();
+            for (int start = 0; start < level.size(); start += FANOUT) {
+                List<TableChecksumNode> children = level.subList(start, Math.min(start + FANOUT, level.size()));
+                parents.add(parent(jobId, table, depth, parents.size(), children, computedAt));
+            }
+            all.addAll(parents);
+            level = parents;
+        }
+        
+        repository.saveAll(all);
+        log.debug("Saved checksum tree for {} ({} leaves, {} nodes)", table, leaves.size(), all.size());
+    }
+    
+    /**
+     * Flag the leaves (and their ancestors) overlapping a key range for recomputation.
+     */
+    @Transactional
+    public void markDirty(Long jobId, String table, KeyRange range) {
+        int marked = repository.markDirty(jobId, table, range.lower(), range.upper());
+        log.debug("Marked {} checksum nodes of {} dirty for {}", marked, table, range);
+    }
+    
+    /**
+     * Store checksums recomputed for leaves, e.g. by a recheck after a repair, and clear
+     * their dirty marks. Only leaves whose range equals a recomputed range are updated;
+     * ancestors are summed again and stay dirty while any of their children is.
+     */
+    @Transactional
+    public void refresh(Long jobId, String table, List<RangeChecksum> recomputed) {
+        Tree tree = load(jobId, table);
+        if (tree == null) {
+            return;
+        }
+        
+        Map<KeyRange, RangeChecksum> byRange = new HashMap<>();
+        recomputed.forEach(checksum -> byRange.put(checksum.range(), checksum));
+        
+        int refreshed = 0;
+        for (TableChecksumNode leaf : tree.levels.get(0)) {
+            RangeChecksum checksum = byRange.get(new KeyRange(leaf.getLowerKey(), leaf.getUpperKey()));
+            if (checksum != null) {
+                leaf.setSourceRows(checksum.sourceRows());
+                leaf.setSourceChecksum(checksum.sourceChecksum().toPlainString());
+                leaf.setTargetRows(checksum.targetRows());
+                leaf.setTargetChecksum(checksum.targetChecksum().toPlainString());
+                leaf.setDirty(false);
+                refreshed++;
+            }
+        }
+        if (refreshed == 0) {
+            return;
+        }
+        
+        for (int level = 1; level < tree.levels.size(); level++) {
+            List<TableChecksumNode> children = tree.levels.get(level - 1);
+            for (TableChecksumNode node : tree.levels.get(level)) {
+                List<TableChecksumNode> nodeChildren = children.subList(node.getPosition() * FANOUT,
+                    Math.min((node.getPosition() + 1) * FANOUT, children.size()));
+                TableChecksumNode summed = parent(jobId, table, level, node.getPosition(), nodeChildren,
+                    node.getComputedAt());
+                node.setSourceRows(summed.getSourceRows());
+                node.setSourceChecksum(summed.getSourceChecksum());
+                node.setTargetRows(summed.getTargetRows());
+                node.setTargetChecksum(summed.getTargetChecksum());
+                node.setDirty(nodeChildren.stream().anyMatch(TableChecksumNode::isDirty));
+            }
+        }
+        
+        repository.saveAll(tree.levels.stream().flatMap(List::stream).toList());
+        log.debug("Refreshed {} checksum leaves of {}", refreshed, table);
+    }
+    
+    private static TableChecksumNode parent(Long jobId, String table, int level, int position,
+            List<TableChecksumNode> children, LocalDateTime computedAt) {
+        long sourceRows = 0;
+        long targetRows = 0;
+        BigDecimal sourceChecksum = BigDecimal.ZERO;
+        BigDecimal targetChecksum = BigDecimal.ZERO;
+        
+        for (TableChecksumNode child : children) {
+            sourceRows += child.getSourceRows();
+            targetRows += child.getTargetRows();
+            sourceChecksum = sourceChecksum.add(new BigDecimal(child.getSourceChecksum()));
+            targetChecksum = targetChecksum.add(new BigDecimal(child.getTargetChecksum()));
+        }
+        
+        return node(jobId, table, level, position, children.get(0).getLowerKey(),
+            children.get(children.size() - 1).getUpperKey(), sourceRows, sourceChecksum, targetRows,
+            targetChecksum, computedAt);
+    }
+    
+    private static TableChecksumNode node(Long jobId, String table, int level, int position, long lowerKey,
+            long upperKey, long sourceRows, BigDecimal sourceChecksum, long targetRows, BigDecimal targetChecksum,
+            LocalDateTime computedAt) {
+        return TableChecksumNode.builder()
+            .jobId(jobId)
+            .tableName(table)
+            .level(level)
+            .position(position)
+            .lowerKey(lowerKey)
+            .upperKey(upperKey)
+            .sourceRows(sourceRows)
+            .sourceChecksum(sourceChecksum.toPlainString())
+            .targetRows(targetRows)
+            .targetChecksum(targetChecksum.toPlainString())
+            .computedAt(computedAt)
+            .build();
+    }
+    
+    /**
+     * Loaded tree; levels.get(0) are the leaves in key order, the last level is the root.
+     */
+    public static final class Tree {
+        
+        private final List<List<TableChecksumNode>> levels;
+        
+        Tree(List<List<TableChecksumNode>> levels) {
+            this.levels = levels;
+        }
+        
+        public List<RangeChecksum> leaves() {
+            return levels.get(0).stream()
+                .map(node -> new RangeChecksum(new KeyRange(node.getLowerKey(), node.getUpperKey()),
+                    node.getSourceRows(), new BigDecimal(node.getSourceChecksum()),
+                    node.getTargetRows(), new BigDecimal(node.getTargetChecksum())))
+                .toList();
+        }
+        
+        /**
+         * When the stored checksums were computed (the root's time).
+         */
+        public LocalDateTime computedAt() {
+            return levels.get(levels.size() - 1).get(0).getComputedAt();
+        }
+        
+        /**
+         * Positions of leaves that are dirty or did not match, found by descending
+         * only into subtrees whose node is dirty or mismatched.
+         */
+        public TreeSet<Integer> staleLeaves() {
+            TreeSet<Integer> stale = new TreeSet<>();
+            int top = levels.size() - 1;
+            for (int position = 0; position < levels.get(top).size(); position++) {
+                descend(top, position, stale);
+            }
+            return stale;
+        }
+        
+        private void descend(int level, int position, TreeSet<Integer> stale) {
+            TableChecksumNode node = levels.get(level).get(position);
+            boolean matches = node.getSourceRows() == node.getTargetRows()
+                && new BigDecimal(node.getSourceChecksum()).compareTo(new BigDecimal(node.getTargetChecksum())) == 0;
+            if (matches && !node.isDirty()) {
+                return;
+            }
+            if (level == 0) {
+                stale.add(position);
+                return;
+            }
+            
+            int first = position * FANOUT;
+            int last = Math.min(first + FANOUT, levels.get(level - 1).size());
+            for (int child = first; child < last; child++) {
+                descend(level - 1, child, stale);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.executor.schema.ChangelogReader;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.util.SqlValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares column-level aggregates of a table: one query per side computes the row
+ * count and, per column, the non-NULL count, SUM/MIN/MAX of numeric columns and the
+ * sum of character lengths of text columns. Catches truncation by type mapping
+ * (shortened strings, lost decimal scale) that row counts miss, for the cost of one scan.
+ * Column types come from the changelog; without one, from JDBC metadata.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ColumnProfileValidator {
+    
+    /**
+     * Relative tolerance for FLOAT/DOUBLE aggregates, which differ in the last digits between databases.
+     */
+    private static final double APPROXIMATE_TOLERANCE = 1e-6;
+    private static final int MAX_REPORTED_DIFFERENCES = 10;
+    
+    private static final Set<String> EXACT_TYPES = Set.of(
+        "TINYINT", "SMALLINT", "MEDIUMINT", "INT", "INTEGER", "BIGINT", "INT2", "INT4", "INT8",
+        "SMALLSERIAL", "SERIAL", "BIGSERIAL", "DECIMAL", "DEC", "NUMERIC", "NUMBER");
+    private static final Set<String> APPROXIMATE_TYPES = Set.of(
+        "FLOAT", "DOUBLE", "DOUBLE PRECISION", "REAL", "FLOAT4", "FLOAT8");
+    private static final Set<String> TEXT_TYPES = Set.of(
+        "CHAR", "CHARACTER", "NCHAR", "BPCHAR", "VARCHAR", "CHARACTER VARYING", "NVARCHAR",
+        "TEXT", "TINYTEXT", "MEDIUMTEXT", "LONGTEXT", "CLOB");
+    
+    private final TableMetadataReader metadataReader;
+    
+    /**
+     * Profile a table on both sides. {@code columns} are the table's changelog columns,
+     * or null to profile the source columns by their JDBC types.
+     */
+    public ValidationResult validate(String table, ValidationSession session,
+            List<ChangelogReader.ColumnDefinition> columns) throws Exception {
+        log.info("Profiling table columns: {}", table);
+        SqlValidator.validateTableName(table);
+        
+        TableMetadata sourceMeta = session.onSource(
+            conn -> metadataReader.read(conn, session.getSourceConfig(), table));
+        TableMetadata targetMeta = session.onTarget(
+            conn -> metadataReader.read(conn, session.getTargetConfig(), table));
+        
+        List<ProfiledColumn> profiled = new ArrayList<>();
+        List<String> sourceColumns = columns != null
+            ? columns.stream().map(ChangelogReader.ColumnDefinition::name).toList()
+            : sourceMeta.columns();
+        for (int i = 0; i < sourceColumns.size(); i++) {
+            String sourceColumn = sourceMeta.findColumn(sourceColumns.get(i));
+            if (sourceColumn == null) {
+                log.warn("  Column '{}' of table '{}' is in the changelog but not on source, skipped",
+                        sourceColumns.get(i), table);
+                continue;
+            }
+            String targetColumn = targetMeta.findColumn(sourceColumn);
+            if (targetColumn == null) {
+                log.error("  ✗ FAIL - Table '{}': column '{}' is missing on target", table, sourceColumn);
+                return ValidationResult.failed(table, "Column '" + sourceColumn + "' is missing on target");
+            }
+            
+            String type = columns != null && columns.get(i).type() != null
+                ? columns.get(i).type()
+                : sourceMeta.columnType(sourceColumn).typeName();
+            profiled.add(new ProfiledColumn(sourceColumn, targetColumn, Kind.of(type)));
+        }
+        
+        Profile source;
+        Profile target;
+        try (ExecutorService sides = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Profile> sourceFuture = sides.submit(() -> session.onSource(
+                conn -> profile(conn, session.getSourceConfig(), table, profiled, true)));
+            target = session.onTarget(conn -> profile(conn, session.getTargetConfig(), table, profiled, false));
+            source = sourceFuture.get();
+            
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        
+        List<String> differences = new ArrayList<>();
+        if (source.rows() != target.rows()) {
+            differences.add("row count " + source.rows() + " vs " + target.rows());
+        }
+        int index = 0;
+        for (ProfiledColumn column : profiled) {
+            for (String aggregate : column.kind().aggregates()) {
+                BigDecimal sourceValue = source.values().get(index);
+                BigDecimal targetValue = target.values().get(index);
+                if (!matches(sourceValue, targetValue, column.kind())) {
+                    differences.add(column.source() + " " + aggregate + " " + sourceValue + " vs " + targetValue);
+                }
+                index++;
+            }
+        }
+        
+        boolean isValid = differences.isEmpty();
+        List<String> reported = differences.subList(0, Math.min(differences.size(), MAX_REPORTED_DIFFERENCES));
+        if (isValid) {
+            log.info("  ✓ PASS - Table '{}': {} column profiles match ({} rows)", table, profiled.size(), source.rows());
+        } else {
+            log.error("  ✗ FAIL - Table '{}': {} aggregates differ: {}", table, differences.size(), reported);
+        }
+        return new ValidationResult(table, source.rows(), target.rows(), isValid,
+                isValid ? null : String.join("; ", reported));
+    }
+    
+    /**
+     * Run the single aggregate query on one side.
+     */
+    private Profile profile(Connection conn, DatabaseConnectionConfig config, String table,
+            List<ProfiledColumn> columns, boolean source) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*)");
+        for (ProfiledColumn column : columns) {
+            String quoted = ValidationSql.quote(config, source ? column.source() : column.target());
+            sql.append(", COUNT(").append(quoted).append(")");
+            switch (column.kind()) {
+                case EXACT, APPROXIMATE -> sql.append(", SUM(").append(quoted).append("), MIN(").append(quoted)
+                    .append("), MAX(").append(quoted).append(")");
+                case TEXT -> sql.append(", SUM(CHAR_LENGTH(").append(quoted).append("))");
+                case OTHER -> { }
+            }
+        }
+        sql.append(" FROM ").append(ValidationSql.qualifiedName(config, table));
+        
+        // No query timeout: one pass over a large table legitimately runs long
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            List<BigDecimal> values = new ArrayList<>();
+            for (int i = 2; i <= rs.getMetaData().getColumnCount(); i++) {
+                values.add(rs.getBigDecimal(i));
+            }
+            return new Profile(rs.getLong(1), values);
+        }
+    }
+    
+    private static boolean matches(BigDecimal source, BigDecimal target, Kind kind) {
+        if (source == null || target == null) {
+            return source == target;
+        }
+        if (kind != Kind.APPROXIMATE) {
+            return source.compareTo(target) == 0;
+        }
+        double scale = Math.max(Math.abs(source.doubleValue()), Math.abs(target.doubleValue()));
+        return Math.abs(source.doubleValue() - target.doubleValue()) <= APPROXIMATE_TOLERANCE * Math.max(scale, 1);
+    }
+    
+    /**
+     * Which aggregates a column gets, from its declared type.
+     */
+    enum Kind {
+        EXACT(List.of("non-null count", "sum", "min", "max")),
+        APPROXIMATE(List.of("non-null count", "sum", "min", "max")),
+        TEXT(List.of("non-null count", "length sum")),
+        OTHER(List.of("non-null count"));
+        
+        private final List<String> aggregates;
+        
+        Kind(List<String> aggregates) {
+            this.aggregates = aggregates;
+        }
+        
+        List<String> aggregates() {
+            return aggregates;
+        }
+        
+        /**
+         * Kind of a type such as "VARCHAR(255)", "DECIMAL(10, 2)" or "INT UNSIGNED".
+         */
+        static Kind of(String type) {
+            String base = type.toUpperCase(Locale.ROOT)
+                .replaceAll("\\(.*?\\)", "")
+                .replace("UNSIGNED", "")
+                .replace("ZEROFILL", "")
+                .trim();
+            if (EXACT_TYPES.contains(base)) {
+                return EXACT;
+            }
+            if (APPROXIMATE_TYPES.contains(base)) {
+                return APPROXIMATE;
+            }
+            return TEXT_TYPES.contains(base) ? TEXT : OTHER;
+        }
+    }
+    
+    private record ProfiledColumn(String source, String target, Kind kind) {}
+    
+    /**
+     * Row count and the aggregate values in column order.
+     */
+    private record Profile(long rows, List<BigDecimal> values) {}
+}
@@ -0,0 +1,309 @@
+package com.poc.migration.executor.validation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Disk-backed sort of (key, hash) tuples in unsigned byte order of the key.
+ * Tuples are buffered up to a heap budget, sorted and spilled as runs; runs are read
+ * back through memory-mapped windows and k-way merged, at most fanIn at a time, so heap
+ * use stays bounded whatever the table size. Not thread-safe; close() deletes the runs.
+ */
+@Slf4j
+final class ExternalKeySorter implements AutoCloseable {
+    
+    private static final Comparator<byte[]> KEY_ORDER = Arrays::compareUnsigned;
+    private static final long ENTRY_OVERHEAD = 48;
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+    
+    private final Path directory;
+    private final String prefix;
+    private final long budgetBytes;
+    private final int fanIn;
+    
+    private final List<Entry> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Path> created = new ArrayList<>();
+    private long bufferedBytes;
+    
+    ExternalKeySorter(Path directory, String prefix, long budgetBytes, int fanIn) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.budgetBytes = budgetBytes;
+        this.fanIn = Math.max(2, fanIn);
+    }
+    
+    void add(byte[] key, long hash) throws IOException {
+        buffer.add(new Entry(key, hash));
+        bufferedBytes += key.length + ENTRY_OVERHEAD;
+        if (bufferedBytes >= budgetBytes) {
+            spill();
+        }
+    }
+    
+    /**
+     * All added tuples in key order. Must be called once, after the last add.
+     */
+    Cursor sorted() throws IOException {
+        if (runs.isEmpty()) {
+            // Everything fits in the budget: no disk involved
+            buffer.sort(Comparator.comparing(Entry::key, KEY_ORDER));
+            return new ListCursor(new ArrayList<>(buffer));
+        }
+        
+        spill();
+        List<Path> level = new ArrayList<>(runs);
+        while (level.size() > fanIn) {
+            List<Path> merged = new ArrayList<>();
+            for (int start = 0; start < level.size(); start += fanIn) {
+                List<Path> group = level.subList(start, Math.min(start + fanIn, level.size()));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                Path out = newRunPath();
+                try (Cursor cursor = merge(group); DataOutputStream writer = openRun(out)) {
+                    while (cursor.next()) {
+                        writeEntry(writer, cursor.key(), cursor.hash());
+                    }
+                }
+                group.forEach(ExternalKeySorter::deleteQuietly);
+                merged.add(out);
+            }
+            level = merged;
+        }
+        return merge(level);
+    }
+    
+    @Override
+    public void close() {
+        buffer.clear();
+        created.forEach(ExternalKeySorter::deleteQuietly);
+    }
+    
+    private void spill() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        buffer.sort(Comparator.comparing(Entry::key, KEY_ORDER));
+        
+        Path run = newRunPath();
+        try (DataOutputStream writer = openRun(run)) {
+            for (Entry entry : buffer) {
+                writeEntry(writer, entry.key(), entry.hash());
+            }
+        }
+        runs.add(run);
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+    
+    private Cursor merge(List<Path> paths) throws IOException {
+        List<RunCursor> cursors = new ArrayList<>();
+        try {
+            for (Path path : paths) {
+                cursors.add(new RunCursor(path));
+            }
+        } catch (IOException e) {
+            cursors.forEach(RunCursor::close);
+            throw e;
+        }
+        return new MergeCursor(cursors);
+    }
+    
+    private Path newRunPath() throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(prefix + "-" + created.size() + ".run");
+        created.add(path);
+        return path;
+    }
+    
+    private static DataOutputStream openRun(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    }
+    
+    private static void writeEntry(DataOutputStream writer, byte[] key, long hash) throws IOException {
+        writer.writeInt(key.length);
+        writer.write(key);
+        writer.writeLong(hash);
+    }
+    
+    /**
+     * Delete a run; a run left behind only wastes disk, so a failure is logged, not thrown.
+     */
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete sort run {}: {}", path, e.getMessage());
+        }
+    }
+    
+    private record Entry(byte[] key, long hash) {}
+    
+    /**
+     * Forward-only view of sorted tuples.
+     */
+    interface Cursor extends AutoCloseable {
+        
+        boolean next() throws IOException;
+        
+        byte[] key();
+        
+        long hash();
+        
+        @Override
+        void close();
+    }
+    
+    private static final class ListCursor implements Cursor {
+        
+        private final List<Entry> entries;
+        private int index = -1;
+        
+        ListCursor(List<Entry> entries) {
+            this.entries = entries;
+        }
+        
+        @Override
+        public boolean next() {
+            return ++index < entries.size();
+        }
+        
+        @Override
+        public byte[] key() {
+            return entries.get(index).key();
+        }
+        
+        @Override
+        public long hash() {
+            return entries.get(index).hash();
+        }
+        
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+    
+    /**
+     * Sequential reader of one run through a sliding memory-mapped window.
+     */
+    private static final class RunCursor implements Cursor {
+        
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private byte[] key;
+        private long hash;
+        
+        RunCursor(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            map(0);
+        }
+        
+        @Override
+        public boolean next() throws IOException {
+            if (windowStart + window.position() >= size) {
+                return false;
+            }
+            ensure(Integer.BYTES);
+            int length = window.getInt();
+            ensure(length + Long.BYTES);
+            key = new byte[length];
+            window.get(key);
+            hash = window.getLong();
+            return true;
+        }
+        
+        @Override
+        public byte[] key() {
+            return key;
+        }
+        
+        @Override
+        public long hash() {
+            return hash;
+        }
+        
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private void ensure(int bytes) throws IOException {
+            if (window.remaining() < bytes) {
+                map(windowStart + window.position());
+            }
+        }
+        
+        private void map(long start) throws IOException {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAP_WINDOW, size - start));
+        }
+    }
+    
+    /**
+     * K-way merge of sorted cursors; the heap holds one tuple per cursor.
+     */
+    private static final class MergeCursor implements Cursor {
+        
+        private final List<RunCursor> cursors;
+        private final PriorityQueue<RunCursor> heap =
+            new PriorityQueue<>(Comparator.comparing(RunCursor::key, KEY_ORDER));
+        private RunCursor current;
+        
+        MergeCursor(List<RunCursor> cursors) throws IOException {
+            this.cursors = cursors;
+            for (RunCursor cursor : cursors) {
+                if (cursor.next()) {
+                    heap.add(cursor);
+                }
+            }
+        }
+        
+        @Override
+        public boolean next() throws IOException {
+            if (current != null && current.next()) {
+                heap.add(current);
+            }
+            current = heap.poll();
+            return current != null;
+        }
+        
+        @Override
+        public byte[] key() {
+            return current.key();
+        }
+        
+        @Override
+        public long hash() {
+            return current.hash();
+        }
+        
+        @Override
+        public void close() {
+            cursors.forEach(RunCursor::close);
+        }
+    }
+}
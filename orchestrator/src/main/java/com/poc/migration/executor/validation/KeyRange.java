@@ -0,0 +1,63 @@
+package com.poc.migration.executor.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Half-open primary key range [lower, upper). An upper bound of Long.MAX_VALUE is
+ * inclusive, so a range can reach the largest key without overflowing.
+ */
+public record KeyRange(long lower, long upper) {
+    
+    /**
+     * Range covering the keys {@code min} to {@code max}, both included.
+     */
+    public static KeyRange covering(long min, long max) {
+        return new KeyRange(min, after(max));
+    }
+    
+    /**
+     * Exclusive upper bound right after {@code key}, clamped at Long.MAX_VALUE.
+     */
+    public static long after(long key) {
+        return key == Long.MAX_VALUE ? key : key + 1;
+    }
+    
+    /**
+     * Keys in the range, saturating at Long.MAX_VALUE when signed keys span more than 2^63.
+     */
+    public long width() {
+        long width = upper - lower;
+        return width < 0 ? Long.MAX_VALUE : width;
+    }
+    
+    /**
+     * Lower and upper half of this range.
+     */
+    public KeyRange[] bisect() {
+        long middle = lower + ((upper - lower) >>> 1);
+        return new KeyRange[]{new KeyRange(lower, middle), new KeyRange(middle, upper)};
+    }
+    
+    /**
+     * Consecutive ranges of {@code width} keys covering this range; the last one may be narrower.
+     */
+    public List<KeyRange> split(long width) {
+        List<KeyRange> ranges = new ArrayList<>();
+        long from = lower;
+        // The unsigned difference is exact even when the span exceeds Long.MAX_VALUE
+        while (Long.compareUnsigned(upper - from, width) > 0) {
+            ranges.add(new KeyRange(from, from + width));
+            from += width;
+        }
+        if (from < upper) {
+            ranges.add(new KeyRange(from, upper));
+        }
+        return ranges;
+    }
+    
+    @Override
+    public String toString() {
+        return "[" + lower + ", " + upper + (upper == Long.MAX_VALUE ? "]" : ")");
+    }
+}
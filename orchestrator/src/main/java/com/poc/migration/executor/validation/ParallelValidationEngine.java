@@ -0,0 +1,229 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.ValidationException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
+import com.poc.migration.model.JobRequest;
+import com.poc.migration.service.migration.MigrationMonitorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Validates tables concurrently on virtual threads.
+ * Database load is bounded by the session's per-database caps rather than by
+ * thread count, so the source can be kept gentle while the target is pushed harder.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ParallelValidationEngine {
+    
+    private static final long DRAIN_POLL_MS = 1000;
+    
+    private final DatabaseConnectionFactory connectionFactory;
+    private final MigrationMonitorService monitorService;
+    private final MigrationProperties properties;
+    
+    /**
+     * Create a session for a request using the configured concurrency caps, fail-fast
+     * and snapshot settings.
+     */
+    public ValidationSession newSession(Long jobId, DatabaseConnectionConfig sourceConfig,
+            DatabaseConnectionConfig targetConfig, JobRequest request) {
+        JobRequest.ValidationOptions options = request.getValidation();
+        boolean consistentSnapshot = options != null && options.getConsistentSnapshot() != null
+            ? options.getConsistentSnapshot()
+            : properties.getValidation().isConsistentSnapshot();
+        return newSession(jobId, sourceConfig, targetConfig, request, consistentSnapshot);
+    }
+    
+    /**
+     * Create a session with snapshot consistency set by the caller, e.g. to always wait
+     * for the incremental sync to drain.
+     */
+    public ValidationSession newSession(Long jobId, DatabaseConnectionConfig sourceConfig,
+            DatabaseConnectionConfig targetConfig, JobRequest request, boolean consistentSnapshot) {
+        MigrationProperties.ValidationConfig validation = properties.getValidation();
+        return new ValidationSession(connectionFactory, jobId, sourceConfig, targetConfig, request.getValidation(),
+                request.getDataTypeMappings(), validation.getSourceConcurrency(), validation.getTargetConcurrency(),
+                validation.isFailFast(), consistentSnapshot);
+    }
+    
+    /**
+     * Validate all tables. Results are in table order; with fail-fast, tables not
+     * started before the first failure are reported as not validated.
+     * A snapshot-consistent session reads the source inside one snapshot, waits for the
+     * incremental sync to drain, and re-checks failed tables in fresh snapshots, so a
+     * table only fails if it still differs after the re-checks.
+     */
+    public Map<String, ValidationResult> validate(List<String> tables, ValidationSession session,
+            TableValidator validator) {
+        if (!session.isConsistentSnapshot()) {
+            return validateAll(tables, session, validator);
+        }
+        
+        MigrationProperties.ValidationConfig validation = properties.getValidation();
+        Map<String, ValidationResult> results = new LinkedHashMap<>();
+        List<String> pending = tables;
+        
+        for (int round = 0; ; round++) {
+            try {
+                SourceSnapshot snapshot = session.openSnapshot();
+                log.info("Opened source snapshot at {} for {} tables",
+                        snapshot.position() != null ? snapshot.position() : "unknown position", pending.size());
+                awaitDrain(pending, snapshot, session);
+                results.putAll(validateAll(pending, session, validator));
+            } catch (SQLException e) {
+                throw new ValidationException("Could not open source snapshot: " + e.getMessage(), e);
+            } finally {
+                session.closeSnapshot();
+            }
+            
+            pending = pending.stream().filter(table -> !results.get(table).isValid()).toList();
+            if (pending.isEmpty() || session.isAborted() || round >= validation.getRecheckAttempts()) {
+                return results;
+            }
+            
+            log.warn("Re-checking {} tables in a new snapshot ({}/{}): {}",
+                    pending.size(), round + 1, validation.getRecheckAttempts(), pending);
+            sleep(validation.getRecheckDelayMs());
+        }
+    }
+    
+    /**
+     * Wait until change capture has read the source past the snapshot position, then
+     * until the incremental sync of each table has been idle for drainIdleSeconds, so
+     * changes committed before the snapshot have been applied on the target. The proxy
+     * does not report the applied position itself, so the capture's read position is
+     * checked on the source. When that cannot be read, the idle time must also have
+     * started after the snapshot. Tables are compared anyway after drainTimeoutSeconds.
+     */
+    private void awaitDrain(List<String> tables, SourceSnapshot snapshot, ValidationSession session) {
+        MigrationProperties.ValidationConfig validation = properties.getValidation();
+        Instant deadline = Instant.now().plusSeconds(validation.getDrainTimeoutSeconds());
+        
+        boolean capturedPast = awaitCapturedPast(snapshot, session, deadline);
+        
+        for (String table : tables) {
+            while (true) {
+                long idleSeconds = monitorService.getIncrementalIdleSeconds(table);
+                if (idleSeconds < 0) {
+                    // Not under incremental sync (or unknown): nothing to wait for
+                    break;
+                }
+                boolean drained = idleSeconds >= validation.getDrainIdleSeconds() && (capturedPast
+                    || Duration.between(snapshot.takenAt(), Instant.now()).getSeconds() >= validation.getDrainIdleSeconds());
+                if (drained) {
+                    break;
+                }
+                if (Instant.now().isAfter(deadline)) {
+                    log.warn("Incremental sync still applying changes after {}s, comparing anyway",
+                            validation.getDrainTimeoutSeconds());
+                    return;
+                }
+                sleep(DRAIN_POLL_MS);
+            }
+        }
+    }
+    
+    /**
+     * Poll the source until change capture has read past the snapshot position.
+     * False when the position cannot be checked or the deadline passes first.
+     */
+    private boolean awaitCapturedPast(SourceSnapshot snapshot, ValidationSession session, Instant deadline) {
+        while (true) {
+            Optional<Boolean> captured;
+            try (Connection conn = connectionFactory.createConnection(session.getSourceConfig())) {
+                captured = snapshot.isCapturedPast(conn);
+            } catch (SQLException | RuntimeException e) {
+                captured = Optional.empty();
+            }
+            
+            if (captured.isEmpty()) {
+                log.info("Change capture position not readable on source, waiting on idle time only");
+                return false;
+            }
+            if (captured.get()) {
+                log.info("Change capture has read past snapshot position {}", snapshot.position());
+                return true;
+            }
+            if (Instant.now().isAfter(deadline)) {
+                log.warn("Change capture has not reached snapshot position {} after {}s",
+                        snapshot.position(), properties.getValidation().getDrainTimeoutSeconds());
+                return false;
+            }
+            sleep(DRAIN_POLL_MS);
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Validation interrupted", e);
+        }
+    }
+    
+    private Map<String, ValidationResult> validateAll(List<String> tables, ValidationSession session,
+            TableValidator validator) {
+        Map<String, Future<ValidationResult>> futures = new LinkedHashMap<>();
+        Map<String, ValidationResult> results = new LinkedHashMap<>();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String table : tables) {
+                futures.put(table, executor.submit(() -> validateTable(table, session, validator)));
+            }
+            
+            for (Map.Entry<String, Future<ValidationResult>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().get());
+            }
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Validation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ValidationException("Validation task failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        
+        return results;
+    }
+    
+    private ValidationResult validateTable(String table, ValidationSession session, TableValidator validator) {
+        if (session.isAborted()) {
+            return ValidationResult.failed(table, "Not validated (fail-fast)");
+        }
+        
+        ValidationResult result;
+        try {
+            result = validator.validate(table, session);
+        } catch (Exception e) {
+            if (session.isAborted()) {
+                return ValidationResult.failed(table, "Not validated (fail-fast)");
+            }
+            log.error("  ✗ ERROR - Failed to validate table '{}': {}", table, e.getMessage(), e);
+            result = ValidationResult.failed(table, e.getMessage());
+        }
+        
+        if (!result.isValid() && session.isFailFast() && !session.isAborted()) {
+            log.warn("Fail-fast: aborting validation after failure on table '{}'", table);
+            session.abort();
+        }
+        return result;
+    }
+}
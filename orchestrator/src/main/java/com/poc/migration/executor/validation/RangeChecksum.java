@@ -0,0 +1,20 @@
+package com.poc.migration.executor.validation;
+
+import java.math.BigDecimal;
+
+/**
+ * Row count and checksum of one key range on both sides.
+ * A null range stands for the whole table.
+ */
+public record RangeChecksum(
+        KeyRange range,
+        long sourceRows,
+        BigDecimal sourceChecksum,
+        long targetRows,
+        BigDecimal targetChecksum
+) {
+    
+    public boolean matches() {
+        return sourceRows == targetRows && sourceChecksum.compareTo(targetChecksum) == 0;
+    }
+}
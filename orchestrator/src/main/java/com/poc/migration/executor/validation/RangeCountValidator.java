@@ -0,0 +1,181 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.ValidationException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.util.RetryUtil;
+import com.poc.migration.util.SqlValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exact row counts with the primary key space split into N ranges counted
+ * concurrently on separate pooled connections, within the session's per-database
+ * caps. A failed range is retried on its own. Tables without a single integer key
+ * are counted with one COUNT(*).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RangeCountValidator implements TableValidator {
+    
+    private final TableMetadataReader metadataReader;
+    private final MigrationProperties properties;
+    
+    @Override
+    public ValidationResult validate(String table, ValidationSession session) throws Exception {
+        log.info("Validating table (range count): {}", table);
+        SqlValidator.validateTableName(table);
+        
+        TableMetadata sourceMeta = session.onSource(
+            conn -> metadataReader.read(conn, session.getSourceConfig(), table));
+        TableMetadata targetMeta = session.onTarget(
+            conn -> metadataReader.read(conn, session.getTargetConfig(), table));
+        
+        String sourceKey = sourceMeta.hasRangeableKey() ? sourceMeta.primaryKey().get(0) : null;
+        String targetKey = sourceKey != null ? targetMeta.findColumn(sourceKey) : null;
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<KeyRange> ranges = targetKey != null ? ranges(table, session, sourceKey, targetKey, executor) : null;
+            if (ranges == null) {
+                // No usable key (or both sides empty): a single count per side
+                ranges = new ArrayList<>();
+                ranges.add(null);
+            }
+            
+            Map<KeyRange, Future<Long>> sourceFutures = new LinkedHashMap<>();
+            Map<KeyRange, Future<Long>> targetFutures = new LinkedHashMap<>();
+            for (KeyRange range : ranges) {
+                sourceFutures.put(range, executor.submit(() -> countWithRetry(
+                    table, session, session.getSourceConfig(), sourceKey, range, true)));
+                targetFutures.put(range, executor.submit(() -> countWithRetry(
+                    table, session, session.getTargetConfig(), targetKey, range, false)));
+            }
+            
+            long sourceCount = 0;
+            long targetCount = 0;
+            List<KeyRange> mismatched = new ArrayList<>();
+            for (KeyRange range : ranges) {
+                long source = get(sourceFutures.get(range));
+                long target = get(targetFutures.get(range));
+                sourceCount += source;
+                targetCount += target;
+                if (source != target && range != null) {
+                    mismatched.add(range);
+                }
+            }
+            
+            boolean isValid = sourceCount == targetCount && mismatched.isEmpty();
+            if (isValid) {
+                log.info("  ✓ PASS - Table '{}': {} rows (source) == {} rows (target), {} ranges",
+                        table, sourceCount, targetCount, ranges.size());
+            } else {
+                log.error("  ✗ FAIL - Table '{}': {} rows (source) vs {} rows (target), {} of {} ranges differ",
+                        table, sourceCount, targetCount, mismatched.size(), ranges.size());
+            }
+            return new ValidationResult(table, sourceCount, targetCount, isValid, null, mismatched);
+        }
+    }
+    
+    /**
+     * Split the key range covering both sides into countRanges ranges, or null if both are empty.
+     */
+    private List<KeyRange> ranges(String table, ValidationSession session, String sourceKey, String targetKey,
+            ExecutorService executor) throws Exception {
+        Future<long[]> sourceFuture = executor.submit(() -> session.onSource(
+            conn -> queryBounds(conn, session.getSourceConfig(), table, sourceKey)));
+        long[] target = session.onTarget(conn -> queryBounds(conn, session.getTargetConfig(), table, targetKey));
+        long[] source = get(sourceFuture);
+        
+        if (source == null && target == null) {
+            return null;
+        }
+        long min = Math.min(source != null ? source[0] : Long.MAX_VALUE, target != null ? target[0] : Long.MAX_VALUE);
+        long max = Math.max(source != null ? source[1] : Long.MIN_VALUE, target != null ? target[1] : Long.MIN_VALUE);
+        
+        int count = session.getOptions().getCountRanges() != null
+            ? session.getOptions().getCountRanges()
+            : properties.getValidation().getCountRanges();
+        KeyRange bounds = KeyRange.covering(min, max);
+        return bounds.split(Math.max(1, Math.ceilDiv(bounds.width(), count)));
+    }
+    
+    private long countWithRetry(String table, ValidationSession session, DatabaseConnectionConfig config,
+            String key, KeyRange range, boolean source) throws Exception {
+        if (session.isAborted()) {
+            throw new ValidationException("Validation aborted");
+        }
+        
+        MigrationProperties.RetryConfig retry = properties.getRetry();
+        return RetryUtil.executeWithRetry(
+            () -> {
+                try {
+                    // Each attempt takes its own connection, so a broken one is not reused
+                    return source
+                        ? session.onSource(conn -> count(conn, config, table, key, range))
+                        : session.onTarget(conn -> count(conn, config, table, key, range));
+                } catch (SQLException e) {
+                    throw new ValidationException("Count failed: " + e.getMessage(), e);
+                }
+            },
+            retry.getMaxAttempts(),
+            retry.getDelayMs(),
+            "count " + table + (range != null ? " " + range : "") + (source ? " on source" : " on target"));
+    }
+    
+    private long count(Connection conn, DatabaseConnectionConfig config, String table, String key, KeyRange range)
+            throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + ValidationSql.qualifiedName(config, table)
+            + (range != null ? " WHERE " + ValidationSql.rangePredicate(config, key, range.upper()) : "");
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setQueryTimeout(properties.getMonitoring().getQueryTimeoutSeconds());
+            if (range != null) {
+                stmt.setLong(1, range.lower());
+                stmt.setLong(2, range.upper());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+    
+    private long[] queryBounds(Connection conn, DatabaseConnectionConfig config, String table, String key)
+            throws SQLException {
+        String quotedKey = ValidationSql.quote(config, key);
+        String sql = "SELECT MIN(" + quotedKey + "), MAX(" + quotedKey + ") FROM "
+            + ValidationSql.qualifiedName(config, table);
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setQueryTimeout(properties.getMonitoring().getQueryTimeoutSeconds());
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                long min = rs.getLong(1);
+                return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+            }
+        }
+    }
+    
+    private static <T> T get(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+}
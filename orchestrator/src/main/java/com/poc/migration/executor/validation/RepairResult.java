@@ -0,0 +1,26 @@
+package com.poc.migration.executor.validation;
+
+import java.util.List;
+
+/**
+ * Outcome of repairing the key ranges of one table: rows re-copied from the source,
+ * target rows deleted because the source no longer has them, and the ranges that
+ * still differ when checksummed again afterwards.
+ */
+public record RepairResult(
+        String tableName,
+        List<KeyRange> ranges,
+        long rowsCopied,
+        long rowsDeleted,
+        List<KeyRange> stillMismatched,
+        String error
+) {
+    
+    public boolean isRepaired() {
+        return error == null && stillMismatched.isEmpty();
+    }
+    
+    public static RepairResult failed(String tableName, List<KeyRange> ranges, String error) {
+        return new RepairResult(tableName, ranges, 0, 0, ranges, error);
+    }
+}
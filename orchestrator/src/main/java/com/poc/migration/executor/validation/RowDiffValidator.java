@@ -0,0 +1,635 @@
+package com.poc.migration.executor.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.ValidationException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import com.poc.migration.util.SqlValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares a table row by row. Both sides are read through server-side cursors in
+ * primary key order and merge-joined, so memory use does not grow with table size.
+ * Missing, extra and changed rows are streamed to an NDJSON report in the schema output dir:
+ * {@code {"type":"missing|extra|changed","key":{...},"source":{...},"target":{...}}}.
+ * Between different database types, text and composite keys are not ordered by the
+ * databases; each side is read unordered, its (canonical key, row hash) tuples are
+ * sorted on disk by {@link ExternalKeySorter}, and the sorted streams are merge-joined.
+ * Reports of that path carry only the keys.
+ * With a single integer key, the differing rows are also returned as key ranges to repair.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RowDiffValidator implements TableValidator {
+    
+    private static final int ABORT_CHECK_INTERVAL = 10000;
+    private static final int MAX_REPORTED_RANGES = 100;
+    
+    private final TableMetadataReader metadataReader;
+    private final MigrationProperties properties;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    public ValidationResult validate(String table, ValidationSession session) throws Exception {
+        log.info("Diffing table rows: {}", table);
+        SqlValidator.validateTableName(table);
+        
+        TableMetadata sourceMeta = session.onSource(
+            conn -> metadataReader.read(conn, session.getSourceConfig(), table));
+        TableMetadata targetMeta = session.onTarget(
+            conn -> metadataReader.read(conn, session.getTargetConfig(), table));
+        
+        if (sourceMeta.primaryKey().isEmpty()) {
+            log.error("  ✗ FAIL - Table '{}': no primary key, rows cannot be matched", table);
+            return ValidationResult.failed(table, "Row diff requires a primary key");
+        }
+        
+        DiffPlan plan = DiffPlan.of(sourceMeta, targetMeta, nativeOrder(session, sourceMeta, targetMeta),
+            session.getSourceConfig().getType() != DatabaseType.POSTGRESQL);
+        Path reportPath = reportPath(session.getJobId(), table);
+        Files.deleteIfExists(reportPath);
+        
+        DiffCounts counts;
+        List<KeyRange> ranges;
+        try (DiffReport report = new DiffReport(reportPath)) {
+            if (needsExternalSort(sourceMeta, session)) {
+                counts = sortedDiff(session, sourceMeta, targetMeta, plan, report);
+            } else {
+                counts = orderedDiff(session, plan, report);
+            }
+            ranges = report.ranges();
+        }
+        
+        boolean isValid = counts.differences() == 0;
+        if (isValid) {
+            log.info("  ✓ PASS - Table '{}': all {} rows match", table, counts.sourceRows());
+            return new ValidationResult(table, counts.sourceRows(), counts.targetRows(), true, null);
+        }
+        
+        String error = String.format("%d missing, %d extra, %d changed rows (report: %s)",
+                counts.missing(), counts.extra(), counts.changed(), reportPath);
+        log.error("  ✗ FAIL - Table '{}': {}", table, error);
+        return new ValidationResult(table, counts.sourceRows(), counts.targetRows(), false, error, ranges);
+    }
+    
+    /**
+     * Both sides ordered by the databases: text keys by their own collation when both sides
+     * share it, otherwise in code point order.
+     */
+    private DiffCounts orderedDiff(ValidationSession session, DiffPlan plan, DiffReport report) throws SQLException {
+        // Always source before target, so concurrent tables cannot deadlock on the permits
+        return session.streamSource(sourceConn -> session.streamTarget(targetConn -> {
+            try (StreamingCursor source = StreamingCursor.open(sourceConn, session.getSourceConfig(),
+                    plan.selectSql(session.getSourceConfig(), true), fetchSize());
+                StreamingCursor target = StreamingCursor.open(targetConn, session.getTargetConfig(),
+                    plan.selectSql(session.getTargetConfig(), false), fetchSize())) {
+                
+                return mergeJoin(source, target, plan, report, session);
+            }
+        }));
+    }
+    
+    /**
+     * Whether text keys can be ordered by the plain columns, which lets the key index provide
+     * the order: same engine and same key collations on both sides (see
+     * {@link ValidationSql#canOrderNatively}).
+     */
+    private static boolean nativeOrder(ValidationSession session, TableMetadata sourceMeta, TableMetadata targetMeta)
+            throws SQLException {
+        List<String> textKeys = sourceMeta.primaryKey().stream().filter(sourceMeta::isTextColumn).toList();
+        if (textKeys.isEmpty() || session.isHeterogeneous()) {
+            return false;
+        }
+        List<String> targetKeys = textKeys.stream().map(targetMeta::findColumn).toList();
+        if (targetKeys.contains(null)) {
+            return false;
+        }
+        
+        List<String> sourceCollations = session.onSource(conn -> ValidationSql.columnCollations(
+            conn, session.getSourceConfig(), sourceMeta.tableName(), textKeys));
+        List<String> targetCollations = session.onTarget(conn -> ValidationSql.columnCollations(
+            conn, session.getTargetConfig(), targetMeta.tableName(), targetKeys));
+        return sourceCollations.equals(targetCollations)
+            && ValidationSql.canOrderNatively(session.getSourceConfig().getType(), sourceCollations);
+    }
+    
+    /**
+     * Text or composite keys between different database types: collations, padding and
+     * type conversions make it unsafe to rely on either database's ORDER BY.
+     */
+    private boolean needsExternalSort(TableMetadata meta, ValidationSession session) {
+        if (!properties.getValidation().isRowDiffExternalSort() || !session.isHeterogeneous()) {
+            return false;
+        }
+        return meta.primaryKey().size() > 1 || meta.primaryKey().stream().anyMatch(meta::isTextColumn);
+    }
+    
+    /**
+     * Read both sides unordered, sort their canonical (key, row hash) tuples on disk and
+     * merge-join the sorted streams. Heap use is bounded by externalSortBufferMb per side.
+     */
+    private DiffCounts sortedDiff(ValidationSession session, TableMetadata sourceMeta, TableMetadata targetMeta,
+            DiffPlan plan, DiffReport report) throws Exception {
+        List<String> sourceKey = plan.keyColumns(plan.sourceColumns());
+        List<String> targetKey = plan.keyColumns(plan.targetColumns());
+        DatabaseType sourceType = session.getSourceConfig().getType();
+        CanonicalRowEncoder.Layout keyLayout = CanonicalRowEncoder.Layout.of(sourceMeta, targetMeta,
+            sourceKey, targetKey, sourceType, session.getDataTypeMappings());
+        CanonicalRowEncoder.Layout rowLayout = CanonicalRowEncoder.Layout.of(sourceMeta, targetMeta,
+            plan.sourceColumns(), plan.targetColumns(), sourceType, session.getDataTypeMappings());
+        
+        MigrationProperties.ValidationConfig validation = properties.getValidation();
+        long budget = validation.getExternalSortBufferMb() * 1024L * 1024L;
+        Path sortDir = Path.of(properties.getSchema().getOutputDir()).resolve("sort");
+        String prefix = reportPrefix(session.getJobId()) + "-" + plan.table();
+        
+        try (ExternalKeySorter sourceSorter = new ExternalKeySorter(sortDir, prefix + "-source", budget,
+                validation.getExternalSortFanIn());
+            ExternalKeySorter targetSorter = new ExternalKeySorter(sortDir, prefix + "-target", budget,
+                validation.getExternalSortFanIn());
+            ExecutorService sides = Executors.newVirtualThreadPerTaskExecutor()) {
+            
+            Future<Long> sourceFuture = sides.submit(() -> session.streamSource(conn -> spill(conn,
+                session.getSourceConfig(), plan.unorderedSql(session.getSourceConfig(), true),
+                keyLayout.sourceEncoder(), rowLayout.sourceEncoder(), sourceKey.size(), sourceSorter, session)));
+            session.streamTarget(conn -> spill(conn,
+                session.getTargetConfig(), plan.unorderedSql(session.getTargetConfig(), false),
+                keyLayout.targetEncoder(), rowLayout.targetEncoder(), targetKey.size(), targetSorter, session));
+            try {
+                sourceFuture.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            
+            try (ExternalKeySorter.Cursor source = sourceSorter.sorted();
+                ExternalKeySorter.Cursor target = targetSorter.sorted()) {
+                return mergeSorted(source, target, sourceKey, report, session);
+            }
+        }
+    }
+    
+    /**
+     * Feed every row of one side into its sorter as (canonical key, row hash).
+     * The select lists the key columns first, then all columns.
+     */
+    private long spill(Connection conn, DatabaseConnectionConfig config, String sql, CanonicalRowEncoder keyEncoder,
+            CanonicalRowEncoder rowEncoder, int keyCount, ExternalKeySorter sorter, ValidationSession session)
+            throws SQLException {
+        try (StreamingCursor cursor = StreamingCursor.open(conn, config, sql, fetchSize())) {
+            ResultSet rs = cursor.resultSet();
+            long rows = 0;
+            while (cursor.next()) {
+                if (++rows % ABORT_CHECK_INTERVAL == 0 && session.isAborted()) {
+                    throw new ValidationException("Validation aborted");
+                }
+                keyEncoder.encode(rs, 1);
+                sorter.add(keyEncoder.toByteArray(), rowEncoder.hashRow(rs, keyCount + 1));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write sort run for " + config.getHost(), e);
+        }
+    }
+    
+    /**
+     * Merge-join two key-sorted tuple streams; equal keys with different hashes are changed rows.
+     */
+    private DiffCounts mergeSorted(ExternalKeySorter.Cursor source, ExternalKeySorter.Cursor target,
+            List<String> keyColumns, DiffReport report, ValidationSession session) throws IOException {
+        long sourceRows = 0;
+        long targetRows = 0;
+        long missing = 0;
+        long extra = 0;
+        long changed = 0;
+        long steps = 0;
+        
+        boolean hasSource = source.next();
+        boolean hasTarget = target.next();
+        
+        while (hasSource || hasTarget) {
+            if (++steps % ABORT_CHECK_INTERVAL == 0 && session.isAborted()) {
+                throw new ValidationException("Validation aborted");
+            }
+            
+            int cmp = !hasSource ? 1 : !hasTarget ? -1 : Arrays.compareUnsigned(source.key(), target.key());
+            
+            if (cmp < 0) {
+                report.write("missing", decodeKey(keyColumns, source.key()), null, null);
+                missing++;
+                sourceRows++;
+                hasSource = source.next();
+            } else if (cmp > 0) {
+                report.write("extra", decodeKey(keyColumns, target.key()), null, null);
+                extra++;
+                targetRows++;
+                hasTarget = target.next();
+            } else {
+                if (source.hash() != target.hash()) {
+                    report.write("changed", decodeKey(keyColumns, source.key()), null, null);
+                    changed++;
+                }
+                sourceRows++;
+                targetRows++;
+                hasSource = source.next();
+                hasTarget = target.next();
+            }
+        }
+        
+        return new DiffCounts(sourceRows, targetRows, missing, extra, changed);
+    }
+    
+    private static Map<String, Object> decodeKey(List<String> keyColumns, byte[] encoded) {
+        List<Object> values = CanonicalRowEncoder.decode(encoded);
+        Map<String, Object> key = new LinkedHashMap<>();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            key.put(keyColumns.get(i), reportValue(values.get(i)));
+        }
+        return key;
+    }
+    
+    /**
+     * Walk both key-ordered streams once, advancing whichever side has the smaller key.
+     */
+    private DiffCounts mergeJoin(StreamingCursor source, StreamingCursor target, DiffPlan plan, DiffReport report,
+            ValidationSession session) throws SQLException {
+        long sourceRows = 0;
+        long targetRows = 0;
+        long missing = 0;
+        long extra = 0;
+        long changed = 0;
+        long steps = 0;
+        
+        Object[] sourceRow = source.nextRow();
+        Object[] targetRow = target.nextRow();
+        
+        while (sourceRow != null || targetRow != null) {
+            if (++steps % ABORT_CHECK_INTERVAL == 0 && session.isAborted()) {
+                throw new ValidationException("Validation aborted");
+            }
+            
+            int cmp = sourceRow == null ? 1 : targetRow == null ? -1 : plan.compareKeys(sourceRow, targetRow);
+            
+            if (cmp < 0) {
+                report.write("missing", plan.key(sourceRow), plan.row(plan.sourceColumns(), sourceRow), null);
+                report.addKey(plan.rangeKey(sourceRow));
+                missing++;
+                sourceRows++;
+                sourceRow = source.nextRow();
+            } else if (cmp > 0) {
+                report.write("extra", plan.key(targetRow), null, plan.row(plan.targetColumns(), targetRow));
+                report.addKey(plan.rangeKey(targetRow));
+                extra++;
+                targetRows++;
+                targetRow = target.nextRow();
+            } else {
+                if (!plan.rowsEqual(sourceRow, targetRow)) {
+                    report.write("changed", plan.key(sourceRow), plan.row(plan.sourceColumns(), sourceRow),
+                        plan.row(plan.targetColumns(), targetRow));
+                    report.addKey(plan.rangeKey(sourceRow));
+                    changed++;
+                }
+                sourceRows++;
+                targetRows++;
+                sourceRow = source.nextRow();
+                targetRow = target.nextRow();
+            }
+        }
+        
+        return new DiffCounts(sourceRows, targetRows, missing, extra, changed);
+    }
+    
+    private int fetchSize() {
+        return properties.getValidation().getRowDiffFetchSize();
+    }
+    
+    private Path reportPath(Long jobId, String table) {
+        return Path.of(properties.getSchema().getOutputDir())
+            .resolve(reportPrefix(jobId) + "-diff-" + table + ".ndjson");
+    }
+    
+    private static String reportPrefix(Long jobId) {
+        return jobId != null ? "job-" + jobId : "adhoc";
+    }
+    
+    /**
+     * Comparable form of a column value, so the same data read through
+     * different drivers (e.g. TINYINT(1) vs boolean, Timestamp vs LocalDateTime) compares equal.
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Boolean b) {
+            return b ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return Double.isFinite(d) ? new BigDecimal(value.toString()) : value.toString();
+        }
+        if (value instanceof Number number) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof java.sql.Time time) {
+            return time.toLocalTime();
+        }
+        return value;
+    }
+    
+    static boolean valuesEqual(Object source, Object target) {
+        Object a = normalize(source);
+        Object b = normalize(target);
+        
+        if (a == null || b == null) {
+            return a == b;
+        }
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        if (a instanceof byte[] x && b instanceof byte[] y) {
+            return Arrays.equals(x, y);
+        }
+        return Objects.equals(a.toString(), b.toString());
+    }
+    
+    /**
+     * Key order matching the ORDER BY on both sides: numbers by value,
+     * text by code point (see {@link ValidationSql#orderTerm}).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareValues(Object source, Object target) {
+        Object a = normalize(source);
+        Object b = normalize(target);
+        
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y);
+        }
+        if (a instanceof byte[] x && b instanceof byte[] y) {
+            return Arrays.compareUnsigned(x, y);
+        }
+        if (a instanceof Comparable x && !(a instanceof String) && a.getClass() == b.getClass()) {
+            return x.compareTo(b);
+        }
+        return compareCodePoints(a.toString(), b.toString());
+    }
+    
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int x = a.codePointAt(i);
+            int y = b.codePointAt(j);
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+    
+    /**
+     * Value as written to the report: numbers and booleans as JSON, binary as base64, the rest as text.
+     */
+    private static Object reportValue(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean || value instanceof byte[]) {
+            return value;
+        }
+        return value.toString();
+    }
+    
+    private record DiffCounts(long sourceRows, long targetRows, long missing, long extra, long changed) {
+        
+        long differences() {
+            return missing + extra + changed;
+        }
+    }
+    
+    /**
+     * Aligned source/target column lists; key columns are looked up by position in both rows.
+     * With native order on MySQL, the WEIGHT_STRING of each text key follows the columns, and
+     * keys are compared by it ({@code sortKeyIndexes}, -1 for keys compared by value).
+     */
+    private record DiffPlan(
+            String table,
+            List<String> sourceColumns,
+            List<String> targetColumns,
+            int[] keyIndexes,
+            boolean[] textKeys,
+            boolean rangeableKey,
+            boolean nativeOrder,
+            int[] sortKeyIndexes
+    ) {
+        
+        static DiffPlan of(TableMetadata source, TableMetadata target, boolean nativeOrder, boolean weightKeys) {
+            List<String> targetColumns = new ArrayList<>();
+            for (String column : source.columns()) {
+                String targetColumn = target.findColumn(column);
+                if (targetColumn == null) {
+                    throw new ValidationException("Column '" + column + "' of table " + source.tableName()
+                        + " is missing on target");
+                }
+                targetColumns.add(targetColumn);
+            }
+            
+            List<String> key = source.primaryKey();
+            int[] keyIndexes = new int[key.size()];
+            boolean[] textKeys = new boolean[key.size()];
+            int[] sortKeyIndexes = new int[key.size()];
+            int nextSortKey = source.columns().size();
+            for (int i = 0; i < key.size(); i++) {
+                keyIndexes[i] = source.columns().indexOf(key.get(i));
+                textKeys[i] = source.isTextColumn(key.get(i));
+                sortKeyIndexes[i] = nativeOrder && weightKeys && textKeys[i] ? nextSortKey++ : -1;
+            }
+            return new DiffPlan(source.tableName(), source.columns(), targetColumns, keyIndexes, textKeys,
+                source.hasRangeableKey(), nativeOrder, sortKeyIndexes);
+        }
+        
+        List<String> keyColumns(List<String> columns) {
+            return Arrays.stream(keyIndexes).mapToObj(columns::get).toList();
+        }
+        
+        /**
+         * Key columns, then all columns, in no particular order.
+         */
+        String unorderedSql(DatabaseConnectionConfig config, boolean sourceSide) {
+            List<String> columns = sourceSide ? sourceColumns : targetColumns;
+            
+            String select = Stream.concat(keyColumns(columns).stream(), columns.stream())
+                .map(column -> ValidationSql.quote(config, column))
+                .collect(Collectors.joining(", "));
+            return "SELECT " + select + " FROM " + ValidationSql.qualifiedName(config, table);
+        }
+        
+        String selectSql(DatabaseConnectionConfig config, boolean sourceSide) {
+            List<String> columns = sourceSide ? sourceColumns : targetColumns;
+            
+            List<String> selected = new ArrayList<>();
+            columns.forEach(column -> selected.add(ValidationSql.quote(config, column)));
+            
+            List<String> orderBy = new ArrayList<>();
+            for (int i = 0; i < keyIndexes.length; i++) {
+                String keyColumn = columns.get(keyIndexes[i]);
+                orderBy.add(ValidationSql.orderTerm(config, keyColumn, textKeys[i], nativeOrder));
+                if (sortKeyIndexes[i] >= 0) {
+                    selected.add(ValidationSql.sortKeyTerm(config, keyColumn));
+                }
+            }
+            String select = String.join(", ", selected);
+            
+            return "SELECT " + select + " FROM " + ValidationSql.qualifiedName(config, table)
+                + " ORDER BY " + String.join(", ", orderBy);
+        }
+        
+        int compareKeys(Object[] sourceRow, Object[] targetRow) {
+            for (int i = 0; i < keyIndexes.length; i++) {
+                int sortKey = sortKeyIndexes[i];
+                int cmp = sortKey >= 0
+                    ? Arrays.compareUnsigned((byte[]) sourceRow[sortKey], (byte[]) targetRow[sortKey])
+                    : compareValues(sourceRow[keyIndexes[i]], targetRow[keyIndexes[i]]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+        
+        boolean rowsEqual(Object[] sourceRow, Object[] targetRow) {
+            for (int i = 0; i < sourceColumns.size(); i++) {
+                if (!valuesEqual(sourceRow[i], targetRow[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Key of a row as a long, or null unless the table has a single integer key.
+         */
+        Long rangeKey(Object[] row) {
+            if (!rangeableKey) {
+                return null;
+            }
+            Object value = row[keyIndexes[0]];
+            return value instanceof Long || value instanceof Integer || value instanceof Short
+                ? Long.valueOf(((Number) value).longValue())
+                : null;
+        }
+        
+        Map<String, Object> key(Object[] row) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            for (int index : keyIndexes) {
+                key.put(sourceColumns.get(index), reportValue(row[index]));
+            }
+            return key;
+        }
+        
+        Map<String, Object> row(List<String> columns, Object[] row) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                values.put(columns.get(i), reportValue(row[i]));
+            }
+            return values;
+        }
+    }
+    
+    /**
+     * NDJSON writer; the file is only created once the first difference is found.
+     */
+    private final class DiffReport implements AutoCloseable {
+        
+        private final Path path;
+        private BufferedWriter writer;
+        private final List<KeyRange> ranges = new ArrayList<>();
+        private boolean rangesComplete = true;
+        
+        DiffReport(Path path) {
+            this.path = path;
+        }
+        
+        void write(String type, Map<String, Object> key, Map<String, Object> source, Map<String, Object> target) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("type", type);
+            line.put("key", key);
+            line.put("source", source);
+            line.put("target", target);
+            
+            try {
+                if (writer == null) {
+                    Files.createDirectories(path.getParent());
+                    writer = Files.newBufferedWriter(path);
+                }
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write diff report " + path, e);
+            }
+        }
+        
+        /**
+         * Add the key of a differing row, in ascending key order, to the ranges to repair.
+         * Adjacent keys share a range; past MAX_REPORTED_RANGES the last range is widened.
+         */
+        void addKey(Long key) {
+            if (key == null) {
+                rangesComplete = false;
+                return;
+            }
+            if (!ranges.isEmpty() && (ranges.getLast().upper() == key || ranges.size() >= MAX_REPORTED_RANGES)) {
+                ranges.set(ranges.size() - 1, new KeyRange(ranges.getLast().lower(), KeyRange.after(key)));
+            } else {
+                ranges.add(new KeyRange(key, KeyRange.after(key)));
+            }
+        }
+        
+        /**
+         * Key ranges covering every differing row; empty if some row has no integer key.
+         */
+        List<KeyRange> ranges() {
+            return rangesComplete ? List.copyOf(ranges) : List.of();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
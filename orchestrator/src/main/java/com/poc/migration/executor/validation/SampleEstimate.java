@@ -0,0 +1,44 @@
+package com.poc.migration.executor.validation;
+
+/**
+ * Outcome of sampling a table: observed mismatch rate and its Wilson score
+ * upper bound at the given confidence level.
+ */
+public record SampleEstimate(
+        String tableName,
+        long sampledRows,
+        long mismatchedRows,
+        double mismatchRate,
+        double mismatchRateUpperBound,
+        double confidence
+) {
+    
+    public static SampleEstimate of(String tableName, long sampledRows, long mismatchedRows, double confidence) {
+        if (sampledRows == 0) {
+            return new SampleEstimate(tableName, 0, 0, 0, 1, confidence);
+        }
+        
+        double n = sampledRows;
+        double p = mismatchedRows / n;
+        double z = zScore(confidence);
+        double z2 = z * z;
+        double upper = (p + z2 / (2 * n) + z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n))) / (1 + z2 / n);
+        return new SampleEstimate(tableName, sampledRows, mismatchedRows, p, Math.min(1, upper), confidence);
+    }
+    
+    /**
+     * One-sided z-score for a confidence level (Abramowitz and Stegun 26.2.23, error below 4.5e-4).
+     */
+    static double zScore(double confidence) {
+        double tail = 1 - Math.max(0.5, Math.min(confidence, 0.999999));
+        double t = Math.sqrt(-2 * Math.log(tail));
+        return t - (2.515517 + 0.802853 * t + 0.010328 * t * t)
+            / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d/%d sampled rows mismatched (%.4f%%, at most %.4f%% at %.0f%% confidence)",
+                mismatchedRows, sampledRows, mismatchRate * 100, mismatchRateUpperBound * 100, confidence * 100);
+    }
+}
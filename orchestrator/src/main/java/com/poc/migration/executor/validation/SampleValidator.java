@@ -0,0 +1,324 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.ValidationException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import com.poc.migration.service.migration.TableStatisticsService;
+import com.poc.migration.util.SqlValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Validates a table from a random sample of rows instead of a full scan.
+ * Keys are drawn on the source (random point probes into the key range on MySQL
+ * integer keys, TABLESAMPLE SYSTEM on PostgreSQL, a RAND() filter otherwise), the
+ * rows are fetched from both sides with batched IN-lists and compared in their
+ * canonical form ({@link CanonicalRowEncoder}, so e.g. blank-padded CHAR and type
+ * mappings compare as the checksum does), and the mismatch rate is reported with a
+ * confidence bound. Rows that exist only on the
+ * target are not detected.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SampleValidator implements TableValidator {
+    
+    private static final int PROBES_PER_QUERY = 500;
+    private static final int MAX_PROBE_ROUNDS = 50;
+    private static final double OVERSAMPLING = 1.5;
+    
+    private final TableMetadataReader metadataReader;
+    private final TableStatisticsService statisticsService;
+    private final MigrationProperties properties;
+    
+    @Override
+    public ValidationResult validate(String table, ValidationSession session) throws Exception {
+        log.info("Sampling table: {}", table);
+        SqlValidator.validateTableName(table);
+        
+        TableMetadata sourceMeta = session.onSource(
+            conn -> metadataReader.read(conn, session.getSourceConfig(), table));
+        TableMetadata targetMeta = session.onTarget(
+            conn -> metadataReader.read(conn, session.getTargetConfig(), table));
+        
+        if (sourceMeta.primaryKey().isEmpty()) {
+            log.error("  ✗ FAIL - Table '{}': no primary key, rows cannot be sampled", table);
+            return ValidationResult.failed(table, "Sampling requires a primary key");
+        }
+        
+        List<String> sourceColumns = sourceMeta.columns();
+        List<String> targetColumns = new ArrayList<>();
+        for (String column : sourceColumns) {
+            String targetColumn = targetMeta.findColumn(column);
+            if (targetColumn == null) {
+                throw new ValidationException("Column '" + column + "' of table " + table + " is missing on target");
+            }
+            targetColumns.add(targetColumn);
+        }
+        List<String> sourceKey = sourceMeta.primaryKey();
+        List<String> targetKey = sourceKey.stream().map(targetMeta::findColumn).toList();
+        int[] keyIndexes = sourceKey.stream().mapToInt(sourceColumns::indexOf).toArray();
+        CanonicalRowEncoder.Layout layout = CanonicalRowEncoder.Layout.of(sourceMeta, targetMeta,
+            sourceColumns, targetColumns, session.getSourceConfig().getType(), session.getDataTypeMappings());
+        
+        int sampleSize = session.getOptions().getSampleSize() != null
+            ? session.getOptions().getSampleSize()
+            : properties.getValidation().getSampleSize();
+        DatabaseConnectionConfig sourceConfig = session.getSourceConfig();
+        long estimatedRows = statisticsService.getStatistics(sourceConfig, List.of(table))
+            .getOrDefault(table, new TableStatisticsService.TableStatistics(table, 0, 0, 0))
+            .estimatedRows();
+        List<Object[]> keys = session.onSource(
+            conn -> sampleKeys(conn, sourceConfig, sourceMeta, sampleSize, estimatedRows));
+        
+        long sampled = 0;
+        long foundOnTarget = 0;
+        long mismatched = 0;
+        int batchSize = Math.max(1, properties.getValidation().getSampleBatchSize());
+        
+        for (int start = 0; start < keys.size(); start += batchSize) {
+            if (session.isAborted()) {
+                throw new ValidationException("Validation aborted");
+            }
+            
+            List<Object[]> batch = keys.subList(start, Math.min(start + batchSize, keys.size()));
+            Map<String, byte[]> sourceRows = session.onSource(conn -> fetchRows(conn, session.getSourceConfig(),
+                table, sourceColumns, sourceKey, keyIndexes, batch, layout.sourceEncoder()));
+            Map<String, byte[]> targetRows = session.onTarget(conn -> fetchRows(conn, session.getTargetConfig(),
+                table, targetColumns, targetKey, keyIndexes, batch, layout.targetEncoder()));
+            
+            for (Map.Entry<String, byte[]> entry : sourceRows.entrySet()) {
+                // Keys deleted since sampling are absent from sourceRows and not counted
+                byte[] targetRow = targetRows.get(entry.getKey());
+                sampled++;
+                if (targetRow != null) {
+                    foundOnTarget++;
+                }
+                if (targetRow == null || !Arrays.equals(entry.getValue(), targetRow)) {
+                    mismatched++;
+                }
+            }
+        }
+        
+        SampleEstimate estimate = SampleEstimate.of(table, sampled, mismatched,
+            properties.getValidation().getSampleConfidence());
+        boolean isValid = mismatched == 0;
+        
+        if (isValid) {
+            log.info("  ✓ PASS - Table '{}': {}", table, estimate);
+        } else {
+            log.error("  ✗ FAIL - Table '{}': {}", table, estimate);
+        }
+        return new ValidationResult(table, sampled, foundOnTarget, isValid,
+            isValid ? null : estimate.toString(), List.of(), estimate);
+    }
+    
+    /**
+     * Draw up to {@code sampleSize} uniformly random primary keys from the source.
+     * The catalog row estimate sizes the sampled fraction; without one the table is counted.
+     */
+    private List<Object[]> sampleKeys(Connection conn, DatabaseConnectionConfig config, TableMetadata meta,
+            int sampleSize, long estimatedRows) throws SQLException {
+        if (config.getType() == DatabaseType.MYSQL && meta.hasRangeableKey()) {
+            List<Object[]> keys = probeRandomKeys(conn, config, meta, sampleSize);
+            if (keys != null) {
+                return keys;
+            }
+            log.info("  Key range of '{}' too sparse for point probes, sampling with a filtered scan",
+                    meta.tableName());
+        }
+        
+        long rows = estimatedRows > 0 ? estimatedRows : countRows(conn, config, meta.tableName());
+        if (rows == 0) {
+            return List.of();
+        }
+        double fraction = Math.min(1.0, sampleSize * OVERSAMPLING / rows);
+        
+        String keyList = keyColumns(config, meta.primaryKey());
+        String sql = config.getType() == DatabaseType.POSTGRESQL
+            // Page-level sampling reads only the sampled fraction of the table
+            ? String.format(Locale.ROOT, "SELECT %s FROM %s TABLESAMPLE SYSTEM (%.6f)",
+                keyList, ValidationSql.qualifiedName(config, meta.tableName()), fraction * 100)
+            // Without an integer key MySQL has no cheaper option than a filtered scan
+            : String.format(Locale.ROOT, "SELECT %s FROM %s WHERE RAND() < %.8f",
+                keyList, ValidationSql.qualifiedName(config, meta.tableName()), fraction);
+        
+        // Reservoir sampling keeps the draw uniform and the memory bounded
+        // even when the estimate is far too low
+        List<Object[]> keys = new ArrayList<>(sampleSize);
+        long seen = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setQueryTimeout(properties.getMonitoring().getQueryTimeoutSeconds());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (keys.size() < sampleSize) {
+                        keys.add(readKey(rs, meta.primaryKey().size()));
+                    } else {
+                        long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                        if (slot < sampleSize) {
+                            keys.set((int) slot, readKey(rs, meta.primaryKey().size()));
+                        }
+                    }
+                    seen++;
+                }
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Uniform sampling over an integer key: probe random points of [min, max] for an
+     * exact key and keep the hits, so every existing key is equally likely to be drawn
+     * (unlike seeking to the next key, which favors keys after gaps).
+     * PROBES_PER_QUERY point lookups per round trip. Returns null when the keys are
+     * too sparse in their range to reach the sample size within MAX_PROBE_ROUNDS.
+     */
+    private List<Object[]> probeRandomKeys(Connection conn, DatabaseConnectionConfig config, TableMetadata meta,
+            int sampleSize) throws SQLException {
+        String key = ValidationSql.quote(config, meta.primaryKey().get(0));
+        String tableName = ValidationSql.qualifiedName(config, meta.tableName());
+        
+        long min;
+        long max;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MIN(" + key + "), MAX(" + key + ") FROM " + tableName);
+            ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            min = rs.getLong(1);
+            if (rs.wasNull()) {
+                return List.of();
+            }
+            max = rs.getLong(2);
+        }
+        
+        String sql = "SELECT " + key + " FROM " + tableName + " WHERE " + key + " IN ("
+            + String.join(", ", Collections.nCopies(PROBES_PER_QUERY, "?")) + ")";
+        
+        Map<Long, Object[]> keys = new LinkedHashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setQueryTimeout(properties.getMonitoring().getQueryTimeoutSeconds());
+            
+            for (int round = 0; round < MAX_PROBE_ROUNDS && keys.size() < sampleSize; round++) {
+                for (int i = 1; i <= PROBES_PER_QUERY; i++) {
+                    stmt.setLong(i, randomKey(min, max));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next() && keys.size() < sampleSize) {
+                        long value = rs.getLong(1);
+                        keys.putIfAbsent(value, new Object[]{value});
+                    }
+                }
+                
+                // The first round's hit rate shows whether the rounds left can fill the sample
+                if (round == 0 && keys.size() * (double) MAX_PROBE_ROUNDS < sampleSize) {
+                    return null;
+                }
+            }
+        }
+        return new ArrayList<>(keys.values());
+    }
+    
+    /**
+     * Uniform key in [min, max]; {@code max + 1} would overflow at Long.MAX_VALUE.
+     */
+    private static long randomKey(long min, long max) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (max < Long.MAX_VALUE) {
+            return random.nextLong(min, max + 1);
+        }
+        if (min > Long.MIN_VALUE) {
+            return random.nextLong(min - 1, max) + 1;
+        }
+        return random.nextLong();
+    }
+    
+    /**
+     * Fetch the rows of a batch of keys as canonical encodings, by normalized key.
+     */
+    private Map<String, byte[]> fetchRows(Connection conn, DatabaseConnectionConfig config, String table,
+            List<String> columns, List<String> keyColumns, int[] keyIndexes, List<Object[]> keys,
+            CanonicalRowEncoder encoder) throws SQLException {
+        String placeholders = keyColumns.size() == 1 ? "?" : "(" + String.join(", ", Collections.nCopies(keyColumns.size(), "?")) + ")";
+        String keyExpr = keyColumns.size() == 1
+            ? ValidationSql.quote(config, keyColumns.get(0))
+            : "(" + keyColumns(config, keyColumns) + ")";
+        String sql = "SELECT " + columns.stream().map(c -> ValidationSql.quote(config, c)).collect(Collectors.joining(", "))
+            + " FROM " + ValidationSql.qualifiedName(config, table)
+            + " WHERE " + keyExpr + " IN (" + String.join(", ", Collections.nCopies(keys.size(), placeholders)) + ")";
+        
+        Map<String, byte[]> rows = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setQueryTimeout(properties.getMonitoring().getQueryTimeoutSeconds());
+            int index = 1;
+            for (Object[] key : keys) {
+                for (Object value : key) {
+                    stmt.setObject(index++, value);
+                }
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Object[] key = new Object[keyIndexes.length];
+                    for (int i = 0; i < key.length; i++) {
+                        key[i] = rs.getObject(keyIndexes[i] + 1);
+                    }
+                    encoder.encode(rs);
+                    rows.put(keyString(key), encoder.toByteArray());
+                }
+            }
+        }
+        return rows;
+    }
+    
+    private long countRows(Connection conn, DatabaseConnectionConfig config, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM " + ValidationSql.qualifiedName(config, table))) {
+            stmt.setQueryTimeout(properties.getMonitoring().getQueryTimeoutSeconds());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+    
+    private static String keyColumns(DatabaseConnectionConfig config, List<String> keyColumns) {
+        return keyColumns.stream().map(c -> ValidationSql.quote(config, c)).collect(Collectors.joining(", "));
+    }
+    
+    private static Object[] readKey(ResultSet rs, int size) throws SQLException {
+        Object[] key = new Object[size];
+        for (int i = 0; i < size; i++) {
+            key[i] = rs.getObject(i + 1);
+        }
+        return key;
+    }
+    
+    /**
+     * Key as text that is equal on both sides for equal values (e.g. INT vs BIGINT, 1.0 vs 1).
+     */
+    private static String keyString(Object[] keyValues) {
+        StringBuilder key = new StringBuilder();
+        for (Object keyValue : keyValues) {
+            Object value = RowDiffValidator.normalize(keyValue);
+            key.append(value instanceof BigDecimal decimal ? decimal.stripTrailingZeros().toPlainString() : value)
+                .append('\u0000');
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,192 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.infrastructure.database.DatabaseType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consistent read snapshot of the source, held open on an anchor connection.
+ * PostgreSQL exports the snapshot so every pooled connection can import it and
+ * queries stay parallel. MySQL cannot share a snapshot between connections
+ * (START TRANSACTION WITH CONSISTENT SNAPSHOT), so all source work runs on
+ * the anchor, one query at a time. The source position at the snapshot tells
+ * when the proxy's change capture has read past it.
+ */
+@Slf4j
+final class SourceSnapshot implements AutoCloseable {
+    
+    private final DatabaseType type;
+    private final Connection anchor;
+    private final String snapshotId;
+    private final String position;
+    private final String lsn;
+    private final Instant takenAt;
+    private final ReentrantLock anchorLock = new ReentrantLock();
+    
+    private SourceSnapshot(DatabaseType type, Connection anchor, String snapshotId, String position, String lsn,
+            Instant takenAt) {
+        this.type = type;
+        this.anchor = anchor;
+        this.snapshotId = snapshotId;
+        this.position = position;
+        this.lsn = lsn;
+        this.takenAt = takenAt;
+    }
+    
+    /**
+     * Start the snapshot on {@code anchor}, which is owned (and closed) by the snapshot from now on.
+     */
+    static SourceSnapshot open(Connection anchor, DatabaseType type) throws SQLException {
+        try {
+            anchor.setAutoCommit(false);
+            anchor.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            Instant takenAt = Instant.now();
+            
+            try (Statement stmt = anchor.createStatement()) {
+                if (type == DatabaseType.POSTGRESQL) {
+                    stmt.execute("SET TRANSACTION READ ONLY");
+                    try (ResultSet rs = stmt.executeQuery("SELECT pg_export_snapshot(), "
+                            + "CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn() ELSE pg_current_wal_lsn() END")) {
+                        rs.next();
+                        String lsn = rs.getString(2);
+                        return new SourceSnapshot(type, anchor, rs.getString(1), "LSN " + lsn, lsn, takenAt);
+                    }
+                }
+                
+                stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+                return new SourceSnapshot(type, anchor, null, binlogPosition(stmt), null, takenAt);
+            }
+        } catch (SQLException e) {
+            anchor.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Source work runs on the anchor rather than on pooled connections (MySQL).
+     */
+    boolean usesAnchor() {
+        return type != DatabaseType.POSTGRESQL;
+    }
+    
+    /**
+     * Run source work inside the snapshot: on a pooled connection that imports it
+     * (PostgreSQL), or on the anchor (MySQL; {@code pooled} is then unused).
+     */
+    <T> T run(Connection pooled, ValidationSession.ConnectionCallback<T> callback) throws SQLException {
+        if (usesAnchor()) {
+            anchorLock.lock();
+            try {
+                return callback.execute(anchor);
+            } finally {
+                anchorLock.unlock();
+            }
+        }
+        
+        boolean autoCommit = pooled.getAutoCommit();
+        pooled.setAutoCommit(false);
+        try {
+            try (Statement stmt = pooled.createStatement()) {
+                stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+                stmt.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+            }
+            return callback.execute(pooled);
+        } finally {
+            pooled.rollback();
+            pooled.setAutoCommit(autoCommit);
+        }
+    }
+    
+    /**
+     * Binlog file:position or WAL LSN when the snapshot was taken (null if not readable).
+     */
+    String position() {
+        return position;
+    }
+    
+    Instant takenAt() {
+        return takenAt;
+    }
+    
+    /**
+     * Whether change capture has read the source past the snapshot position, checked on
+     * {@code conn} (a connection outside the snapshot). Empty when it cannot be told:
+     * unknown position, no capture connected, or missing privileges.
+     * PostgreSQL: every active logical slot of the database has confirmed the snapshot LSN.
+     * MySQL: the processlist has no position per dump thread, so this checks that every
+     * binlog dump thread of the pipeline (the proxy registers the source with the same
+     * user as {@code conn}) has sent all binlog. The check runs after the position was
+     * read with SHOW MASTER STATUS, and the binlog end only moves forward, so a thread
+     * that has sent everything has sent the snapshot position. Dump threads of other
+     * replicas are not counted.
+     */
+    Optional<Boolean> isCapturedPast(Connection conn) {
+        try {
+            if (type == DatabaseType.POSTGRESQL) {
+                if (lsn == null) {
+                    return Optional.empty();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT count(*), "
+                        + "count(*) FILTER (WHERE confirmed_flush_lsn >= ?::pg_lsn) FROM pg_replication_slots "
+                        + "WHERE slot_type = 'logical' AND database = current_database() AND active")) {
+                    stmt.setString(1, lsn);
+                    return allOf(stmt);
+                }
+            }
+            
+            if (position == null) {
+                return Optional.empty();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*), "
+                    + "COALESCE(SUM(STATE LIKE '%has sent all binlog%'), 0) FROM information_schema.PROCESSLIST "
+                    + "WHERE COMMAND LIKE 'Binlog Dump%' AND USER = SUBSTRING_INDEX(USER(), '@', 1)")) {
+                return allOf(stmt);
+            }
+        } catch (SQLException e) {
+            log.debug("Could not read change capture progress: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Reads (total, passed) counts: empty when there is nothing to count.
+     */
+    private static Optional<Boolean> allOf(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            long total = rs.getLong(1);
+            return total == 0 ? Optional.empty() : Optional.of(rs.getLong(2) == total);
+        }
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        try {
+            anchor.rollback();
+        } finally {
+            anchor.close();
+        }
+    }
+    
+    /**
+     * Needs REPLICATION CLIENT; SHOW BINARY LOG STATUS replaces SHOW MASTER STATUS in 8.4.
+     */
+    private static String binlogPosition(Statement stmt) {
+        for (String sql : new String[]{"SHOW MASTER STATUS", "SHOW BINARY LOG STATUS"}) {
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                return rs.next() ? rs.getString("File") + ":" + rs.getLong("Position") : null;
+            } catch (SQLException e) {
+                log.debug("{} failed: {}", sql, e.getMessage());
+            }
+        }
+        return null;
+    }
+}
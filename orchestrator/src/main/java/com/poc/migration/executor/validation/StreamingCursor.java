@@ -0,0 +1,94 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Forward-only cursor fetching fetchSize rows per round trip.
+ * MySQL streams through useCursorFetch on the streaming pool; PostgreSQL
+ * only uses a portal when autocommit is off, so it is switched off for the scan.
+ */
+final class StreamingCursor implements AutoCloseable {
+    
+    private final Connection conn;
+    private final PreparedStatement stmt;
+    private final ResultSet rs;
+    private final int columnCount;
+    private final boolean restoreAutoCommit;
+    
+    private StreamingCursor(Connection conn, PreparedStatement stmt, ResultSet rs, boolean restoreAutoCommit)
+            throws SQLException {
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.columnCount = rs.getMetaData().getColumnCount();
+        this.restoreAutoCommit = restoreAutoCommit;
+    }
+    
+    /**
+     * Run the query with long parameters bound in order.
+     */
+    static StreamingCursor open(Connection conn, DatabaseConnectionConfig config, String sql, int fetchSize,
+            long... params) throws SQLException {
+        boolean restoreAutoCommit = config.getType() == DatabaseType.POSTGRESQL && conn.getAutoCommit();
+        if (restoreAutoCommit) {
+            conn.setAutoCommit(false);
+        }
+        
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            // No query timeout: a full scan of a large table legitimately runs long
+            stmt.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setLong(i + 1, params[i]);
+            }
+            return new StreamingCursor(conn, stmt, stmt.executeQuery(), restoreAutoCommit);
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Current row, for readers using typed getters.
+     */
+    ResultSet resultSet() {
+        return rs;
+    }
+    
+    boolean next() throws SQLException {
+        return rs.next();
+    }
+    
+    /**
+     * Next row as objects, or null at the end.
+     */
+    Object[] nextRow() throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        Object[] row = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            row[i] = rs.getObject(i + 1);
+        }
+        return row;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        try {
+            rs.close();
+            stmt.close();
+        } finally {
+            if (restoreAutoCommit) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.poc.migration.executor.validation;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Columns, their types and primary key of a table, as reported by JDBC metadata.
+ */
+public record TableMetadata(
+        String tableName,
+        List<String> columns,
+        List<ColumnType> columnTypes,
+        List<String> primaryKey,
+        boolean integerKey
+) {
+    
+    /**
+     * A single integer primary key column allows splitting the table into key ranges.
+     */
+    public boolean hasRangeableKey() {
+        return primaryKey.size() == 1 && integerKey;
+    }
+    
+    /**
+     * Column with the same name, ignoring case (PostgreSQL folds unquoted names).
+     */
+    public String findColumn(String name) {
+        return columns.stream()
+            .filter(column -> column.equalsIgnoreCase(name))
+            .findFirst()
+            .orElse(null);
+    }
+    
+    /**
+     * Type of a column of this table, or null if there is no such column.
+     */
+    public ColumnType columnType(String column) {
+        int index = columns.indexOf(column);
+        return index >= 0 ? columnTypes.get(index) : null;
+    }
+    
+    /**
+     * Character column, whose ordering depends on collation.
+     */
+    public boolean isTextColumn(String column) {
+        ColumnType type = columnType(column);
+        return type != null && type.isText();
+    }
+    
+    /**
+     * JDBC type of a column: java.sql.Types code, database type name and
+     * DECIMAL_DIGITS (scale, or fractional seconds precision for temporal types).
+     */
+    public record ColumnType(int sqlType, String typeName, int decimalDigits) {
+        
+        public boolean isText() {
+            return sqlType == Types.CHAR || sqlType == Types.VARCHAR || sqlType == Types.LONGVARCHAR
+                || sqlType == Types.NCHAR || sqlType == Types.NVARCHAR || sqlType == Types.LONGNVARCHAR;
+        }
+        
+        /**
+         * Blank-padded CHAR(n), compared without trailing spaces.
+         */
+        public boolean isFixedText() {
+            return sqlType == Types.CHAR || sqlType == Types.NCHAR;
+        }
+    }
+}
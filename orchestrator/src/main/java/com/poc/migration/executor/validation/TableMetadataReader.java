@@ -0,0 +1,62 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.exception.ValidationException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads column order and primary key of a table from JDBC metadata.
+ */
+@Component
+public class TableMetadataReader {
+    
+    public TableMetadata read(Connection conn, DatabaseConnectionConfig config, String table) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        String catalog = config.getType() == DatabaseType.MYSQL ? config.getDatabase() : null;
+        String schema = config.getType() == DatabaseType.POSTGRESQL ? config.getSchemaOrDefault() : null;
+        
+        List<String> columns = new ArrayList<>();
+        List<TableMetadata.ColumnType> columnTypes = new ArrayList<>();
+        try (ResultSet rs = metaData.getColumns(catalog, schema, table, null)) {
+            while (rs.next()) {
+                columns.add(rs.getString("COLUMN_NAME"));
+                columnTypes.add(new TableMetadata.ColumnType(
+                    rs.getInt("DATA_TYPE"), rs.getString("TYPE_NAME"), rs.getInt("DECIMAL_DIGITS")));
+            }
+        }
+        
+        if (columns.isEmpty()) {
+            throw new ValidationException("Table not found: " + table);
+        }
+        
+        // KEY_SEQ gives the column position within the key
+        Map<Short, String> keyColumns = new TreeMap<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, table)) {
+            while (rs.next()) {
+                keyColumns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        List<String> primaryKey = new ArrayList<>(keyColumns.values());
+        
+        boolean integerKey = primaryKey.size() == 1
+            && isIntegerType(columnTypes.get(columns.indexOf(primaryKey.get(0))).sqlType());
+        
+        return new TableMetadata(table, columns, columnTypes, primaryKey, integerKey);
+    }
+    
+    private static boolean isIntegerType(int sqlType) {
+        return sqlType == Types.TINYINT || sqlType == Types.SMALLINT
+            || sqlType == Types.INTEGER || sqlType == Types.BIGINT;
+    }
+}
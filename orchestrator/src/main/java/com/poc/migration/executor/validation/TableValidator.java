@@ -0,0 +1,10 @@
+package com.poc.migration.executor.validation;
+
+/**
+ * Validates one table using the session's bounded source/target access.
+ */
+@FunctionalInterface
+public interface TableValidator {
+    
+    ValidationResult validate(String tableName, ValidationSession session) throws Exception;
+}
@@ -0,0 +1,116 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.infrastructure.database.DatabaseType;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds source rows to a target statement, converting each value to the category the
+ * column has under the job's dataTypeMappings, the same one validation compares by
+ * ({@link CanonicalRowEncoder.Layout}): TINYINT(1) is read as a number and bound as a
+ * number or boolean to suit the target column, JSON and other driver-specific target types
+ * (jsonb, uuid, enums) are bound as untyped text for the server to cast.
+ */
+final class TargetRowBinder {
+    
+    private final CanonicalRowEncoder.Category[] categories;
+    private final boolean[] booleanSources;
+    private final int[] targetTypes;
+    
+    private TargetRowBinder(CanonicalRowEncoder.Category[] categories, boolean[] booleanSources, int[] targetTypes) {
+        this.categories = categories;
+        this.booleanSources = booleanSources;
+        this.targetTypes = targetTypes;
+    }
+    
+    /**
+     * Build the binder for aligned column lists.
+     */
+    static TargetRowBinder of(TableMetadata source, TableMetadata target, List<String> sourceColumnNames,
+            List<String> targetColumnNames, DatabaseType sourceType, Map<String, String> dataTypeMappings) {
+        int count = sourceColumnNames.size();
+        CanonicalRowEncoder.Category[] categories = new CanonicalRowEncoder.Category[count];
+        boolean[] booleanSources = new boolean[count];
+        int[] targetTypes = new int[count];
+        
+        for (int i = 0; i < count; i++) {
+            TableMetadata.ColumnType sourceColumn = source.columnType(sourceColumnNames.get(i));
+            categories[i] = CanonicalRowEncoder.Layout.category(sourceColumn, sourceType, dataTypeMappings);
+            booleanSources[i] = CanonicalRowEncoder.Layout.isBoolean(sourceColumn);
+            targetTypes[i] = target.columnType(targetColumnNames.get(i)).sqlType();
+        }
+        return new TargetRowBinder(categories, booleanSources, targetTypes);
+    }
+    
+    /**
+     * Bind the current row of {@code rs} to the parameters of {@code stmt}, in column order.
+     */
+    void bind(ResultSet rs, PreparedStatement stmt) throws SQLException {
+        for (int i = 0; i < categories.length; i++) {
+            int index = i + 1;
+            Object value = read(rs, index, categories[i], booleanSources[i]);
+            if (value == null) {
+                stmt.setNull(index, targetTypes[i]);
+            } else {
+                write(stmt, index, value, targetTypes[i]);
+            }
+        }
+    }
+    
+    private static Object read(ResultSet rs, int index, CanonicalRowEncoder.Category category,
+            boolean booleanSource) throws SQLException {
+        return switch (category) {
+            case INTEGER -> {
+                if (booleanSource) {
+                    boolean flag = rs.getBoolean(index);
+                    yield rs.wasNull() ? null : (flag ? 1L : 0L);
+                }
+                // getObject would turn TINYINT(1) values other than 0 and 1 into true
+                Object value = rs.getObject(index);
+                yield value instanceof Boolean ? rs.getLong(index) : value;
+            }
+            case DECIMAL -> rs.getBigDecimal(index);
+            case FLOAT -> {
+                double value = rs.getDouble(index);
+                yield rs.wasNull() ? null : value;
+            }
+            case TEXT, FIXED_TEXT -> rs.getString(index);
+            case BINARY -> rs.getBytes(index);
+            case TIMESTAMP -> rs.getObject(index, LocalDateTime.class);
+            case DATE -> rs.getObject(index, LocalDate.class);
+            case TIME -> rs.getObject(index, LocalTime.class);
+        };
+    }
+    
+    private static void write(PreparedStatement stmt, int index, Object value, int targetType) throws SQLException {
+        if (value instanceof Number number && (targetType == Types.BIT || targetType == Types.BOOLEAN)) {
+            stmt.setBoolean(index, number.longValue() != 0);
+        } else if (value instanceof BigDecimal decimal) {
+            stmt.setBigDecimal(index, decimal);
+        } else if (value instanceof Double real) {
+            stmt.setDouble(index, real);
+        } else if (value instanceof Number number) {
+            stmt.setLong(index, number.longValue());
+        } else if (value instanceof String text) {
+            // Driver-specific target types (jsonb, uuid, enums): let the server cast the text
+            if (targetType == Types.OTHER) {
+                stmt.setObject(index, text, Types.OTHER);
+            } else {
+                stmt.setString(index, text);
+            }
+        } else if (value instanceof byte[] bytes) {
+            stmt.setBytes(index, bytes);
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.model.ValidationMode;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of validating a job. A failed validation is repairable when it was exact
+ * (CHECKSUM or ROW_DIFF) and every failing table reported the primary key ranges that
+ * differ; the ranges can then be re-synced instead of rolling the migration back.
+ */
+public record ValidationOutcome(
+        boolean isValid,
+        boolean isRepairable,
+        Map<String, List<KeyRange>> mismatchedRanges
+) {
+
+    /**
+     * Failed before any table was compared (e.g. catalog fail-fast).
+     */
+    public static ValidationOutcome failed() {
+        return new ValidationOutcome(false, false, Map.of());
+    }
+
+    /**
+     * Outcome of the per-table results of a validation in the given mode.
+     */
+    public static ValidationOutcome of(ValidationMode mode, Map<String, ValidationResult> results) {
+        List<ValidationResult> failed = results.values().stream().filter(r -> !r.isValid()).toList();
+        if (failed.isEmpty()) {
+            return new ValidationOutcome(true, false, Map.of());
+        }
+
+        Map<String, List<KeyRange>> ranges = new LinkedHashMap<>();
+        failed.stream()
+            .filter(r -> !r.mismatchedRanges().isEmpty())
+            .forEach(r -> ranges.put(r.tableName(), r.mismatchedRanges()));
+
+        boolean exact = mode == ValidationMode.CHECKSUM || mode == ValidationMode.ROW_DIFF;
+        return new ValidationOutcome(false, exact && ranges.size() == failed.size(), ranges);
+    }
+}
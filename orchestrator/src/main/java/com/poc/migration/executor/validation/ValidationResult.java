@@ -0,0 +1,32 @@
+package com.poc.migration.executor.validation;
+
+import java.util.List;
+
+/**
+ * Validation result for a single table.
+ * Range-based modes also report the primary key ranges that did not match;
+ * SAMPLE mode reports its estimate (null otherwise).
+ */
+public record ValidationResult(
+        String tableName,
+        long sourceCount,
+        long targetCount,
+        boolean isValid,
+        String error,
+        List<KeyRange> mismatchedRanges,
+        SampleEstimate sample
+) {
+    
+    public ValidationResult(String tableName, long sourceCount, long targetCount, boolean isValid, String error) {
+        this(tableName, sourceCount, targetCount, isValid, error, List.of(), null);
+    }
+    
+    public ValidationResult(String tableName, long sourceCount, long targetCount, boolean isValid, String error,
+            List<KeyRange> mismatchedRanges) {
+        this(tableName, sourceCount, targetCount, isValid, error, mismatchedRanges, null);
+    }
+    
+    public static ValidationResult failed(String tableName, String error) {
+        return new ValidationResult(tableName, -1, -1, false, error);
+    }
+}
@@ -0,0 +1,208 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.exception.ValidationException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
+import com.poc.migration.model.JobRequest;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared state of one validation run: source/target configs, separate
+ * concurrency caps per database, the fail-fast abort flag and, when
+ * snapshot-consistent, the open source snapshot.
+ */
+@Slf4j
+public class ValidationSession {
+    
+    /**
+     * Owning migration job, used to name reports (may be null).
+     */
+    @Getter
+    private final Long jobId;
+    
+    @Getter
+    private final DatabaseConnectionConfig sourceConfig;
+    
+    @Getter
+    private final DatabaseConnectionConfig targetConfig;
+    
+    @Getter
+    private final boolean failFast;
+    
+    /**
+     * Read the source inside one consistent snapshot per validation round.
+     */
+    @Getter
+    private final boolean consistentSnapshot;
+    
+    /**
+     * Per-job validation settings from the request (never null).
+     */
+    @Getter
+    private final JobRequest.ValidationOptions options;
+    
+    /**
+     * Source-to-target type mappings from the request (never null).
+     */
+    @Getter
+    private final Map<String, String> dataTypeMappings;
+    
+    private final DatabaseConnectionFactory connectionFactory;
+    private final Semaphore sourcePermits;
+    private final Semaphore targetPermits;
+    private final AtomicBoolean aborted = new AtomicBoolean();
+    private volatile SourceSnapshot snapshot;
+    
+    public ValidationSession(DatabaseConnectionFactory connectionFactory, Long jobId,
+            DatabaseConnectionConfig sourceConfig, DatabaseConnectionConfig targetConfig,
+            JobRequest.ValidationOptions options, Map<String, String> dataTypeMappings,
+            int sourceConcurrency, int targetConcurrency, boolean failFast, boolean consistentSnapshot) {
+        this.connectionFactory = connectionFactory;
+        this.jobId = jobId;
+        this.sourceConfig = sourceConfig;
+        this.targetConfig = targetConfig;
+        this.options = options != null ? options : new JobRequest.ValidationOptions();
+        this.dataTypeMappings = dataTypeMappings != null ? dataTypeMappings : Map.of();
+        this.sourcePermits = new Semaphore(Math.max(1, sourceConcurrency));
+        this.targetPermits = new Semaphore(Math.max(1, targetConcurrency));
+        this.failFast = failFast;
+        this.consistentSnapshot = consistentSnapshot;
+    }
+    
+    /**
+     * Run work on a source connection, within the source concurrency cap.
+     */
+    public <T> T onSource(ConnectionCallback<T> callback) throws SQLException {
+        return withSourceConnection(sourceConfig, callback);
+    }
+    
+    /**
+     * Run work on a target connection, within the target concurrency cap.
+     */
+    public <T> T onTarget(ConnectionCallback<T> callback) throws SQLException {
+        return withConnection(targetConfig, targetPermits, callback);
+    }
+    
+    /**
+     * Run work on a streaming (server-side cursor) source connection, within the source cap.
+     */
+    public <T> T streamSource(ConnectionCallback<T> callback) throws SQLException {
+        return withSourceConnection(sourceConfig.asStreaming(), callback);
+    }
+    
+    /**
+     * Run work on a streaming (server-side cursor) target connection, within the target cap.
+     */
+    public <T> T streamTarget(ConnectionCallback<T> callback) throws SQLException {
+        return withConnection(targetConfig.asStreaming(), targetPermits, callback);
+    }
+    
+    /**
+     * Start a new source snapshot (closing any previous one); source work runs inside it
+     * until {@link #closeSnapshot()}. The anchor is a streaming connection so MySQL
+     * scans on it still use server-side cursors.
+     */
+    synchronized SourceSnapshot openSnapshot() throws SQLException {
+        closeSnapshot();
+        snapshot = SourceSnapshot.open(
+            connectionFactory.createConnection(sourceConfig.asStreaming()), sourceConfig.getType());
+        return snapshot;
+    }
+    
+    synchronized void closeSnapshot() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            snapshot.close();
+        } catch (SQLException e) {
+            log.warn("Could not close source snapshot: {}", e.getMessage());
+        }
+        snapshot = null;
+    }
+    
+    /**
+     * Stop starting new work; tables not yet validated are reported as skipped.
+     */
+    public void abort() {
+        aborted.set(true);
+    }
+    
+    public boolean isAborted() {
+        return aborted.get();
+    }
+    
+    /**
+     * Source and target use different database types.
+     */
+    public boolean isHeterogeneous() {
+        return sourceConfig.getType() != targetConfig.getType();
+    }
+    
+    private <T> T withSourceConnection(DatabaseConnectionConfig config, ConnectionCallback<T> callback)
+            throws SQLException {
+        SourceSnapshot current = snapshot;
+        if (current == null) {
+            return withConnection(config, sourcePermits, callback);
+        }
+        if (current.usesAnchor()) {
+            // MySQL work runs on the anchor itself, so no pooled connection is borrowed
+            return withPermit(sourcePermits, () -> current.run(null, callback));
+        }
+        return withConnection(config, sourcePermits, conn -> current.run(conn, callback));
+    }
+    
+    private <T> T withConnection(DatabaseConnectionConfig config, Semaphore permits,
+            ConnectionCallback<T> callback) throws SQLException {
+        return withPermit(permits, () -> {
+            try (Connection conn = connectionFactory.createConnection(config)) {
+                return callback.execute(conn);
+            }
+        });
+    }
+    
+    private <T> T withPermit(Semaphore permits, PermittedWork<T> work) throws SQLException {
+        if (isAborted()) {
+            throw new ValidationException("Validation aborted");
+        }
+        
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Validation interrupted", e);
+        }
+        
+        // The session may have been aborted while this thread waited for the permit
+        if (isAborted()) {
+            permits.release();
+            throw new ValidationException("Validation aborted");
+        }
+        
+        try {
+            return work.run();
+        } finally {
+            permits.release();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface PermittedWork<T> {
+        T run() throws SQLException;
+    }
+    
+    /**
+     * Work done on a borrowed connection.
+     */
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+}
@@ -0,0 +1,139 @@
+package com.poc.migration.executor.validation;
+
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Dialect-specific SQL fragments shared by the validation modes.
+ */
+public final class ValidationSql {
+    
+    private ValidationSql() {
+        // Utility class - prevent instantiation
+    }
+    
+    public static String quote(DatabaseConnectionConfig config, String identifier) {
+        return config.getType() == DatabaseType.POSTGRESQL
+            ? "\"" + identifier.replace("\"", "\"\"") + "\""
+            : "`" + identifier.replace("`", "``") + "`";
+    }
+    
+    /**
+     * Schema-qualified table name (database.table on MySQL).
+     */
+    public static String qualifiedName(DatabaseConnectionConfig config, String table) {
+        return quote(config, config.getSchemaOrDefault()) + "." + quote(config, table);
+    }
+    
+    /**
+     * Range predicate on a single key column, with two parameters: lower (inclusive), upper
+     * (exclusive, or inclusive when {@code upper} is Long.MAX_VALUE, see {@link KeyRange}).
+     */
+    public static String rangePredicate(DatabaseConnectionConfig config, String keyColumn, long upper) {
+        String key = quote(config, keyColumn);
+        return key + " >= ? AND " + key + (upper == Long.MAX_VALUE ? " <= ?" : " < ?");
+    }
+    
+    /**
+     * Checksum aggregate over the given columns: COUNT(*) and the SUM of the first
+     * 60 bits of MD5 of each row's text. Both dialects render the same row text as
+     * 'v1|v2|...' with NULL as CHR(1), so equal rows hash equally on either side.
+     * SUM (unlike XOR) does not cancel out duplicated rows.
+     */
+    public static String checksumSelect(DatabaseConnectionConfig config, List<String> columns) {
+        if (config.getType() == DatabaseType.POSTGRESQL) {
+            String row = columns.stream()
+                .map(column -> "COALESCE(" + quote(config, column) + "::text, chr(1))")
+                .collect(Collectors.joining(", ", "concat_ws('|', ", ")"));
+            return "SELECT COUNT(*), COALESCE(SUM(('x' || substr(md5(" + row + "), 1, 15))::bit(60)::bigint), 0)";
+        }
+        
+        String row = columns.stream()
+            .map(column -> "COALESCE(CAST(" + quote(config, column) + " AS CHAR), CHAR(1 USING utf8mb4))")
+            .collect(Collectors.joining(", ", "CONCAT_WS('|', ", ")"));
+        return "SELECT COUNT(*), COALESCE(SUM(CAST(CONV(SUBSTRING(MD5(" + row + "), 1, 15), 16, 10) AS UNSIGNED)), 0)";
+    }
+    
+    /**
+     * ORDER BY term for a key column. With {@code nativeOrder} (same engine and collation
+     * on both sides, see {@link #canOrderNatively}) the plain column, so the key index
+     * provides the order. Otherwise character keys sort by code point on both sides
+     * (utf8mb4_0900_bin / "C"), so the two streams agree on order regardless of collation.
+     */
+    public static String orderTerm(DatabaseConnectionConfig config, String column, boolean text,
+            boolean nativeOrder) {
+        String quoted = quote(config, column);
+        if (!text || nativeOrder) {
+            return quoted;
+        }
+        return config.getType() == DatabaseType.POSTGRESQL
+            ? quoted + " COLLATE \"C\""
+            : "CONVERT(" + quoted + " USING utf8mb4) COLLATE utf8mb4_0900_bin";
+    }
+    
+    /**
+     * Whether text keys with these collations (the same on both sides of a homogeneous pair)
+     * can be ordered by the plain column and still be merged in Java: any collation on MySQL,
+     * whose WEIGHT_STRING gives the sort key, only code point collations on PostgreSQL,
+     * which has no sort key function.
+     */
+    public static boolean canOrderNatively(DatabaseType type, List<String> collations) {
+        if (collations.stream().anyMatch(Objects::isNull)) {
+            return false;
+        }
+        return type != DatabaseType.POSTGRESQL || collations.stream().allMatch(ValidationSql::isCodePointCollation);
+    }
+    
+    /**
+     * Binary sort key of a MySQL text column under its own collation, compared unsigned.
+     */
+    public static String sortKeyTerm(DatabaseConnectionConfig config, String column) {
+        return "WEIGHT_STRING(" + quote(config, column) + ")";
+    }
+    
+    /**
+     * Collation of each column, in order (null if unknown or not a character column).
+     * PostgreSQL reports no collation for columns on the database default; the
+     * database's LC_COLLATE is used then.
+     */
+    public static List<String> columnCollations(Connection conn, DatabaseConnectionConfig config, String table,
+            List<String> columns) throws SQLException {
+        String sql = config.getType() == DatabaseType.POSTGRESQL
+            ? "SELECT column_name, CASE WHEN collation_name IS NOT NULL THEN collation_name::text "
+                + "WHEN data_type IN ('character', 'character varying', 'text') THEN "
+                + "(SELECT datcollate::text FROM pg_database WHERE datname = current_database()) END "
+                + "FROM information_schema.columns WHERE table_schema = ? AND table_name = ?"
+            : "SELECT COLUMN_NAME, COLLATION_NAME FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?";
+        
+        Map<String, String> byColumn = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, config.getSchemaOrDefault());
+            stmt.setString(2, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    byColumn.put(rs.getString(1).toLowerCase(Locale.ROOT), rs.getString(2));
+                }
+            }
+        }
+        return columns.stream()
+            .map(column -> byColumn.get(column.toLowerCase(Locale.ROOT)))
+            .toList();
+    }
+    
+    private static boolean isCodePointCollation(String collation) {
+        return collation.equals("C") || collation.equals("POSIX") || collation.equals("ucs_basic")
+            || collation.startsWith("C.");
+    }
+}
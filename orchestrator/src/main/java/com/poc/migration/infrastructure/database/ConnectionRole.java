@@ -0,0 +1,10 @@
+package com.poc.migration.infrastructure.database;
+
+/**
+ * Role a database plays in a migration.
+ * Used to size connection pools independently for source and target.
+ */
+public enum ConnectionRole {
+    SOURCE,
+    TARGET
+}
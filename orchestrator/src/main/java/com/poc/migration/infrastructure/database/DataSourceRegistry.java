@@ -0,0 +1,196 @@
+package com.poc.migration.infrastructure.database;
+
+import com.poc.migration.config.MigrationProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of pooled DataSources keyed by {@link DatabaseConnectionConfig}.
+ * Pools are created lazily, bounded per source/target role, and reference counted:
+ * each {@link #retain} is paired with a {@link #release}, and a pool is closed when
+ * its count drops to zero. Counts change inside {@code ConcurrentHashMap.compute},
+ * so a pool is never closed between a lookup and a retain. Pools are opened and closed
+ * outside {@code compute}, since both can block on the network and would hold the map
+ * bin meanwhile. Pools used without being retained are closed on the next release once
+ * they have no active connections.
+ * Pool metrics (acquire latency, active, idle, pending) are published to Micrometer
+ * under the {@code hikaricp.*} meters.
+ */
+@Component
+@Slf4j
+public class DataSourceRegistry {
+    
+    private final MigrationProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<DatabaseConnectionConfig, PoolEntry> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger poolSequence = new AtomicInteger();
+    
+    public DataSourceRegistry(MigrationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        
+        Gauge.builder("migration.datasource.pools", pools,
+                entries -> entries.values().stream().filter(entry -> entry.dataSource != null).count())
+            .description("Number of open source/target connection pools")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Get (or lazily create) the pooled DataSource for a configuration.
+     * Callers that are not between a retain and a release must not keep the DataSource.
+     */
+    public DataSource getDataSource(DatabaseConnectionConfig config, String jdbcUrl) {
+        PoolEntry existing = pools.get(config);
+        HikariDataSource dataSource = existing != null ? existing.dataSource : null;
+        if (dataSource != null) {
+            return dataSource;
+        }
+        
+        // Concurrent callers may both open a pool; the one that loses closes its own
+        HikariDataSource created = createPool(config, jdbcUrl);
+        HikariDataSource installed = pools.compute(config, (key, entry) -> {
+            PoolEntry current = entry != null ? entry : new PoolEntry();
+            if (current.dataSource == null) {
+                current.dataSource = created;
+            }
+            return current;
+        }).dataSource;
+        
+        if (installed != created) {
+            created.close();
+        }
+        return installed;
+    }
+    
+    /**
+     * Take a reference on the pools of the given configurations.
+     * A retained pool is never closed before the matching {@link #release}.
+     */
+    public void retain(DatabaseConnectionConfig... configs) {
+        for (DatabaseConnectionConfig config : configs) {
+            pools.compute(config, (key, entry) -> {
+                PoolEntry current = entry != null ? entry : new PoolEntry();
+                current.references++;
+                return current;
+            });
+        }
+    }
+    
+    /**
+     * Drop a reference taken by {@link #retain}. Pools whose count reaches zero are
+     * closed, as are idle pools that were used without being retained.
+     */
+    public void release(DatabaseConnectionConfig... configs) {
+        List<PoolEntry> closed = new ArrayList<>();
+        for (DatabaseConnectionConfig config : configs) {
+            pools.computeIfPresent(config, (key, entry) -> {
+                if (entry.references == 0) {
+                    log.warn("Ignoring release of a connection pool that was not retained: {}:{}/{}",
+                            key.getHost(), key.getPort(), key.getDatabase());
+                    return entry;
+                }
+                entry.references--;
+                if (entry.references > 0) {
+                    return entry;
+                }
+                closed.add(entry);
+                return null;
+            });
+        }
+        
+        for (DatabaseConnectionConfig config : pools.keySet()) {
+            pools.computeIfPresent(config, (key, entry) -> {
+                if (entry.references > 0 || entry.isActive()) {
+                    return entry;
+                }
+                closed.add(entry);
+                return null;
+            });
+        }
+        
+        closed.forEach(this::close);
+    }
+    
+    /**
+     * Close all pools on shutdown.
+     */
+    @PreDestroy
+    public void closeAll() {
+        for (DatabaseConnectionConfig config : pools.keySet()) {
+            PoolEntry entry = pools.remove(config);
+            if (entry != null) {
+                close(entry);
+            }
+        }
+    }
+    
+    private void close(PoolEntry entry) {
+        if (entry.dataSource != null) {
+            log.info("Closing connection pool: {}", entry.dataSource.getPoolName());
+            entry.dataSource.close();
+        }
+    }
+    
+    /**
+     * Create a bounded Hikari pool for the given configuration.
+     */
+    private HikariDataSource createPool(DatabaseConnectionConfig config, String jdbcUrl) {
+        MigrationProperties.PoolConfig poolConfig = properties.getPool();
+        
+        int maxPoolSize = config.getRole() == ConnectionRole.TARGET
+            ? poolConfig.getTargetMaxPoolSize()
+            : poolConfig.getSourceMaxPoolSize();
+        
+        String poolName = String.format("%s-%s%s-%d",
+            config.getRole() != null ? config.getRole().name().toLowerCase() : "db",
+            config.getType().getTypeName(),
+            config.isStreaming() ? "-streaming" : "",
+            poolSequence.incrementAndGet());
+        
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setDriverClassName(config.getType().getDriverClassName());
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        hikariConfig.setUsername(config.getUser());
+        hikariConfig.setPassword(config.getPassword());
+        hikariConfig.setMaximumPoolSize(maxPoolSize);
+        hikariConfig.setMinimumIdle(Math.min(poolConfig.getMinIdle(), maxPoolSize));
+        hikariConfig.setConnectionTimeout(poolConfig.getConnectionTimeoutMs());
+        hikariConfig.setIdleTimeout(poolConfig.getIdleTimeoutMs());
+        hikariConfig.setMaxLifetime(poolConfig.getMaxLifetimeMs());
+        hikariConfig.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        
+        log.info("Creating connection pool '{}' for {}:{}/{} (max size: {})",
+                poolName, config.getHost(), config.getPort(), config.getDatabase(), maxPoolSize);
+        
+        return new HikariDataSource(hikariConfig);
+    }
+    
+    /**
+     * Pool of one configuration and its reference count, changed only
+     * inside {@code compute} on the registry map. The pool is also read outside it.
+     */
+    private static final class PoolEntry {
+        private volatile HikariDataSource dataSource;
+        private int references;
+        
+        boolean isActive() {
+            return dataSource != null && dataSource.getHikariPoolMXBean() != null
+                && dataSource.getHikariPoolMXBean().getActiveConnections() > 0;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.poc.migration.infrastructure.database;
 
+import com.poc.migration.model.JobRequest;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,7 +12,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class DatabaseConnectionConfig {
     private DatabaseType type;
     private String host;
@@ -21,6 +22,41 @@ public class DatabaseConnectionConfig {
     private String user;
     private String password;
     
+    /**
+     * Role of this database in the migration (optional).
+     * Part of the pool key so source and target pools are bounded independently.
+     */
+    private ConnectionRole role;
+    
+    /**
+     * Connections stream large result sets with a server-side cursor
+     * (useCursorFetch on MySQL). Pooled separately from regular connections.
+     */
+    private boolean streaming;
+    
+    /**
+     * Connection configuration of a job's source or target database.
+     */
+    public static DatabaseConnectionConfig from(JobRequest.DbConfig dbConfig, ConnectionRole role) {
+        return DatabaseConnectionConfig.builder()
+            .type(DatabaseType.fromString(dbConfig.getType()))
+            .host(dbConfig.getHost())
+            .port(dbConfig.getPort())
+            .database(dbConfig.getDatabase())
+            .schema(dbConfig.getSchema())
+            .user(dbConfig.getUser())
+            .password(dbConfig.getPassword())
+            .role(role)
+            .build();
+    }
+    
+    /**
+     * Copy of this configuration for streaming connections.
+     */
+    public DatabaseConnectionConfig asStreaming() {
+        return toBuilder().streaming(true).build();
+    }
+    
     /**
      * Get schema with default fallback.
      */
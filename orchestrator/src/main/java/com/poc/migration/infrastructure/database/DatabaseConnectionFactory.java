@@ -5,14 +5,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.List;
 
 /**
- * Factory for creating database connections with proper URL building and driver loading.
+ * Factory for creating database connections with proper URL building.
  * Centralizes connection logic to eliminate duplication across executors.
+ * Connections are served from pools held by {@link DataSourceRegistry}.
  */
 @Component
 @Slf4j
@@ -20,35 +21,36 @@ import java.util.List;
 public class DatabaseConnectionFactory {
     
     private final List<JdbcUrlBuilder> urlBuilders;
+    private final DataSourceRegistry dataSourceRegistry;
     
     /**
-     * Create a database connection from configuration.
+     * Borrow a pooled database connection for the configuration.
+     * Closing the returned connection hands it back to the pool.
      */
     public Connection createConnection(DatabaseConnectionConfig config) {
         try {
-            // Load driver class
-            Class.forName(config.getType().getDriverClassName());
+            return getDataSource(config).getConnection();
             
-            // Build JDBC URL
-            String jdbcUrl = buildJdbcUrl(config);
-            
-            log.debug("Creating connection to: {}", jdbcUrl);
-            
-            // Create connection
-            return DriverManager.getConnection(
-                jdbcUrl,
-                config.getUser(),
-                config.getPassword()
-            );
-            
-        } catch (ClassNotFoundException e) {
+        } catch (SQLException e) {
             throw new ConnectionException(
-                "Database driver not found: " + config.getType().getDriverClassName(),
+                "Failed to connect to database: " + config.getHost() + ":" + config.getPort(),
                 e
             );
-        } catch (SQLException e) {
+        }
+    }
+    
+    /**
+     * Get the pooled DataSource for a configuration.
+     */
+    public DataSource getDataSource(DatabaseConnectionConfig config) {
+        try {
+            return dataSourceRegistry.getDataSource(config, buildJdbcUrl(config));
+            
+        } catch (ConnectionException e) {
+            throw e;
+        } catch (RuntimeException e) {
             throw new ConnectionException(
-                "Failed to connect to database: " + config.getHost() + ":" + config.getPort(),
+                "Failed to create connection pool for database: " + config.getHost() + ":" + config.getPort(),
                 e
             );
         }
@@ -10,12 +10,15 @@ public class MySQLJdbcUrlBuilder implements JdbcUrlBuilder {
     
     @Override
     public String buildUrl(DatabaseConnectionConfig config) {
-        return String.format(
+        String url = String.format(
             "jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
             config.getHost(),
             config.getPort(),
             config.getDatabase()
         );
+        
+        // Honour setFetchSize with a server-side cursor instead of buffering the whole result
+        return config.isStreaming() ? url + "&useCursorFetch=true" : url;
     }
     
     @Override
@@ -50,6 +50,37 @@ public class Job {
     @Column(columnDefinition = "TEXT")
     private String jobRequestJson;
 
+    /**
+     * Effective ShardingSphere migration rule (SHOW MIGRATION RULE) as JSON.
+     * Recorded when migration jobs are created, so runs can be compared.
+     */
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String migrationRuleJson;
+
+    /**
+     * ShardingSphere migration job IDs, comma-separated. Recorded when a job stops
+     * in REPAIRABLE, so a later repair can commit the still-running migration.
+     */
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String migrationJobIds;
+
+    /**
+     * Sampling validation estimate per table (mismatch rate and confidence bound) as JSON.
+     */
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String validationSampleJson;
+
+    /**
+     * Primary key ranges per table that differed in the last validation, as JSON.
+     * A repair without explicit ranges re-syncs these.
+     */
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String mismatchedRangesJson;
+
     /**
      * Last error message if job failed.
      */
@@ -0,0 +1,53 @@
+package com.poc.migration.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notable event during a migration job, e.g. a throttle adjustment.
+ */
+@Entity
+@Table(name = "migration_job_events", indexes = {
+    @Index(name = "idx_event_job_id", columnList = "jobId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Owning migration job.
+     */
+    @Column(nullable = false)
+    private Long jobId;
+
+    /**
+     * Event type, e.g. THROTTLE.
+     */
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.poc.migration.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobEventRepository extends JpaRepository<JobEvent, Long> {
+    
+    /**
+     * Find all events of a job, oldest first.
+     */
+    List<JobEvent> findByJobIdOrderByCreatedAtAsc(Long jobId);
+}
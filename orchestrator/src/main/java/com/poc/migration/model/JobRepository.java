@@ -1,8 +1,11 @@
 package com.poc.migration.model;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -38,9 +41,18 @@ public interface JobRepository extends JpaRepository<Job, Long> {
     @Query("SELECT j FROM Job j WHERE j.status NOT IN " +
         "('DONE', 'SCHEMA_GENERATE_FAILED', 'SCHEMA_NORMALIZE_FAILED', " +
         "'SCHEMA_FAILED', 'DATA_CONFIG_FAILED', 'DATA_FAILED', " +
-        "'VALIDATION_FAILED', 'COMMIT_FAILED')")
+        "'SCHEMA_FINALIZE_FAILED', 'VALIDATION_FAILED', 'REPAIRABLE', 'COMMIT_FAILED')")
     List<Job> findRunningJobs();
     
+    /**
+     * Move a job from one status to another in a single update.
+     * Returns 0 when the job is not in {@code from}, e.g. another request moved it first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Job j SET j.status = :to, j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id AND j.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") JobStatus from, @Param("to") JobStatus to);
+    
     /**
      * Count jobs by status.
      */
@@ -11,6 +11,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 import java.util.List;
 import java.util.Map;
@@ -46,6 +47,32 @@ public class JobRequest {
      * Example: "mysql.TINYINT" -> "SMALLINT"
      */
     private Map<String, String> dataTypeMappings;
+    
+    /**
+     * Optional schema extraction engine (LIQUIBASE | NATIVE).
+     * Defaults to migration.schema.extractor.
+     */
+    private SchemaExtractor schemaExtractor;
+    
+    /**
+     * Optional table scheduling overrides.
+     * Defaults come from migration.scheduling.
+     */
+    @Valid
+    private SchedulingConfig scheduling;
+    
+    /**
+     * Optional ShardingSphere migration rule (worker threads, batch sizes, rate limiters).
+     * Applied with ALTER MIGRATION RULE before jobs are created; proxy defaults otherwise.
+     */
+    @Valid
+    private MigrationRuleConfig migrationRule;
+    
+    /**
+     * Optional validation settings. Defaults come from migration.validation.
+     */
+    @Valid
+    private ValidationOptions validation;
 
     /**
      * Database configuration.
@@ -109,4 +136,125 @@ public class JobRequest {
             return defaultName;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Table scheduling overrides for a single job.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class SchedulingConfig {
+        
+        /**
+         * Order in which tables are admitted (LARGEST_FIRST, SMALLEST_FIRST, LIST_ORDER).
+         */
+        private TableSchedulingPolicy policy;
+        
+        /**
+         * Maximum migration jobs in inventory at a time (0 = no limit).
+         */
+        @PositiveOrZero(message = "maxConcurrentInventoryJobs must not be negative")
+        private Integer maxConcurrentInventoryJobs;
+    }
+    
+    /**
+     * ShardingSphere migration rule settings for a single job.
+     * Unset values fall back to proxy defaults.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder(toBuilder = true)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class MigrationRuleConfig {
+        
+        @Positive(message = "readWorkerThreads must be positive")
+        private Integer readWorkerThreads;
+        
+        @Positive(message = "readBatchSize must be positive")
+        private Integer readBatchSize;
+        
+        /**
+         * Rows per inventory sharding split.
+         */
+        @Positive(message = "shardingSize must be positive")
+        private Integer shardingSize;
+        
+        /**
+         * Source read rate limit (queries per second).
+         */
+        @Positive(message = "readQps must be positive")
+        private Integer readQps;
+        
+        @Positive(message = "writeWorkerThreads must be positive")
+        private Integer writeWorkerThreads;
+        
+        @Positive(message = "writeBatchSize must be positive")
+        private Integer writeBatchSize;
+        
+        /**
+         * Target write rate limit (transactions per second).
+         */
+        @Positive(message = "writeTps must be positive")
+        private Integer writeTps;
+        
+        /**
+         * Capacity of the in-memory channel between readers and writers.
+         */
+        @Positive(message = "streamChannelBlockQueueSize must be positive")
+        private Integer streamChannelBlockQueueSize;
+        
+        /**
+         * Benchmark candidate write worker threads / batch sizes on a sample (written to the
+         * target directly, not through the proxy) before the run and fill in the unset write
+         * values with the fastest. Defaults to migration.autotune.enabled.
+         */
+        private Boolean autotune;
+    }
+    
+    /**
+     * Validation settings for a single job.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ValidationOptions {
+        
+        /**
+         * ROW_COUNT, RANGE_COUNT, CHECKSUM, ROW_DIFF, SAMPLE or PROFILE.
+         */
+        private ValidationMode mode;
+        
+        /**
+         * Validate against a consistent source snapshot while CDC is running.
+         */
+        private Boolean consistentSnapshot;
+        
+        /**
+         * Keys per checksum range (CHECKSUM mode).
+         */
+        @Positive(message = "checksumChunkSize must be positive")
+        private Long checksumChunkSize;
+        
+        /**
+         * Key ranges counted concurrently per table (RANGE_COUNT mode).
+         */
+        @Positive(message = "countRanges must be positive")
+        private Integer countRanges;
+        
+        /**
+         * Last-modified column used to find changed ranges on re-validation.
+         */
+        private String updatedAtColumn;
+        
+        /**
+         * Rows sampled per table (SAMPLE mode).
+         */
+        @Positive(message = "sampleSize must be positive")
+        private Integer sampleSize;
+    }
+}
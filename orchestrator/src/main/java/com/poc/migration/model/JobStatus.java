@@ -19,6 +19,9 @@ public enum JobStatus {
     SCHEMA_APPLYING("Applying Schema", false, false),
     SCHEMA_FAILED("Schema Application Failed", true, true),
     
+    // Migration rule autotune (optional, best effort)
+    RULE_TUNING("Tuning Migration Rule", false, false),
+    
     // Data configuration phase
     DATA_CONFIGURING("Configuring Data Migration", false, false),
     DATA_CONFIG_FAILED("Data Configuration Failed", true, true),
@@ -27,10 +30,19 @@ public enum JobStatus {
     DATA_RUNNING("Migrating Data", false, false),
     DATA_FAILED("Data Migration Failed", true, true),
     
+    // Schema finalization phase (deferred indexes and foreign keys)
+    SCHEMA_FINALIZING("Finalizing Schema", false, false),
+    SCHEMA_FINALIZE_FAILED("Schema Finalization Failed", true, true),
+    
     // Validation phase
     VALIDATING("Validating Migration", false, false),
     VALIDATION_FAILED("Validation Failed", true, true),
     
+    // Validation found differing data: migration jobs are kept (incremental sync
+    // still attached) so mismatched ranges can be repaired instead of rolled back
+    REPAIRABLE("Awaiting Repair", true, true),
+    REPAIRING("Repairing Ranges", false, false),
+    
     // Commit phase
     COMMITTING("Committing Migration", false, false),
     COMMIT_FAILED("Commit Failed", true, true),
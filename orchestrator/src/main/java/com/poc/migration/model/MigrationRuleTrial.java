@@ -0,0 +1,72 @@
+package com.poc.migration.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of one migration rule autotune trial for a source/target pair.
+ * The selected trial of a recent run is reused instead of benchmarking again.
+ */
+@Entity
+@Table(name = "migration_rule_trials", indexes = {
+    @Index(name = "idx_trial_pair_key", columnList = "pairKey")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MigrationRuleTrial {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Source and target identity, e.g. mysql://host:3306/db -> postgresql://host:5432/db/public.
+     */
+    @Column(nullable = false, length = 512)
+    private String pairKey;
+
+    /**
+     * Job that ran the trial.
+     */
+    private Long jobId;
+
+    /**
+     * Table the sample was taken from.
+     */
+    @Column(nullable = false)
+    private String tableName;
+
+    private Integer workerThreads;
+
+    private Integer batchSize;
+
+    /**
+     * Rows copied during the trial.
+     */
+    private Long sampleRows;
+
+    private Double rowsPerSecond;
+
+    /**
+     * Whether this trial was picked for the run.
+     */
+    @Builder.Default
+    private boolean selected = false;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
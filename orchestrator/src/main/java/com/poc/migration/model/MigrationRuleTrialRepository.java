@@ -0,0 +1,17 @@
+package com.poc.migration.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface MigrationRuleTrialRepository extends JpaRepository<MigrationRuleTrial, Long> {
+    
+    /**
+     * Find the most recent selected trial for a source/target pair.
+     */
+    Optional<MigrationRuleTrial> findFirstByPairKeyAndSelectedTrueAndCreatedAtAfterOrderByCreatedAtDesc(
+            String pairKey, LocalDateTime createdAfter);
+}
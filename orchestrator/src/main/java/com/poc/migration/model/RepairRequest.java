@@ -0,0 +1,43 @@
+package com.poc.migration.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request DTO for repairing mismatched key ranges of an existing job.
+ * Without ranges, the mismatched ranges recorded in the job's checksum index are repaired.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepairRequest {
+
+    @Valid
+    private List<TableRange> ranges = new ArrayList<>();
+
+    /**
+     * Half-open primary key range [lower, upper) of one table.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TableRange {
+
+        @NotBlank(message = "Table is required")
+        private String table;
+
+        @NotNull(message = "Lower key is required")
+        private Long lower;
+
+        @NotNull(message = "Upper key is required")
+        private Long upper;
+    }
+}
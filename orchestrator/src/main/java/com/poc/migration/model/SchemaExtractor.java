@@ -0,0 +1,16 @@
+package com.poc.migration.model;
+
+/**
+ * Engine that reads the source schema into the generated changelog.
+ */
+public enum SchemaExtractor {
+    /**
+     * Liquibase generateChangelog (snapshot through DatabaseMetaData, one call at a time).
+     */
+    LIQUIBASE,
+    
+    /**
+     * Set-based information_schema / pg_catalog queries, run concurrently.
+     */
+    NATIVE
+}
@@ -0,0 +1,74 @@
+package com.poc.migration.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Node of a table's Merkle tree of range checksums.
+ * Leaves (level 0) hold the source and target checksum of one primary key range;
+ * each parent aggregates its children, up to a single root per table.
+ */
+@Entity
+@Table(name = "table_checksum_nodes", indexes = {
+    @Index(name = "idx_checksum_job_table", columnList = "jobId, tableName")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableChecksumNode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false)
+    private String tableName;
+
+    /**
+     * 0 for leaves, increasing towards the root.
+     */
+    private int level;
+
+    /**
+     * Index of the node within its level, in key order.
+     */
+    private int position;
+
+    /**
+     * Covered key range: lower inclusive, upper exclusive.
+     */
+    private long lowerKey;
+
+    private long upperKey;
+
+    private long sourceRows;
+
+    private long targetRows;
+
+    /**
+     * Checksums as decimal strings (sums of row hashes).
+     */
+    @Column(length = 64)
+    private String sourceChecksum;
+
+    @Column(length = 64)
+    private String targetChecksum;
+
+    /**
+     * Set when the range is known to have changed (e.g. repaired) and must be recomputed.
+     */
+    @Builder.Default
+    private boolean dirty = false;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
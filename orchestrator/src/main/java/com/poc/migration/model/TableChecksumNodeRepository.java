@@ -0,0 +1,31 @@
+package com.poc.migration.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TableChecksumNodeRepository extends JpaRepository<TableChecksumNode, Long> {
+    
+    /**
+     * Find all nodes of a table's tree, leaves first, in key order.
+     */
+    List<TableChecksumNode> findByJobIdAndTableNameOrderByLevelAscPositionAsc(Long jobId, String tableName);
+    
+    @Modifying
+    void deleteByJobIdAndTableName(Long jobId, String tableName);
+    
+    /**
+     * Flag every node overlapping [lowerKey, upperKey) for recomputation.
+     */
+    @Modifying
+    @Query("UPDATE TableChecksumNode n SET n.dirty = true " +
+        "WHERE n.jobId = :jobId AND n.tableName = :tableName " +
+        "AND n.lowerKey < :upperKey AND n.upperKey > :lowerKey")
+    int markDirty(@Param("jobId") Long jobId, @Param("tableName") String tableName,
+            @Param("lowerKey") long lowerKey, @Param("upperKey") long upperKey);
+}
@@ -0,0 +1,21 @@
+package com.poc.migration.model;
+
+/**
+ * Order in which tables are admitted as ShardingSphere migration jobs.
+ */
+public enum TableSchedulingPolicy {
+    /**
+     * Biggest tables first, so the longest inventory starts earliest.
+     */
+    LARGEST_FIRST,
+    
+    /**
+     * Smallest tables first, so most tables reach incremental sync quickly.
+     */
+    SMALLEST_FIRST,
+    
+    /**
+     * Order of tablesToMigrate in the request.
+     */
+    LIST_ORDER
+}
@@ -0,0 +1,41 @@
+package com.poc.migration.model;
+
+/**
+ * How migrated data is validated against the source.
+ */
+public enum ValidationMode {
+    /**
+     * Compare COUNT(*) per table.
+     */
+    ROW_COUNT,
+    
+    /**
+     * Compare COUNT(*) per table, split into primary key ranges
+     * counted concurrently (for very large tables).
+     */
+    RANGE_COUNT,
+    
+    /**
+     * Compare per-range checksums computed inside both databases,
+     * drilling down into mismatched primary key ranges.
+     */
+    CHECKSUM,
+    
+    /**
+     * Merge-join both tables in primary key order and report every
+     * missing, extra and changed row.
+     */
+    ROW_DIFF,
+    
+    /**
+     * Compare a random sample of rows per table and report the mismatch
+     * rate with a confidence bound.
+     */
+    SAMPLE,
+    
+    /**
+     * Compare per-column aggregates (non-NULL counts, SUM/MIN/MAX of numbers,
+     * total length of text) computed in one query per table and side.
+     */
+    PROFILE
+}
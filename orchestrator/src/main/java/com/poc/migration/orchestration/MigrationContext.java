@@ -1,6 +1,7 @@
 package com.poc.migration.orchestration;
 
 import com.poc.migration.model.JobRequest;
+import com.poc.migration.service.migration.TableSchedule;
 import lombok.Data;
 
 import java.util.HashMap;
@@ -21,15 +22,34 @@ public class MigrationContext {
     private String generatedChangelogPath;
     private String normalizedChangelogPath;
     
+    // Source schema fingerprint and the schema cache state of the changelogs
+    private String schemaFingerprint;
+    private String generatedChangelogHash;
+    private boolean generatedChangelogCached;
+    private boolean normalizedChangelogCached;
+    
+    // Changelog applied after the inventory load; null when nothing was deferred
+    private String postDataChangelogPath;
+    
     // Migration job IDs from ShardingSphere
     private List<String> migrationJobIds;
     
+    // Validation found differing data; the job is kept for repair instead of rolled back
+    private boolean repairable;
+    
+    // Migration rule to apply; starts as the requested rule, may be filled in by autotune
+    private JobRequest.MigrationRuleConfig migrationRule;
+    
+    // Tables still waiting to be admitted as migration jobs
+    private TableSchedule tableSchedule;
+    
     // Additional metadata
     private final Map<String, Object> metadata = new HashMap<>();
     
     public MigrationContext(Long jobId, JobRequest request) {
         this.jobId = jobId;
         this.request = request;
+        this.migrationRule = request.getMigrationRule();
     }
     
     /**
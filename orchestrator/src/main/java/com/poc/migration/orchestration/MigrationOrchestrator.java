@@ -1,10 +1,16 @@
 package com.poc.migration.orchestration;
 
 import com.poc.migration.exception.MigrationException;
+import com.poc.migration.infrastructure.database.ConnectionRole;
+import com.poc.migration.infrastructure.database.DataSourceRegistry;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
 import com.poc.migration.model.JobRequest;
 import com.poc.migration.model.JobStatus;
 import com.poc.migration.orchestration.phases.*;
+import com.poc.migration.service.JobDetailsService;
 import com.poc.migration.service.migration.MigrationCommitService;
+import com.poc.migration.service.migration.MigrationProgressTracker;
+import com.poc.migration.service.migration.MigrationRuleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,17 +28,32 @@ import java.util.List;
 public class MigrationOrchestrator {
     
     // Phase implementations
+    private final SchemaCachePhase schemaCachePhase;
     private final SchemaGenerationPhase schemaGenerationPhase;
     private final SchemaNormalizationPhase schemaNormalizationPhase;
     private final SchemaApplicationPhase schemaApplicationPhase;
+    private final MigrationRuleAutotunePhase migrationRuleAutotunePhase;
     private final DataConfigurationPhase dataConfigurationPhase;
     private final DataMigrationPhase dataMigrationPhase;
+    private final SchemaFinalizationPhase schemaFinalizationPhase;
     private final ValidationPhase validationPhase;
     private final CommitPhase commitPhase;
     
     // For rollback
     private final MigrationCommitService commitService;
     
+    // For releasing source/target connection pools
+    private final DataSourceRegistry dataSourceRegistry;
+    
+    // For dropping per-job progress gauges
+    private final MigrationProgressTracker progressTracker;
+    
+    // For keeping the migration job IDs of a job awaiting repair
+    private final JobDetailsService jobDetailsService;
+    
+    // For letting other jobs apply their migration rule
+    private final MigrationRuleService migrationRuleService;
+    
     /**
      * Execute the complete migration lifecycle.
      * 
@@ -59,13 +80,25 @@ public class MigrationOrchestrator {
                     jobId, request.getSource().getType(), request.getTarget().getType());
         }
         
+        // Keep source/target pools (regular and streaming) alive while the job runs
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        DatabaseConnectionConfig[] pooledConfigs = {
+            sourceConfig, targetConfig, sourceConfig.asStreaming(), targetConfig.asStreaming()
+        };
+        dataSourceRegistry.retain(pooledConfigs);
+        boolean keptForRepair = false;
+        
         try {
             // Execute phases in order
+            executePhaseIfNeeded(schemaCachePhase, context, JobStatus.SCHEMA_GENERATING, statusCallback);
             executePhaseIfNeeded(schemaGenerationPhase, context, JobStatus.SCHEMA_GENERATING, statusCallback);
             executePhaseIfNeeded(schemaNormalizationPhase, context, JobStatus.SCHEMA_NORMALIZING, statusCallback);
             executePhaseIfNeeded(schemaApplicationPhase, context, JobStatus.SCHEMA_APPLYING, statusCallback);
+            executePhaseIfNeeded(migrationRuleAutotunePhase, context, JobStatus.RULE_TUNING, statusCallback);
             executePhaseIfNeeded(dataConfigurationPhase, context, JobStatus.DATA_CONFIGURING, statusCallback);
             executePhaseIfNeeded(dataMigrationPhase, context, JobStatus.DATA_RUNNING, statusCallback);
+            executePhaseIfNeeded(schemaFinalizationPhase, context, JobStatus.SCHEMA_FINALIZING, statusCallback);
             executePhaseIfNeeded(validationPhase, context, JobStatus.VALIDATING, statusCallback);
             executePhaseIfNeeded(commitPhase, context, JobStatus.COMMITTING, statusCallback);
             
@@ -76,11 +109,27 @@ public class MigrationOrchestrator {
             log.error("[Job-{}] ========== MIGRATION LIFECYCLE FAILED ==========", jobId);
             log.error("[Job-{}] Error: {}", jobId, e.getMessage(), e);
             
+            // Data differs: keep the migration jobs (and incremental sync) for a range repair
+            if (context.isRepairable() && keepForRepair(context)) {
+                keptForRepair = true;
+                return JobStatus.REPAIRABLE;
+            }
+            
             // Attempt rollback
             rollbackIfNeeded(context);
             
             // Determine appropriate error status
             return determineErrorStatus(context, e);
+            
+        } finally {
+            // Job is terminal - close pools no other job is using
+            dataSourceRegistry.release(pooledConfigs);
+            migrationRuleService.releaseRule(jobId);
+            
+            // Jobs kept for repair stay tracked: the repair waits on their incremental idle time
+            if (context.getMigrationJobIds() != null && !keptForRepair) {
+                progressTracker.clear(context.getMigrationJobIds());
+            }
         }
     }
     
@@ -114,6 +163,23 @@ public class MigrationOrchestrator {
         }
     }
     
+    /**
+     * Record the migration jobs of a job whose data differs, so a repair can commit them later.
+     * Returns false if they could not be recorded; the job is then rolled back as usual.
+     */
+    private boolean keepForRepair(MigrationContext context) {
+        try {
+            jobDetailsService.recordMigrationJobIds(context.getJobId(), context.getMigrationJobIds());
+            log.warn("[Job-{}] Keeping {} migration jobs for repair instead of rolling back",
+                    context.getJobId(), context.getMigrationJobIds().size());
+            return true;
+            
+        } catch (Exception e) {
+            log.error("[Job-{}] Could not keep migration jobs for repair: {}", context.getJobId(), e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * Rollback migration jobs if they were created.
      */
@@ -140,7 +206,9 @@ public class MigrationOrchestrator {
         // Check what data we have to determine where we failed
         if (context.getMigrationJobIds() != null && !context.getMigrationJobIds().isEmpty()) {
             // We got to data migration phase
-            if (error.getMessage() != null && error.getMessage().contains("Validation")) {
+            if (error.getMessage() != null && error.getMessage().contains("Schema Finalization")) {
+                return JobStatus.SCHEMA_FINALIZE_FAILED;
+            } else if (error.getMessage() != null && error.getMessage().contains("Validation")) {
                 return JobStatus.VALIDATION_FAILED;
             } else if (error.getMessage() != null && error.getMessage().contains("Commit")) {
                 return JobStatus.COMMIT_FAILED;
@@ -1,14 +1,19 @@
 package com.poc.migration.orchestration.phases;
 
 import com.poc.migration.orchestration.MigrationContext;
+import com.poc.migration.service.JobDetailsService;
 import com.poc.migration.orchestration.MigrationPhase;
 import com.poc.migration.service.migration.MigrationJobService;
+import com.poc.migration.service.migration.MigrationRuleService;
+import com.poc.migration.service.migration.MigrationTableScheduler;
 import com.poc.migration.service.migration.StorageUnitService;
+import com.poc.migration.service.migration.TableSchedule;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Phase for configuring data migration in ShardingSphere.
@@ -20,6 +25,9 @@ public class DataConfigurationPhase implements MigrationPhase {
     
     private final StorageUnitService storageUnitService;
     private final MigrationJobService migrationJobService;
+    private final MigrationTableScheduler tableScheduler;
+    private final MigrationRuleService migrationRuleService;
+    private final JobDetailsService jobDetailsService;
     
     @Override
     public void execute(MigrationContext context) throws Exception {
@@ -29,15 +37,38 @@ public class DataConfigurationPhase implements MigrationPhase {
         // Register source and target
         storageUnitService.registerSourceAndTarget(context.getRequest());
         
+        // The proxy reads the rule at job creation, so apply it first
+        log.info("[Job-{}] Applying migration rule...", context.getJobId());
+        migrationRuleService.applyRule(context.getJobId(), context.getMigrationRule());
+        recordEffectiveRule(context);
+        
         log.info("[Job-{}] Creating migration jobs for {} tables...", 
                 context.getJobId(), context.getRequest().getTablesToMigrate().size());
         
-        // Create migration jobs
-        List<String> jobIds = migrationJobService.createMigrationJobs(context.getRequest());
+        // Order tables by size and create jobs for the first wave only;
+        // the rest are admitted during data migration as slots free up
+        TableSchedule schedule = tableScheduler.plan(context.getRequest());
+        context.setTableSchedule(schedule);
+        
+        // Grows during data migration and is read by the throttle thread
+        List<String> jobIds = new CopyOnWriteArrayList<>(
+            migrationJobService.createMigrationJobs(context.getRequest(), schedule.nextTables(0)));
         context.setMigrationJobIds(jobIds);
         
-        log.info("[Job-{}] Created {} migration jobs: {}", 
-                context.getJobId(), jobIds.size(), jobIds);
+        log.info("[Job-{}] Created {} migration jobs ({} tables waiting): {}", 
+                context.getJobId(), jobIds.size(), schedule.getPendingTables().size(), jobIds);
+    }
+    
+    /**
+     * Store the effective rule on the job. Best effort: a failed read must not fail the run.
+     */
+    private void recordEffectiveRule(MigrationContext context) {
+        try {
+            jobDetailsService.recordMigrationRule(context.getJobId(), migrationRuleService.showRuleAsJson());
+        } catch (Exception e) {
+            log.warn("[Job-{}] Could not record effective migration rule: {}", 
+                    context.getJobId(), e.getMessage());
+        }
     }
     
     @Override
@@ -2,8 +2,11 @@ package com.poc.migration.orchestration.phases;
 
 import com.poc.migration.orchestration.MigrationContext;
 import com.poc.migration.orchestration.MigrationPhase;
+import com.poc.migration.service.migration.JobAdmission;
 import com.poc.migration.service.migration.MigrationJobService;
 import com.poc.migration.service.migration.MigrationMonitorService;
+import com.poc.migration.service.migration.MigrationTableScheduler;
+import com.poc.migration.service.migration.MigrationThrottleController;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -18,6 +21,8 @@ public class DataMigrationPhase implements MigrationPhase {
     
     private final MigrationJobService migrationJobService;
     private final MigrationMonitorService monitorService;
+    private final MigrationTableScheduler tableScheduler;
+    private final MigrationThrottleController throttleController;
     
     @Override
     public void execute(MigrationContext context) throws Exception {
@@ -26,9 +31,16 @@ public class DataMigrationPhase implements MigrationPhase {
         // Jobs auto-start in ShardingSphere 5.5.2, just verify
         migrationJobService.verifyJobsStarted();
         
-        // Monitor until all jobs reach incremental sync
+        // Monitor until all jobs reach incremental sync, admitting waiting tables as slots free up
+        JobAdmission admission = context.getTableSchedule() != null
+            ? tableScheduler.admission(context.getRequest(), context.getTableSchedule())
+            : JobAdmission.NONE;
+        
         log.info("[Job-{}] Monitoring migration progress...", context.getJobId());
-        monitorService.monitorJobsUntilReady(context.getMigrationJobIds());
+        try (MigrationThrottleController.ThrottleSession throttle = throttleController.start(
+                context.getJobId(), context.getRequest(), context.getMigrationRule(), context.getMigrationJobIds())) {
+            monitorService.monitorJobsUntilReady(context.getMigrationJobIds(), admission);
+        }
         
         log.info("[Job-{}] All migrations are in incremental sync and ready for cutover", 
                 context.getJobId());
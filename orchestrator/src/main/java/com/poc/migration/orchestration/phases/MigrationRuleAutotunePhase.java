@@ -0,0 +1,54 @@
+package com.poc.migration.orchestration.phases;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.model.JobRequest;
+import com.poc.migration.orchestration.MigrationContext;
+import com.poc.migration.orchestration.MigrationPhase;
+import com.poc.migration.service.migration.MigrationRuleAutotuner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional phase that picks migration rule threads/batch size by benchmark.
+ * Best effort: on failure the run continues with the requested rule.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MigrationRuleAutotunePhase implements MigrationPhase {
+    
+    private final MigrationRuleAutotuner autotuner;
+    private final MigrationProperties properties;
+    
+    @Override
+    public void execute(MigrationContext context) throws Exception {
+        log.info("[Job-{}] Autotuning migration rule...", context.getJobId());
+        
+        try {
+            JobRequest.MigrationRuleConfig tuned = autotuner.tune(
+                context.getJobId(), context.getRequest(), context.getMigrationRule());
+            context.setMigrationRule(tuned);
+            
+            log.info("[Job-{}] Migration rule tuned: {}", context.getJobId(), tuned);
+            
+        } catch (Exception e) {
+            log.warn("[Job-{}] Autotune failed, continuing with requested rule: {}", 
+                    context.getJobId(), e.getMessage());
+        }
+    }
+    
+    @Override
+    public String getPhaseName() {
+        return "Migration Rule Autotune";
+    }
+    
+    @Override
+    public boolean shouldSkip(MigrationContext context) {
+        JobRequest.MigrationRuleConfig rule = context.getRequest().getMigrationRule();
+        if (rule != null && rule.getAutotune() != null) {
+            return !rule.getAutotune();
+        }
+        return !properties.getAutotune().isEnabled();
+    }
+}
@@ -1,6 +1,8 @@
 package com.poc.migration.orchestration.phases;
 
+import com.poc.migration.config.MigrationProperties;
 import com.poc.migration.executor.SchemaExecutor;
+import com.poc.migration.executor.schema.ChangelogSplitter;
 import com.poc.migration.orchestration.MigrationContext;
 import com.poc.migration.orchestration.MigrationPhase;
 import lombok.RequiredArgsConstructor;
@@ -16,16 +18,27 @@ import org.springframework.stereotype.Component;
 public class SchemaApplicationPhase implements MigrationPhase {
     
     private final SchemaExecutor schemaExecutor;
+    private final MigrationProperties properties;
     
     @Override
     public void execute(MigrationContext context) throws Exception {
         log.info("[Job-{}] Applying schema to target database...", context.getJobId());
         
+        String changelogPath = context.getNormalizedChangelogPath();
+        
+        // Defer secondary indexes and foreign keys until the inventory load is done
+        if (properties.getSchema().isDeferPostData()) {
+            String preDataPath = properties.getSchema().preDataChangelogPath(context.getJobId());
+            String postDataPath = properties.getSchema().postDataChangelogPath(context.getJobId());
+            ChangelogSplitter.Split split = schemaExecutor.splitChangelog(changelogPath, preDataPath, postDataPath);
+            changelogPath = preDataPath;
+            if (split.hasPostData()) {
+                context.setPostDataChangelogPath(postDataPath);
+            }
+        }
+        
         // Apply normalized schema
-        schemaExecutor.applyChangelog(
-            context.getRequest(),
-            context.getNormalizedChangelogPath()
-        );
+        schemaExecutor.applyChangelog(context.getRequest(), changelogPath);
         
         log.info("[Job-{}] Schema applied successfully to target", context.getJobId());
     }
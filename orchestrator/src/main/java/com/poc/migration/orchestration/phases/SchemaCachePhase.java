@@ -0,0 +1,82 @@
+package com.poc.migration.orchestration.phases;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.MigrationException;
+import com.poc.migration.executor.SchemaExecutor;
+import com.poc.migration.executor.schema.SchemaCache;
+import com.poc.migration.orchestration.MigrationContext;
+import com.poc.migration.orchestration.MigrationPhase;
+import com.poc.migration.service.JobDetailsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * Phase for restoring the changelogs of an unchanged source schema from the schema cache.
+ * On a hit, schema generation (and normalization, if the mappings are unchanged too)
+ * is skipped. Cache problems never fail the job; it then generates the schema as usual.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaCachePhase implements MigrationPhase {
+    
+    private static final String EVENT_TYPE = "SCHEMA_CACHE";
+    
+    private final SchemaExecutor schemaExecutor;
+    private final SchemaCache schemaCache;
+    private final MigrationProperties properties;
+    private final JobDetailsService jobDetailsService;
+    
+    @Override
+    public void execute(MigrationContext context) throws Exception {
+        String fingerprint;
+        try {
+            fingerprint = schemaExecutor.fingerprintSource(context.getRequest());
+        } catch (MigrationException e) {
+            log.warn("[Job-{}] Could not fingerprint source schema, cache not used: {}",
+                    context.getJobId(), e.getMessage());
+            return;
+        }
+        context.setSchemaFingerprint(fingerprint);
+        
+        String generatedPath = properties.getSchema().generatedChangelogPath(context.getJobId());
+        Paths.get(generatedPath).getParent().toFile().mkdirs();
+        Optional<String> generatedHash = schemaCache.restore(SchemaCache.generatedKey(fingerprint), Paths.get(generatedPath));
+        if (generatedHash.isEmpty()) {
+            log.info("[Job-{}] Schema cache miss for fingerprint {}", context.getJobId(), fingerprint);
+            return;
+        }
+        context.setGeneratedChangelogPath(generatedPath);
+        context.setGeneratedChangelogHash(generatedHash.get());
+        context.setGeneratedChangelogCached(true);
+        
+        String normalizedPath = properties.getSchema().normalizedChangelogPath(context.getJobId());
+        boolean normalized = schemaCache.restore(
+                SchemaCache.normalizedKey(generatedHash.get(), context.getRequest()), Paths.get(normalizedPath))
+            .isPresent();
+        if (normalized) {
+            context.setNormalizedChangelogPath(normalizedPath);
+            context.setNormalizedChangelogCached(true);
+        }
+        
+        String message = String.format("Source schema %s unchanged: restored generated%s changelog",
+            fingerprint.substring(0, 12), normalized ? " and normalized" : "");
+        jobDetailsService.recordEvent(context.getJobId(), EVENT_TYPE, message);
+        log.info("[Job-{}] {}", context.getJobId(), message);
+    }
+    
+    @Override
+    public String getPhaseName() {
+        return "Schema Cache Lookup";
+    }
+    
+    @Override
+    public boolean shouldSkip(MigrationContext context) {
+        // Homogeneous MySQL migrations have no changelog to cache
+        return context.isHomogeneousMySQL() || !properties.getSchema().isCacheEnabled();
+    }
+}
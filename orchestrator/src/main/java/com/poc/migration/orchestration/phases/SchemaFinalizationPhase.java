@@ -0,0 +1,42 @@
+package com.poc.migration.orchestration.phases;
+
+import com.poc.migration.executor.SchemaExecutor;
+import com.poc.migration.orchestration.MigrationContext;
+import com.poc.migration.orchestration.MigrationPhase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Phase for applying the post-data schema (secondary indexes, unique constraints and
+ * foreign keys) once the inventory load is complete, before validation.
+ * Incremental sync keeps running meanwhile; it waits on the index builds.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaFinalizationPhase implements MigrationPhase {
+    
+    private final SchemaExecutor schemaExecutor;
+    
+    @Override
+    public void execute(MigrationContext context) throws Exception {
+        log.info("[Job-{}] Creating deferred indexes and foreign keys on target...", context.getJobId());
+        
+        long startedAt = System.currentTimeMillis();
+        schemaExecutor.applyChangelog(context.getRequest(), context.getPostDataChangelogPath());
+        
+        log.info("[Job-{}] Schema finalized in {} ms", context.getJobId(), System.currentTimeMillis() - startedAt);
+    }
+    
+    @Override
+    public String getPhaseName() {
+        return "Schema Finalization";
+    }
+    
+    @Override
+    public boolean shouldSkip(MigrationContext context) {
+        // Nothing deferred: homogeneous MySQL, deferral disabled, or no post-data changes
+        return context.getPostDataChangelogPath() == null;
+    }
+}
@@ -2,12 +2,16 @@ package com.poc.migration.orchestration.phases;
 
 import com.poc.migration.config.MigrationProperties;
 import com.poc.migration.executor.SchemaExecutor;
+import com.poc.migration.executor.schema.SchemaCache;
 import com.poc.migration.orchestration.MigrationContext;
 import com.poc.migration.orchestration.MigrationPhase;
+import com.poc.migration.service.JobDetailsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Paths;
+
 /**
  * Phase for generating schema from source database.
  */
@@ -16,24 +20,39 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class SchemaGenerationPhase implements MigrationPhase {
     
+    private static final String EVENT_TYPE = "SCHEMA_EXTRACTION";
+    
     private final SchemaExecutor schemaExecutor;
     private final MigrationProperties properties;
+    private final JobDetailsService jobDetailsService;
+    private final SchemaCache schemaCache;
     
     @Override
     public void execute(MigrationContext context) throws Exception {
         log.info("[Job-{}] Generating schema from source...", context.getJobId());
         
         // Build paths
-        String generatedPath = properties.getSchema().getOutputDir() + 
-            "job-" + context.getJobId() + "-changelog.xml";
+        String generatedPath = properties.getSchema().generatedChangelogPath(context.getJobId());
         
         context.setGeneratedChangelogPath(generatedPath);
         
         // Generate schema
-        schemaExecutor.generateChangelog(context.getRequest(), generatedPath);
+        long elapsedMs = schemaExecutor.generateChangelog(context.getRequest(), generatedPath);
+        
+        // Kept per job so the extractors can be compared on the same source
+        String message = String.format("%s extractor generated %d tables in %d ms",
+            schemaExecutor.resolveExtractor(context.getRequest()),
+            context.getRequest().getTablesToMigrate().size(), elapsedMs);
+        jobDetailsService.recordEvent(context.getJobId(), EVENT_TYPE, message);
+        
+        // Cache for later jobs on the same source schema
+        if (context.getSchemaFingerprint() != null) {
+            schemaCache.store(SchemaCache.generatedKey(context.getSchemaFingerprint()), Paths.get(generatedPath))
+                .ifPresent(context::setGeneratedChangelogHash);
+        }
         
-        log.info("[Job-{}] Schema generated successfully to {}", 
-                context.getJobId(), generatedPath);
+        log.info("[Job-{}] Schema generated successfully to {} ({})", 
+                context.getJobId(), generatedPath, message);
     }
     
     @Override
@@ -43,8 +62,8 @@ public class SchemaGenerationPhase implements MigrationPhase {
     
     @Override
     public boolean shouldSkip(MigrationContext context) {
-        // Skip for homogeneous MySQL migrations
-        return context.isHomogeneousMySQL();
+        // Skip for homogeneous MySQL migrations, and when restored from the schema cache
+        return context.isHomogeneousMySQL() || context.isGeneratedChangelogCached();
     }
 }
 
@@ -2,12 +2,15 @@ package com.poc.migration.orchestration.phases;
 
 import com.poc.migration.config.MigrationProperties;
 import com.poc.migration.executor.SchemaExecutor;
+import com.poc.migration.executor.schema.SchemaCache;
 import com.poc.migration.orchestration.MigrationContext;
 import com.poc.migration.orchestration.MigrationPhase;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Paths;
+
 /**
  * Phase for normalizing schema for target database.
  */
@@ -18,13 +21,13 @@ public class SchemaNormalizationPhase implements MigrationPhase {
     
     private final SchemaExecutor schemaExecutor;
     private final MigrationProperties properties;
+    private final SchemaCache schemaCache;
     
     @Override
     public void execute(MigrationContext context) throws Exception {
         log.info("[Job-{}] Normalizing schema for target database...", context.getJobId());
         
-        String normalizedPath = properties.getSchema().getOutputDir() + 
-            "job-" + context.getJobId() + "-changelog.normalized.xml";
+        String normalizedPath = properties.getSchema().normalizedChangelogPath(context.getJobId());
         
         context.setNormalizedChangelogPath(normalizedPath);
         
@@ -35,6 +38,13 @@ public class SchemaNormalizationPhase implements MigrationPhase {
             normalizedPath
         );
         
+        // Cache for later jobs with the same generated changelog and mappings
+        if (context.getGeneratedChangelogHash() != null) {
+            schemaCache.store(
+                SchemaCache.normalizedKey(context.getGeneratedChangelogHash(), context.getRequest()),
+                Paths.get(normalizedPath));
+        }
+        
         log.info("[Job-{}] Schema normalization complete. Output: {}", 
                 context.getJobId(), normalizedPath);
     }
@@ -46,8 +56,8 @@ public class SchemaNormalizationPhase implements MigrationPhase {
     
     @Override
     public boolean shouldSkip(MigrationContext context) {
-        // Skip for homogeneous MySQL migrations
-        return context.isHomogeneousMySQL();
+        // Skip for homogeneous MySQL migrations, and when restored from the schema cache
+        return context.isHomogeneousMySQL() || context.isNormalizedChangelogCached();
     }
 }
 
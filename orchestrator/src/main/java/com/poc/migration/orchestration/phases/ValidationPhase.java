@@ -2,6 +2,7 @@ package com.poc.migration.orchestration.phases;
 
 import com.poc.migration.exception.ValidationException;
 import com.poc.migration.executor.ValidationExecutor;
+import com.poc.migration.executor.validation.ValidationOutcome;
 import com.poc.migration.orchestration.MigrationContext;
 import com.poc.migration.orchestration.MigrationPhase;
 import com.poc.migration.service.migration.MigrationJobService;
@@ -31,11 +32,16 @@ public class ValidationPhase implements MigrationPhase {
             migrationJobService.showJobStatus(jobId);
         }
         
-        // Validate row counts
-        boolean isValid = validationExecutor.validateRowCounts(context.getRequest());
+        // Validate with the requested mode (row counts by default)
+        String changelogPath = context.getNormalizedChangelogPath() != null
+            ? context.getNormalizedChangelogPath()
+            : context.getGeneratedChangelogPath();
+        ValidationOutcome outcome = validationExecutor.validate(context.getJobId(), context.getRequest(), changelogPath);
         
-        if (!isValid) {
-            throw new ValidationException("Row counts do not match between source and target");
+        if (!outcome.isValid()) {
+            // Only exact modes locate the differing ranges; anything else is rolled back
+            context.setRepairable(outcome.isRepairable());
+            throw new ValidationException("Data does not match between source and target");
         }
         
         log.info("[Job-{}] All validation checks passed", context.getJobId());
@@ -0,0 +1,93 @@
+package com.poc.migration.service;
+
+import com.poc.migration.model.Job;
+import com.poc.migration.model.JobEvent;
+import com.poc.migration.model.JobEventRepository;
+import com.poc.migration.model.JobRepository;
+import com.poc.migration.model.JobStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Records run details on the Job entity while phases execute.
+ * Kept separate from JobService, which depends on the orchestrator.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobDetailsService {
+
+    private final JobRepository jobRepository;
+    private final JobEventRepository jobEventRepository;
+
+    /**
+     * Record the effective migration rule for a job.
+     */
+    @Transactional
+    public void recordMigrationRule(Long jobId, String migrationRuleJson) {
+        update(jobId, job -> job.setMigrationRuleJson(migrationRuleJson));
+        log.info("[Job-{}] Recorded effective migration rule", jobId);
+    }
+
+    /**
+     * Record the sampling validation estimate for a job.
+     */
+    @Transactional
+    public void recordValidationSample(Long jobId, String validationSampleJson) {
+        update(jobId, job -> job.setValidationSampleJson(validationSampleJson));
+        log.info("[Job-{}] Recorded sampling validation estimate", jobId);
+    }
+
+    /**
+     * Record the key ranges that differed in the last validation of a job.
+     */
+    @Transactional
+    public void recordMismatchedRanges(Long jobId, String mismatchedRangesJson) {
+        update(jobId, job -> job.setMismatchedRangesJson(mismatchedRangesJson));
+    }
+
+    /**
+     * Record the ShardingSphere migration jobs kept running for a job awaiting repair.
+     */
+    @Transactional
+    public void recordMigrationJobIds(Long jobId, List<String> migrationJobIds) {
+        update(jobId, job -> job.setMigrationJobIds(String.join(",", migrationJobIds)));
+        log.info("[Job-{}] Recorded {} migration jobs", jobId, migrationJobIds.size());
+    }
+
+    /**
+     * Update the status of a job outside the lifecycle (e.g. during a repair).
+     */
+    @Transactional
+    public void updateStatus(Long jobId, JobStatus status, String error) {
+        update(jobId, job -> {
+            job.setStatus(status);
+            job.setLastError(error);
+        });
+        log.info("[Job-{}] Status updated to: {}", jobId, status);
+    }
+
+    /**
+     * Append an event to the job's history.
+     */
+    @Transactional
+    public void recordEvent(Long jobId, String type, String message) {
+        jobEventRepository.save(JobEvent.builder()
+                .jobId(jobId)
+                .type(type)
+                .message(message)
+                .build());
+    }
+
+    private void update(Long jobId, Consumer<Job> change) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found: " + jobId));
+        change.accept(job);
+        jobRepository.save(job);
+    }
+}
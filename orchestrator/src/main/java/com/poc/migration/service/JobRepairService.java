@@ -0,0 +1,206 @@
+package com.poc.migration.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.DataMigrationException;
+import com.poc.migration.executor.RepairExecutor;
+import com.poc.migration.executor.ValidationExecutor;
+import com.poc.migration.executor.validation.KeyRange;
+import com.poc.migration.executor.validation.RepairResult;
+import com.poc.migration.infrastructure.database.ConnectionRole;
+import com.poc.migration.infrastructure.database.DataSourceRegistry;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.model.JobRequest;
+import com.poc.migration.model.JobStatus;
+import com.poc.migration.service.migration.MigrationCommitService;
+import com.poc.migration.service.migration.MigrationJobService;
+import com.poc.migration.service.migration.MigrationMonitorService;
+import com.poc.migration.service.migration.MigrationProgressTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the range repair of a job awaiting repair, off the request thread.
+ * The migration jobs are stopped while ranges are re-copied, so incremental sync cannot
+ * interleave with the copy, and started again afterwards. Once they have caught up, the
+ * repaired ranges are checksummed again and the job is validated; if the data matches,
+ * the migration is committed as the lifecycle would have done, otherwise the job goes
+ * back to REPAIRABLE with incremental sync still attached.
+ * Kept separate from JobService so calls go through the async proxy.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobRepairService {
+
+    private static final String EVENT_TYPE = "REPAIR";
+
+    private final RepairExecutor repairExecutor;
+    private final ValidationExecutor validationExecutor;
+    private final MigrationCommitService commitService;
+    private final MigrationJobService migrationJobService;
+    private final MigrationMonitorService monitorService;
+    private final MigrationProgressTracker progressTracker;
+    private final JobDetailsService jobDetailsService;
+    private final DataSourceRegistry dataSourceRegistry;
+    private final MigrationProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Repair, re-validate and commit a job the caller has moved to REPAIRING.
+     */
+    @Async
+    public void runRepair(Long jobId, JobRequest request, Map<String, List<KeyRange>> ranges,
+            List<String> migrationJobIds) {
+        log.info("[Job-{}] Repair started", jobId);
+
+        // Keep source/target pools alive across repair and validation
+        DatabaseConnectionConfig sourceConfig = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig targetConfig = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        DatabaseConnectionConfig[] pooledConfigs = {
+            sourceConfig, targetConfig, sourceConfig.asStreaming(), targetConfig.asStreaming()
+        };
+        dataSourceRegistry.retain(pooledConfigs);
+
+        try {
+            // Incremental sync must not write the ranges while they are re-copied
+            List<RepairResult> results;
+            try {
+                stopMigrationJobs(jobId, migrationJobIds);
+                results = repairExecutor.repair(jobId, request, ranges);
+            } finally {
+                startMigrationJobs(jobId, migrationJobIds);
+                trackMigrationJobs(jobId, migrationJobIds);
+            }
+            jobDetailsService.recordEvent(jobId, EVENT_TYPE, summarize(results));
+
+            List<String> failedTables = results.stream()
+                .filter(result -> result.error() != null)
+                .map(RepairResult::tableName)
+                .toList();
+            if (!failedTables.isEmpty()) {
+                jobDetailsService.updateStatus(jobId, JobStatus.REPAIRABLE, "Repair failed for tables " + failedTables);
+                return;
+            }
+
+            // Changes captured during the repair are applied now; check the ranges once they are
+            jobDetailsService.updateStatus(jobId, JobStatus.VALIDATING, null);
+            Map<String, List<KeyRange>> repaired = new LinkedHashMap<>();
+            results.forEach(result -> repaired.put(result.tableName(), result.ranges()));
+            Map<String, List<KeyRange>> stillMismatched = repaired.isEmpty()
+                ? Map.of()
+                : repairExecutor.verify(jobId, request, repaired);
+            if (!stillMismatched.isEmpty()) {
+                jobDetailsService.recordMismatchedRanges(jobId, objectMapper.writeValueAsString(stillMismatched));
+                jobDetailsService.updateStatus(jobId, JobStatus.REPAIRABLE,
+                    "Repaired ranges still differ after incremental sync caught up: " + stillMismatched.keySet());
+                return;
+            }
+
+            if (!validationExecutor.validate(jobId, request, changelogPath(jobId)).isValid()) {
+                jobDetailsService.updateStatus(jobId, JobStatus.REPAIRABLE,
+                    "Data still does not match between source and target after repair");
+                return;
+            }
+
+            jobDetailsService.updateStatus(jobId, JobStatus.COMMITTING, null);
+            try {
+                commitService.commitMigrations(migrationJobIds);
+            } catch (Exception e) {
+                log.error("[Job-{}] Commit after repair failed: {}", jobId, e.getMessage(), e);
+                rollback(jobId, migrationJobIds);
+                progressTracker.clear(migrationJobIds);
+                jobDetailsService.updateStatus(jobId, JobStatus.COMMIT_FAILED, e.getMessage());
+                return;
+            }
+
+            progressTracker.clear(migrationJobIds);
+            log.info("[Job-{}] Repaired migration committed. Target is now active", jobId);
+            jobDetailsService.updateStatus(jobId, JobStatus.DONE, null);
+
+        } catch (Exception e) {
+            log.error("[Job-{}] Repair failed: {}", jobId, e.getMessage(), e);
+            jobDetailsService.updateStatus(jobId, JobStatus.REPAIRABLE, "Repair failed: " + e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+        } finally {
+            dataSourceRegistry.release(pooledConfigs);
+        }
+    }
+
+    /**
+     * Stop the migration jobs and wait until none of their items is active.
+     */
+    private void stopMigrationJobs(Long jobId, List<String> migrationJobIds) throws InterruptedException {
+        long timeoutMs = properties.getThrottle().getStopTimeoutMs();
+        for (String migrationJobId : migrationJobIds) {
+            migrationJobService.stopJob(migrationJobId);
+            if (!monitorService.awaitStopped(migrationJobId, timeoutMs)) {
+                throw new DataMigrationException("Migration job " + migrationJobId + " still active "
+                    + timeoutMs + " ms after STOP");
+            }
+        }
+        log.info("[Job-{}] Stopped {} migration jobs for the repair", jobId, migrationJobIds.size());
+    }
+
+    /**
+     * Start the migration jobs again; they resume incremental sync from their checkpoint.
+     */
+    private void startMigrationJobs(Long jobId, List<String> migrationJobIds) {
+        for (String migrationJobId : migrationJobIds) {
+            try {
+                migrationJobService.startJob(migrationJobId);
+            } catch (Exception e) {
+                log.error("[Job-{}] Could not start migration job {}: {}", jobId, migrationJobId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Record a fresh status of each migration job, so the drain before the range check can
+     * find the job of a table even when the tracker lost it (e.g. after a restart).
+     */
+    private void trackMigrationJobs(Long jobId, List<String> migrationJobIds) {
+        for (String migrationJobId : migrationJobIds) {
+            try {
+                progressTracker.record(monitorService.getJobProgress(migrationJobId));
+            } catch (Exception e) {
+                log.warn("[Job-{}] Could not read status of migration job {}: {}", jobId, migrationJobId, e.getMessage());
+            }
+        }
+    }
+
+    private void rollback(Long jobId, List<String> migrationJobIds) {
+        try {
+            commitService.rollbackMigrations(migrationJobIds);
+        } catch (Exception e) {
+            log.error("[Job-{}] Rollback failed: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Changelog the lifecycle validated with: normalized if there is one, else generated.
+     */
+    private String changelogPath(Long jobId) {
+        String normalized = properties.getSchema().normalizedChangelogPath(jobId);
+        return Files.exists(Path.of(normalized)) ? normalized : properties.getSchema().generatedChangelogPath(jobId);
+    }
+
+    private static String summarize(List<RepairResult> results) {
+        return String.format("Repaired %d ranges of %d tables (%d rows copied, %d deleted); %d/%d tables match",
+            results.stream().mapToInt(r -> r.ranges().size()).sum(), results.size(),
+            results.stream().mapToLong(RepairResult::rowsCopied).sum(),
+            results.stream().mapToLong(RepairResult::rowsDeleted).sum(),
+            results.stream().filter(RepairResult::isRepaired).count(), results.size());
+    }
+}
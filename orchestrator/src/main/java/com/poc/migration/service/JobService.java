@@ -1,17 +1,28 @@
 package com.poc.migration.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.migration.exception.ValidationException;
+import com.poc.migration.executor.validation.KeyRange;
 import com.poc.migration.model.Job;
+import com.poc.migration.model.JobEvent;
+import com.poc.migration.model.JobEventRepository;
 import com.poc.migration.model.JobRepository;
 import com.poc.migration.model.JobRequest;
 import com.poc.migration.model.JobStatus;
+import com.poc.migration.model.RepairRequest;
 import com.poc.migration.orchestration.MigrationOrchestrator;
+import com.poc.migration.service.migration.MigrationRuleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -24,15 +35,25 @@ import java.util.Optional;
 public class JobService {
 
     private final JobRepository jobRepository;
+    private final JobEventRepository jobEventRepository;
     private final MigrationOrchestrator migrationOrchestrator;
+    private final MigrationRuleService migrationRuleService;
+    private final JobRepairService jobRepairService;
     private final ObjectMapper objectMapper;
 
     public Optional<Job> getJob(Long id) {
         return jobRepository.findById(id);
     }
 
+    public List<JobEvent> getJobEvents(Long id) {
+        return jobEventRepository.findByJobIdOrderByCreatedAtAsc(id);
+    }
+
     @Transactional
     public Job createAndStartJob(JobRequest jobRequest) {
+        // Reject out-of-range rule settings before any work starts
+        migrationRuleService.validate(jobRequest.getMigrationRule());
+        
         try {
             log.info("Creating job: {}", jobRequest.getJobName());
 
@@ -81,6 +102,74 @@ public class JobService {
         }
     }
 
+    /**
+     * Start re-syncing mismatched key ranges of a job that failed validation.
+     * Only REPAIRABLE jobs qualify: their migration jobs were kept instead of rolled back.
+     * Without explicit ranges, the ranges the failed validation located are repaired.
+     * The repair runs asynchronously (see JobRepairService); the job is REPAIRING meanwhile,
+     * which also rejects a second repair of the same job.
+     */
+    public void repairJob(Long jobId, RepairRequest repairRequest) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found: " + jobId));
+        if (job.getStatus() == JobStatus.DONE) {
+            throw new ValidationException("Job " + jobId + " has already been cut over to the target");
+        }
+        if (job.getStatus() == JobStatus.REPAIRING) {
+            throw new ValidationException("Job " + jobId + " is already being repaired");
+        }
+        if (job.getStatus() != JobStatus.REPAIRABLE) {
+            throw new ValidationException("Job " + jobId + " cannot be repaired (" + job.getStatus()
+                + "): only jobs that failed validation keep their migration attached");
+        }
+        
+        JobRequest jobRequest;
+        try {
+            jobRequest = objectMapper.readValue(job.getJobRequestJson(), JobRequest.class);
+        } catch (Exception e) {
+            throw new com.poc.migration.exception.MigrationException(
+                "Failed to read the request of job " + jobId, e
+            );
+        }
+        
+        Map<String, List<KeyRange>> ranges = new LinkedHashMap<>();
+        if (repairRequest != null) {
+            for (RepairRequest.TableRange range : repairRequest.getRanges()) {
+                if (!jobRequest.getTablesToMigrate().contains(range.getTable())) {
+                    throw new ValidationException("Table '" + range.getTable() + "' is not part of job " + jobId);
+                }
+                if (range.getLower() >= range.getUpper()) {
+                    throw new ValidationException("Empty key range for '" + range.getTable() + "': ["
+                        + range.getLower() + ", " + range.getUpper() + ")");
+                }
+                ranges.computeIfAbsent(range.getTable(), table -> new ArrayList<>())
+                    .add(new KeyRange(range.getLower(), range.getUpper()));
+            }
+        } else if (job.getMismatchedRangesJson() != null) {
+            // The ranges the failed validation located
+            try {
+                ranges.putAll(objectMapper.readValue(job.getMismatchedRangesJson(),
+                    new TypeReference<Map<String, List<KeyRange>>>() {}));
+            } catch (Exception e) {
+                throw new com.poc.migration.exception.MigrationException(
+                    "Failed to read the mismatched ranges of job " + jobId, e
+                );
+            }
+        }
+        
+        List<String> migrationJobIds = job.getMigrationJobIds() == null || job.getMigrationJobIds().isBlank()
+            ? List.of()
+            : List.of(job.getMigrationJobIds().split(","));
+        
+        // Only one request can move the job out of REPAIRABLE
+        if (jobRepository.transitionStatus(jobId, JobStatus.REPAIRABLE, JobStatus.REPAIRING) == 0) {
+            throw new ValidationException("Job " + jobId + " is already being repaired");
+        }
+        log.info("[Job-{}] Status updated to: {}", jobId, JobStatus.REPAIRING);
+        
+        jobRepairService.runRepair(jobId, jobRequest, ranges, migrationJobIds);
+    }
+
     /**
      * Helper to update job status transactionally.
      */
@@ -0,0 +1,209 @@
+package com.poc.migration.service.migration;
+
+import com.poc.migration.exception.DataMigrationException;
+import com.poc.migration.exception.DistSQLBatchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes DistSQL against the ShardingSphere Proxy migration database.
+ * Uses pooled proxy sessions, records per-statement latency in the
+ * {@code migration.distsql.latency} timer, and can send many statements
+ * over a single session as a JDBC batch, timed as a whole.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DistSQLExecutor {
+    
+    private static final String LATENCY_METRIC = "migration.distsql.latency";
+    private static final String BATCH_LATENCY_METRIC = "migration.distsql.batch.latency";
+    
+    private final ShardingSphereConnectionService connectionService;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * Execute a single DistSQL command.
+     */
+    public void execute(String sql) {
+        String preview = preview(sql);
+        log.debug("Executing DistSQL: {}", preview);
+        
+        long start = System.nanoTime();
+        try (Connection conn = connectionService.getMigrationConnection();
+            Statement stmt = conn.createStatement()) {
+            
+            stmt.execute(sql);
+            log.debug("✓ DistSQL executed successfully");
+            
+        } catch (Exception e) {
+            log.error("Failed to execute DistSQL: {}", preview);
+            throw new DataMigrationException("DistSQL execution failed: " + e.getMessage(), e);
+        } finally {
+            recordLatency(sql, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Execute many DistSQL commands over one proxy session.
+     * Statements are sent as a JDBC batch so the driver can pipeline them;
+     * if the protocol does not support batching they run one by one on the same session.
+     * A batch is timed as a whole in {@code migration.distsql.batch.latency}.
+     * On failure, the {@link DistSQLBatchException} names the statements that did run.
+     */
+    public void executeBatch(List<String> statements) {
+        if (statements.isEmpty()) {
+            return;
+        }
+        
+        log.debug("Executing DistSQL batch of {} statements", statements.size());
+        
+        List<Integer> executed = new ArrayList<>();
+        try (Connection conn = connectionService.getMigrationConnection();
+            Statement stmt = conn.createStatement()) {
+            
+            long start = System.nanoTime();
+            try {
+                for (String sql : statements) {
+                    stmt.addBatch(sql);
+                }
+                stmt.executeBatch();
+                recordBatchLatency(statements.get(0), System.nanoTime() - start);
+                
+            } catch (SQLFeatureNotSupportedException e) {
+                log.debug("Batching not supported by proxy protocol, executing sequentially");
+                for (int i = 0; i < statements.size(); i++) {
+                    String sql = statements.get(i);
+                    long statementStart = System.nanoTime();
+                    try {
+                        stmt.execute(sql);
+                        executed.add(i);
+                    } finally {
+                        recordLatency(sql, System.nanoTime() - statementStart);
+                    }
+                }
+            }
+            
+            log.debug("✓ DistSQL batch executed successfully");
+            
+        } catch (BatchUpdateException e) {
+            List<Integer> succeeded = succeededStatements(e.getUpdateCounts(), statements.size());
+            log.error("DistSQL batch failed after {}/{} statements: {}",
+                    succeeded.size(), statements.size(), preview(statements.get(0)));
+            throw new DistSQLBatchException("DistSQL batch execution failed: " + e.getMessage(), succeeded, e);
+        } catch (Exception e) {
+            log.error("Failed to execute DistSQL batch: {}", preview(statements.get(0)));
+            throw new DistSQLBatchException("DistSQL batch execution failed: " + e.getMessage(), executed, e);
+        }
+    }
+    
+    /**
+     * Positions of the statements that succeeded, from a failed batch's update counts.
+     * Drivers either stop at the first failure (fewer counts than statements)
+     * or continue and mark failed statements with {@link Statement#EXECUTE_FAILED}.
+     */
+    static List<Integer> succeededStatements(int[] updateCounts, int statements) {
+        List<Integer> succeeded = new ArrayList<>();
+        if (updateCounts == null) {
+            return succeeded;
+        }
+        for (int i = 0; i < Math.min(updateCounts.length, statements); i++) {
+            if (updateCounts[i] != Statement.EXECUTE_FAILED) {
+                succeeded.add(i);
+            }
+        }
+        return succeeded;
+    }
+    
+    /**
+     * Execute a DistSQL query and map its result set.
+     */
+    public <T> T query(String sql, ResultSetHandler<T> handler) {
+        String preview = preview(sql);
+        log.debug("Querying DistSQL: {}", preview);
+        
+        long start = System.nanoTime();
+        try (Connection conn = connectionService.getMigrationConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery(sql)) {
+            
+            return handler.handle(rs);
+            
+        } catch (DataMigrationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataMigrationException("DistSQL query failed: " + e.getMessage(), e);
+        } finally {
+            recordLatency(sql, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Record latency for a statement, tagged by its leading keywords.
+     */
+    private void recordLatency(String sql, long nanos) {
+        Timer.builder(LATENCY_METRIC)
+            .description("DistSQL statement latency against ShardingSphere Proxy")
+            .tag("statement", statementType(sql))
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Record the latency of a whole batch, tagged by the leading keywords of its first statement.
+     */
+    private void recordBatchLatency(String sql, long nanos) {
+        Timer.builder(BATCH_LATENCY_METRIC)
+            .description("DistSQL batch latency against ShardingSphere Proxy (whole batch)")
+            .tag("statement", statementType(sql))
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Derive a low-cardinality statement label, e.g. "SHOW MIGRATION STATUS".
+     */
+    static String statementType(String sql) {
+        StringBuilder type = new StringBuilder();
+        int words = 0;
+        
+        for (String token : sql.trim().split("\\s+")) {
+            if (words == 3 || !token.matches("[A-Za-z_]+")) {
+                break;
+            }
+            if (words > 0) {
+                type.append(' ');
+            }
+            type.append(token.toUpperCase(Locale.ROOT));
+            words++;
+        }
+        
+        return words == 0 ? "UNKNOWN" : type.toString();
+    }
+    
+    private static String preview(String sql) {
+        return sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
+    }
+    
+    /**
+     * Callback for reading a DistSQL result set.
+     */
+    @FunctionalInterface
+    public interface ResultSetHandler<T> {
+        T handle(ResultSet rs) throws SQLException;
+    }
+}
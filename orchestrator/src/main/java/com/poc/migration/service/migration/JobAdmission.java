@@ -0,0 +1,35 @@
+package com.poc.migration.service.migration;
+
+import java.util.List;
+
+/**
+ * Admits further migration jobs while others are being monitored.
+ */
+public interface JobAdmission {
+    
+    /**
+     * Admission that never adds jobs.
+     */
+    JobAdmission NONE = new JobAdmission() {
+        @Override
+        public boolean hasPending() {
+            return false;
+        }
+        
+        @Override
+        public List<String> admit(int jobsInInventory) {
+            return List.of();
+        }
+    };
+    
+    /**
+     * Whether tables are still waiting to be admitted.
+     */
+    boolean hasPending();
+    
+    /**
+     * Create jobs for as many waiting tables as free slots allow.
+     * Returns the IDs of the newly created jobs.
+     */
+    List<String> admit(int jobsInInventory);
+}
@@ -5,8 +5,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.sql.Connection;
-import java.sql.Statement;
 import java.util.List;
 
 /**
@@ -17,7 +15,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MigrationCommitService {
     
-    private final ShardingSphereConnectionService connectionService;
+    private final DistSQLExecutor distSQLExecutor;
     
     /**
      * Commit (finalize) migration jobs, switching over to target.
@@ -44,7 +42,7 @@ public class MigrationCommitService {
             
             // Commit the migration
             String commitSQL = String.format("COMMIT MIGRATION '%s'", jobId);
-            executeDistSQL(commitSQL);
+            distSQLExecutor.execute(commitSQL);
             
             log.info("✓ Migration committed successfully: {}", jobId);
             
@@ -59,7 +57,7 @@ public class MigrationCommitService {
     private void runConsistencyCheck(String jobId) {
         try {
             String checkSQL = String.format("CHECK MIGRATION '%s'", jobId);
-            executeDistSQL(checkSQL);
+            distSQLExecutor.execute(checkSQL);
             log.info("✓ Consistency check passed for job: {}", jobId);
             
         } catch (Exception e) {
@@ -85,7 +83,7 @@ public class MigrationCommitService {
     public void rollbackMigration(String jobId) {
         try {
             String rollbackSQL = String.format("ROLLBACK MIGRATION '%s'", jobId);
-            executeDistSQL(rollbackSQL);
+            distSQLExecutor.execute(rollbackSQL);
             log.info("✓ Migration rolled back: {}", jobId);
             
         } catch (Exception e) {
@@ -93,25 +91,4 @@ public class MigrationCommitService {
             // Don't rethrow - best effort rollback
         }
     }
-    
-    /**
-     * Execute a DistSQL command.
-     */
-    private void executeDistSQL(String sql) {
-        String preview = sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
-        log.debug("Executing DistSQL: {}", preview);
-        
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement()) {
-            
-            stmt.execute(sql);
-            log.debug("✓ DistSQL executed successfully");
-            
-        } catch (Exception e) {
-            log.error("Failed to execute DistSQL: {}", preview);
-            throw new DataMigrationException("DistSQL execution failed: " + e.getMessage(), e);
-        }
-    }
 }
-
-
@@ -0,0 +1,136 @@
+package com.poc.migration.service.migration;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Point-in-time progress of a ShardingSphere migration job.
+ * Built from all rows (one per sharding item) of SHOW MIGRATION STATUS.
+ */
+@Getter
+public class MigrationJobProgress {
+    
+    private final String jobId;
+    private final Instant sampledAt;
+    private final List<ItemProgress> items;
+    
+    public MigrationJobProgress(String jobId, Instant sampledAt, List<ItemProgress> items) {
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Job progress needs at least one sharding item: " + jobId);
+        }
+        this.jobId = jobId;
+        this.sampledAt = sampledAt;
+        this.items = List.copyOf(items);
+    }
+    
+    /**
+     * Tables covered by this job.
+     */
+    public String getTables() {
+        return items.stream()
+            .map(ItemProgress::tables)
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.joining(","));
+    }
+    
+    /**
+     * First item status that is not ready, or the common ready status.
+     */
+    public String getStatus() {
+        return items.stream()
+            .map(ItemProgress::status)
+            .filter(status -> !isReadyStatus(status))
+            .findFirst()
+            .orElse(items.get(0).status());
+    }
+    
+    /**
+     * Inventory percentage of the slowest sharding item.
+     */
+    public int getInventoryPercentage() {
+        return items.stream().mapToInt(ItemProgress::inventoryPercentage).min().orElse(0);
+    }
+    
+    /**
+     * Records processed across all sharding items.
+     */
+    public long getProcessedRecords() {
+        return items.stream().mapToLong(ItemProgress::processedRecords).sum();
+    }
+    
+    /**
+     * Largest incremental idle time across items, or -1 before incremental sync starts.
+     */
+    public long getIncrementalIdleSeconds() {
+        if (!isReady()) {
+            return -1;
+        }
+        return items.stream().mapToLong(ItemProgress::incrementalIdleSeconds).max().orElse(-1);
+    }
+    
+    /**
+     * Smallest incremental idle time across items: seconds since any item last
+     * applied an event. -1 before incremental sync starts.
+     */
+    public long getMinIncrementalIdleSeconds() {
+        if (!isReady()) {
+            return -1;
+        }
+        return items.stream().mapToLong(ItemProgress::incrementalIdleSeconds).min().orElse(-1);
+    }
+    
+    /**
+     * First reported error message, if any.
+     */
+    public String getErrorMessage() {
+        return items.stream()
+            .map(ItemProgress::errorMessage)
+            .filter(message -> message != null && !message.isBlank())
+            .findFirst()
+            .orElse(null);
+    }
+    
+    /**
+     * All items have reached incremental sync (or finished).
+     */
+    public boolean isReady() {
+        return items.stream().allMatch(item -> isReadyStatus(item.status()));
+    }
+    
+    /**
+     * Any sharding item is still running; false once STOP MIGRATION has taken effect.
+     */
+    public boolean isActive() {
+        return items.stream().anyMatch(ItemProgress::active);
+    }
+    
+    public boolean isError() {
+        return items.stream()
+            .map(ItemProgress::status)
+            .anyMatch(status -> status != null && (status.contains("ERROR") || status.contains("FAILED")));
+    }
+    
+    private static boolean isReadyStatus(String status) {
+        return "EXECUTE_INCREMENTAL_TASK".equals(status) || "FINISHED".equals(status);
+    }
+    
+    /**
+     * Progress of a single sharding item.
+     */
+    public record ItemProgress(
+            int item,
+            String dataSource,
+            String tables,
+            String status,
+            boolean active,
+            long processedRecords,
+            int inventoryPercentage,
+            long incrementalIdleSeconds,
+            String errorMessage
+    ) {}
+}
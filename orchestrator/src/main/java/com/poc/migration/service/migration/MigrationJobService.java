@@ -1,16 +1,20 @@
 package com.poc.migration.service.migration;
 
 import com.poc.migration.exception.DataMigrationException;
+import com.poc.migration.exception.DistSQLBatchException;
 import com.poc.migration.model.JobRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for creating and managing migration jobs in ShardingSphere.
@@ -20,15 +24,24 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MigrationJobService {
     
-    private final ShardingSphereConnectionService connectionService;
+    private static final long JOB_REGISTRATION_TIMEOUT_MS = 10000;
+    private static final long JOB_REGISTRATION_POLL_MS = 500;
+    
+    private final DistSQLExecutor distSQLExecutor;
     
     /**
      * Create migration jobs for each table.
      * Returns list of actual job IDs from ShardingSphere.
      */
     public List<String> createMigrationJobs(JobRequest request) {
-        List<String> tables = request.getTablesToMigrate();
-        
+        return createMigrationJobs(request, request.getTablesToMigrate());
+    }
+    
+    /**
+     * Create migration jobs for the given tables.
+     * Returns the IDs of the jobs registered by this call.
+     */
+    public List<String> createMigrationJobs(JobRequest request, List<String> tables) {
         // Get storage unit names
         String sourceUnitName = request.getSource().getStorageUnitNameOrDefault("source_ds");
         String targetUnitName = request.getTarget().getStorageUnitNameOrDefault("target_ds");
@@ -37,31 +50,156 @@ public class MigrationJobService {
                 tables.size(), sourceUnitName, targetUnitName);
         
         try {
-            // Create migration job for each table
+            Set<String> existingJobIds = listJobTables().keySet();
+            
+            // Create migration job for each table in a single proxy session
+            List<String> migrateStatements = new ArrayList<>();
             for (String tableName : tables) {
-                createMigrationJob(sourceUnitName, targetUnitName, tableName);
+                migrateStatements.add(buildMigrateStatement(sourceUnitName, targetUnitName, tableName));
+            }
+            try {
+                distSQLExecutor.executeBatch(migrateStatements);
+            } catch (DistSQLBatchException e) {
+                rollbackCreatedJobs(existingJobIds, sourceUnitName, e.getExecutedStatements().stream()
+                    .map(tables::get)
+                    .toList());
+                throw e;
             }
             
             log.info("✓ Created {} migration jobs", tables.size());
             
-            // Wait for jobs to register
-            Thread.sleep(2000);
+            // Wait for the new jobs to register
+            Map<String, String> jobIdByTable = awaitNewJobIds(existingJobIds, sourceUnitName, tables);
+            List<String> missing = tables.stream()
+                .filter(table -> !jobIdByTable.containsKey(table))
+                .toList();
+            if (!missing.isEmpty()) {
+                // A partial list would leave those tables unmigrated and unvalidated
+                rollbackJobs(jobIdByTable.values());
+                throw new DataMigrationException(String.format(
+                    "No migration job registered within %dms for tables %s",
+                    JOB_REGISTRATION_TIMEOUT_MS, missing));
+            }
             
-            // Return actual job IDs from ShardingSphere
-            return getActualJobIds();
+            List<String> newJobIds = new ArrayList<>(jobIdByTable.values());
+            log.info("✓ Registered job IDs: {}", newJobIds);
+            return newJobIds;
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new DataMigrationException("Migration job creation interrupted", e);
+        } catch (DataMigrationException e) {
+            throw e;
         } catch (Exception e) {
             throw new DataMigrationException("Failed to create migration jobs", e);
         }
     }
     
     /**
-     * Create a migration job for a single table.
+     * Roll back the jobs a failed batch did create, so a retry starts clean.
+     */
+    private void rollbackCreatedJobs(Set<String> existingJobIds, String sourceUnitName, List<String> createdTables)
+            throws InterruptedException {
+        if (createdTables.isEmpty()) {
+            return;
+        }
+        log.error("Migration job batch failed after creating jobs for {}; rolling them back", createdTables);
+        
+        Map<String, String> jobIdByTable = awaitNewJobIds(existingJobIds, sourceUnitName, createdTables);
+        if (jobIdByTable.size() < createdTables.size()) {
+            log.warn("Only {}/{} created migration jobs registered; the others must be rolled back manually",
+                    jobIdByTable.size(), createdTables.size());
+        }
+        rollbackJobs(jobIdByTable.values());
+    }
+    
+    /**
+     * Roll back the given jobs, logging the ones that fail.
+     */
+    private void rollbackJobs(Collection<String> jobIds) {
+        for (String jobId : jobIds) {
+            try {
+                distSQLExecutor.execute(String.format("ROLLBACK MIGRATION '%s'", jobId));
+                log.info("✓ Rolled back migration job: {}", jobId);
+            } catch (Exception e) {
+                log.error("Failed to roll back migration job {}: {}", jobId, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Poll SHOW MIGRATION LIST until a new job appears for each table, matched on the
+     * job's tables column. Jobs created concurrently for other tables are ignored.
+     * Returns the job ID by table, in table order; tables that never registered before
+     * the timeout are left out for the caller to report.
+     */
+    private Map<String, String> awaitNewJobIds(Set<String> existingJobIds, String sourceUnitName, List<String> tables)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + JOB_REGISTRATION_TIMEOUT_MS;
+        
+        while (true) {
+            Map<String, String> jobIdByTable = new HashMap<>();
+            listJobTables().forEach((jobId, jobTables) -> {
+                if (!existingJobIds.contains(jobId)) {
+                    for (String table : jobTables.split(",")) {
+                        String name = unqualifiedTable(table, sourceUnitName);
+                        if (name != null) {
+                            jobIdByTable.putIfAbsent(name, jobId);
+                        }
+                    }
+                }
+            });
+            
+            Map<String, String> newJobIds = new LinkedHashMap<>();
+            for (String table : tables) {
+                String jobId = jobIdByTable.get(table.toLowerCase(Locale.ROOT));
+                if (jobId != null) {
+                    newJobIds.put(table, jobId);
+                }
+            }
+            
+            if (newJobIds.size() == tables.size() || System.currentTimeMillis() >= deadline) {
+                return newJobIds;
+            }
+            
+            Thread.sleep(JOB_REGISTRATION_POLL_MS);
+        }
+    }
+    
+    /**
+     * Lower-case table name of a tables-column entry, or null if the entry is qualified
+     * with a storage unit other than the source (a job of another migration).
      */
-    private void createMigrationJob(String sourceUnitName, String targetUnitName, String tableName) {
+    private static String unqualifiedTable(String entry, String sourceUnitName) {
+        String table = entry.trim();
+        int dot = table.indexOf('.');
+        if (dot >= 0) {
+            if (!table.substring(0, dot).equalsIgnoreCase(sourceUnitName)) {
+                return null;
+            }
+            table = table.substring(dot + 1);
+        }
+        return table.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Tables column of every migration job currently known to ShardingSphere, by job ID.
+     */
+    private Map<String, String> listJobTables() {
+        return distSQLExecutor.query("SHOW MIGRATION LIST", rs -> {
+            Map<String, String> jobTables = new HashMap<>();
+            while (rs.next()) {
+                String tables = rs.getString("tables");
+                jobTables.put(rs.getString("id"), tables != null ? tables : "");
+            }
+            return jobTables;
+        });
+    }
+    
+    /**
+     * Build the migration command for a single table.
+     */
+    private String buildMigrateStatement(String sourceUnitName, String targetUnitName, String tableName) {
         String migrateSQL = String.format(
             "MIGRATE TABLE %s.%s INTO %s",
             sourceUnitName, tableName, tableName
@@ -70,32 +208,27 @@ public class MigrationJobService {
         log.info("Creating migration for table: {} (from {} to {})", tableName, sourceUnitName, targetUnitName);
         log.debug("Migration command: {}", migrateSQL);
         
-        executeDistSQL(migrateSQL);
+        return migrateSQL;
     }
     
     /**
      * Retrieve actual job IDs from ShardingSphere after job creation.
      */
     public List<String> getActualJobIds() {
-        List<String> actualJobIds = new ArrayList<>();
-        
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SHOW MIGRATION LIST")) {
+        List<String> actualJobIds = distSQLExecutor.query("SHOW MIGRATION LIST", rs -> {
+            List<String> ids = new ArrayList<>();
             
             while (rs.next()) {
                 String jobId = rs.getString("id");
-                actualJobIds.add(jobId);
+                ids.add(jobId);
                 
                 String tables = rs.getString("tables");
                 String active = rs.getString("active");
                 log.info("  Registered job ID: {} for tables: {} (active: {})", 
                         jobId, tables, active);
             }
-            
-        } catch (Exception e) {
-            throw new DataMigrationException("Failed to retrieve job IDs", e);
-        }
+            return ids;
+        });
         
         log.info("✓ Retrieved {} actual job IDs from ShardingSphere", actualJobIds.size());
         return actualJobIds;
@@ -105,27 +238,23 @@ public class MigrationJobService {
      * Check if migration jobs are running.
      */
     public void verifyJobsStarted() {
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SHOW MIGRATION LIST")) {
-            
-            log.info("Checking migration job status...");
-            boolean hasJobs = false;
+        log.info("Checking migration job status...");
+        
+        boolean hasJobs = distSQLExecutor.query("SHOW MIGRATION LIST", rs -> {
+            boolean found = false;
             
             while (rs.next()) {
-                hasJobs = true;
+                found = true;
                 String id = rs.getString("id");
                 String tables = rs.getString("tables");
                 String active = rs.getString("active");
                 log.info("  Job ID: {}, Tables: {}, Active: {}", id, tables, active);
             }
-            
-            if (!hasJobs) {
-                log.warn("No migration jobs found! Jobs may not have been created successfully.");
-            }
-            
-        } catch (Exception e) {
-            throw new DataMigrationException("Failed to verify job status", e);
+            return found;
+        });
+        
+        if (!hasJobs) {
+            log.warn("No migration jobs found! Jobs may not have been created successfully.");
         }
     }
     
@@ -135,24 +264,24 @@ public class MigrationJobService {
     public void showJobStatus(String jobId) {
         String statusSQL = String.format("SHOW MIGRATION STATUS '%s'", jobId);
         
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(statusSQL)) {
-            
-            log.info("Migration status for job {}:", jobId);
-            
-            while (rs.next()) {
-                int columnCount = rs.getMetaData().getColumnCount();
-                StringBuilder sb = new StringBuilder();
+        try {
+            distSQLExecutor.query(statusSQL, rs -> {
+                log.info("Migration status for job {}:", jobId);
                 
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = rs.getMetaData().getColumnName(i);
-                    String value = rs.getString(i);
-                    sb.append(columnName).append("=").append(value).append(", ");
+                while (rs.next()) {
+                    int columnCount = rs.getMetaData().getColumnCount();
+                    StringBuilder sb = new StringBuilder();
+                    
+                    for (int i = 1; i <= columnCount; i++) {
+                        String columnName = rs.getMetaData().getColumnName(i);
+                        String value = rs.getString(i);
+                        sb.append(columnName).append("=").append(value).append(", ");
+                    }
+                    
+                    log.info("  {}", sb.toString());
                 }
-                
-                log.info("  {}", sb.toString());
-            }
+                return null;
+            });
             
         } catch (Exception e) {
             log.warn("Could not retrieve detailed status for job {}: {}", jobId, e.getMessage());
@@ -164,27 +293,16 @@ public class MigrationJobService {
      */
     public void stopJob(String jobId) {
         String stopSQL = String.format("STOP MIGRATION '%s'", jobId);
-        executeDistSQL(stopSQL);
+        distSQLExecutor.execute(stopSQL);
         log.info("✓ Stopped migration job: {}", jobId);
     }
     
     /**
-     * Execute a DistSQL command.
+     * Start a stopped migration job. It resumes from its last checkpoint.
      */
-    private void executeDistSQL(String sql) {
-        String preview = sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
-        log.debug("Executing DistSQL: {}", preview);
-        
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement()) {
-            
-            stmt.execute(sql);
-            log.debug("✓ DistSQL executed successfully");
-            
-        } catch (Exception e) {
-            log.error("Failed to execute DistSQL: {}", preview);
-            throw new DataMigrationException("DistSQL execution failed: " + e.getMessage(), e);
-        }
+    public void startJob(String jobId) {
+        String startSQL = String.format("START MIGRATION '%s'", jobId);
+        distSQLExecutor.execute(startSQL);
+        log.info("✓ Started migration job: {}", jobId);
     }
 }
-
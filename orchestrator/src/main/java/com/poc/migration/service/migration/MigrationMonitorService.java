@@ -6,20 +6,34 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.sql.Connection;
 import java.sql.ResultSet;
-import java.sql.Statement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service for monitoring migration job progress.
+ * Statuses for all jobs are fetched concurrently over pooled proxy sessions,
+ * and the poll interval adapts to how close the jobs are to incremental sync.
+ * Every sample is handed to {@link MigrationProgressTracker} for throughput/ETA metrics.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class MigrationMonitorService {
     
-    private final ShardingSphereConnectionService connectionService;
+    private static final long STOP_POLL_MS = 500;
+    
+    private final DistSQLExecutor distSQLExecutor;
+    private final MigrationProgressTracker progressTracker;
     private final MigrationProperties properties;
     
     /**
@@ -27,114 +41,275 @@ public class MigrationMonitorService {
      * Returns when all jobs reach incremental sync phase.
      */
     public void monitorJobsUntilReady(List<String> jobIds) {
+        monitorJobsUntilReady(jobIds, JobAdmission.NONE);
+    }
+    
+    /**
+     * Monitor migration jobs, admitting waiting tables as running jobs leave inventory.
+     * Admitted job IDs are appended to {@code jobIds}; returns when every job,
+     * including admitted ones, has reached incremental sync.
+     * The time budget restarts whenever new jobs are admitted.
+     */
+    public void monitorJobsUntilReady(List<String> jobIds, JobAdmission admission) {
         log.info("Monitoring {} migration jobs...", jobIds.size());
         
-        boolean allReady = false;
+        MigrationProperties.MonitoringConfig monitoring = properties.getMonitoring();
+        long timeBudgetMs = monitoring.getMaxChecks() * monitoring.getCheckIntervalMs();
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + timeBudgetMs;
+        
+        long interval = monitoring.getCheckIntervalMs();
+        long nextPollAt = startedAt + interval;
         int checkCount = 0;
-        int maxChecks = properties.getMonitoring().getMaxChecks();
-        long checkInterval = properties.getMonitoring().getCheckIntervalMs();
         
-        while (!allReady && checkCount < maxChecks) {
-            checkCount++;
+        while (nextPollAt <= deadline) {
+            sleepUntil(nextPollAt);
             
-            try {
-                Thread.sleep(checkInterval);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new DataMigrationException("Migration monitoring interrupted", e);
-            }
+            checkCount++;
+            long pollStartedAt = System.currentTimeMillis();
+            log.info("Migration status check #{} (interval: {}ms)", checkCount, interval);
             
-            log.info("Migration status check #{}/{}", checkCount, maxChecks);
+            Map<String, MigrationJobProgress> statuses = fetchStatuses(jobIds);
             
             int readyCount = 0;
-            int totalJobs = 0;
+            boolean nearReady = false;
             
-            for (String jobId : jobIds) {
-                try {
-                    JobStatus status = getJobStatus(jobId);
-                    
-                    if (status.isReady()) {
-                        readyCount++;
-                    }
-                    
-                    if (status.isError()) {
-                        throw new DataMigrationException(
-                            "Migration job " + jobId + " failed with status: " + status.getStatus()
-                        );
-                    }
-                    
-                    totalJobs++;
-                    
-                } catch (DataMigrationException e) {
-                    throw e; // Rethrow migration exceptions
-                } catch (Exception e) {
-                    log.warn("Could not check status for job {}: {}", jobId, e.getMessage());
+            for (MigrationJobProgress status : statuses.values()) {
+                progressTracker.record(status);
+                logProgress(status);
+                
+                if (status.isError()) {
+                    throw new DataMigrationException(
+                        "Migration job " + status.getJobId() + " failed with status: " + status.getStatus() +
+                        (status.getErrorMessage() != null ? " (" + status.getErrorMessage() + ")" : "")
+                    );
+                }
+                
+                if (status.isReady()) {
+                    readyCount++;
+                    nearReady = true;
+                } else if (status.getInventoryPercentage() >= monitoring.getNearReadyPercentage()) {
+                    nearReady = true;
                 }
             }
             
-            allReady = (readyCount == totalJobs && totalJobs > 0);
+            // Jobs whose status could not be read count as still in inventory
+            if (admission.hasPending()) {
+                List<String> admitted = admission.admit(jobIds.size() - readyCount);
+                if (!admitted.isEmpty()) {
+                    jobIds.addAll(admitted);
+                    deadline = Math.max(deadline, System.currentTimeMillis() + timeBudgetMs);
+                    log.info("Admitted {} migration jobs: {}", admitted.size(), admitted);
+                }
+            }
             
-            if (allReady) {
-                log.info("✓ All {} migration jobs are ready for cutover ({}/{})", 
-                        totalJobs, readyCount, totalJobs);
+            if (readyCount == jobIds.size() && !jobIds.isEmpty() && !admission.hasPending()) {
+                log.info("✓ All {} migration jobs are ready for cutover ({}/{})",
+                        jobIds.size(), readyCount, jobIds.size());
                 return;
-            } else {
-                log.debug("Progress: {}/{} jobs ready for cutover", readyCount, totalJobs);
             }
+            
+            double etaSeconds = progressTracker.getOverallEtaSeconds(jobIds);
+            log.info("Progress: {}/{} jobs ready for cutover (overall ETA: {})", 
+                    readyCount, jobIds.size(), formatEta(etaSeconds));
+            
+            interval = nextInterval(interval, nearReady);
+            // Schedule from the start of this poll so slow proxy responses don't drift the loop
+            nextPollAt = pollStartedAt + interval;
         }
         
-        if (!allReady) {
-            throw new DataMigrationException(
-                "Migration monitoring timed out after " + checkCount + 
-                " checks (" + (checkCount * checkInterval / 1000) + " seconds). " +
-                "Jobs may still be running - check ShardingSphere Proxy logs."
-            );
-        }
+        throw new DataMigrationException(
+            "Migration monitoring timed out after " + checkCount +
+            " checks (" + (timeBudgetMs / 1000) + " seconds). " +
+            "Jobs may still be running - check ShardingSphere Proxy logs."
+        );
     }
     
     /**
-     * Get status of a specific job.
+     * Fetch statuses for all jobs concurrently, bounded by statusFetchConcurrency.
+     * Jobs whose status cannot be read are left out of the result.
      */
-    private JobStatus getJobStatus(String jobId) {
-        String statusSQL = String.format("SHOW MIGRATION STATUS '%s'", jobId);
+    private Map<String, MigrationJobProgress> fetchStatuses(List<String> jobIds) {
+        Semaphore permits = new Semaphore(Math.max(1, properties.getMonitoring().getStatusFetchConcurrency()));
+        Map<String, Future<MigrationJobProgress>> futures = new LinkedHashMap<>();
+        Map<String, MigrationJobProgress> statuses = new LinkedHashMap<>();
         
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(statusSQL)) {
-            
-            if (rs.next()) {
-                String status = rs.getString("status");
-                return new JobStatus(jobId, status);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String jobId : jobIds) {
+                futures.put(jobId, executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return getJobProgress(jobId);
+                    } finally {
+                        permits.release();
+                    }
+                }));
             }
             
-            throw new DataMigrationException("No status found for job: " + jobId);
+            for (Map.Entry<String, Future<MigrationJobProgress>> entry : futures.entrySet()) {
+                try {
+                    statuses.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    log.warn("Could not check status for job {}: {}", entry.getKey(), e.getCause().getMessage());
+                }
+            }
             
-        } catch (Exception e) {
-            throw new DataMigrationException("Failed to get status for job: " + jobId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataMigrationException("Migration monitoring interrupted", e);
+        }
+        
+        return statuses;
+    }
+    
+    /**
+     * Poll fast while any job is close to incremental sync, back off otherwise.
+     */
+    private long nextInterval(long currentInterval, boolean nearReady) {
+        MigrationProperties.MonitoringConfig monitoring = properties.getMonitoring();
+        
+        if (nearReady) {
+            return monitoring.getMinCheckIntervalMs();
+        }
+        
+        long backedOff = (long) (currentInterval * monitoring.getBackoffMultiplier());
+        return Math.max(monitoring.getMinCheckIntervalMs(),
+                Math.min(backedOff, monitoring.getMaxCheckIntervalMs()));
+    }
+    
+    private void sleepUntil(long wakeUpAt) {
+        long sleepMs = wakeUpAt - System.currentTimeMillis();
+        if (sleepMs <= 0) {
+            return;
+        }
+        
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataMigrationException("Migration monitoring interrupted", e);
         }
     }
     
     /**
-     * Inner class to hold job status information.
+     * Log throughput and ETA for a job, flagging jobs that look stuck.
      */
-    private static class JobStatus {
-        private final String status;
+    private void logProgress(MigrationJobProgress progress) {
+        String jobId = progress.getJobId();
         
-        JobStatus(String jobId, String status) {
-            this.status = status;
+        if (progressTracker.isStalled(jobId)) {
+            log.warn("  Job {} ({}) appears stalled: {} at {}% with no rows processed recently", 
+                    jobId, progress.getTables(), progress.getStatus(), progress.getInventoryPercentage());
+            return;
         }
         
-        String getStatus() {
-            return status;
+        log.info("  Job {} ({}): {} - inventory {}%, {} rows/s, ETA {}, incremental idle {}s", 
+                jobId, progress.getTables(), progress.getStatus(), progress.getInventoryPercentage(),
+                String.format("%.1f", progressTracker.getRowsPerSecond(jobId)),
+                formatEta(progressTracker.getEtaSeconds(jobId)),
+                progressTracker.getIncrementalIdleSeconds(jobId));
+    }
+    
+    private static String formatEta(double etaSeconds) {
+        return Double.isNaN(etaSeconds) ? "unknown" : Math.round(etaSeconds) + "s";
+    }
+    
+    /**
+     * Seconds since the incremental task of the job covering {@code table} last applied
+     * an event, read fresh from the proxy. -1 when unknown (no tracked job, not yet
+     * in incremental sync, or the status cannot be read).
+     */
+    public long getIncrementalIdleSeconds(String table) {
+        String jobId = progressTracker.findJobIdForTable(table);
+        if (jobId == null) {
+            return -1;
         }
         
-        boolean isReady() {
-            return "EXECUTE_INCREMENTAL_TASK".equals(status) || "FINISHED".equals(status);
+        try {
+            return getJobProgress(jobId).getMinIncrementalIdleSeconds();
+        } catch (DataMigrationException e) {
+            log.warn("Could not read incremental idle time for table {}: {}", table, e.getMessage());
+            return -1;
         }
+    }
+    
+    /**
+     * Poll SHOW MIGRATION STATUS until no sharding item of the job is active.
+     * Returns false if it is still active after {@code timeoutMs}.
+     */
+    public boolean awaitStopped(String jobId, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            if (!getJobProgress(jobId).isActive()) {
+                return true;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(STOP_POLL_MS);
+        }
+    }
+    
+    /**
+     * Get progress of a specific job from all of its sharding item rows.
+     */
+    public MigrationJobProgress getJobProgress(String jobId) {
+        String statusSQL = String.format("SHOW MIGRATION STATUS '%s'", jobId);
         
-        boolean isError() {
-            return status != null && (status.contains("ERROR") || status.contains("FAILED"));
+        try {
+            return distSQLExecutor.query(statusSQL, rs -> {
+                List<MigrationJobProgress.ItemProgress> items = new ArrayList<>();
+                
+                while (rs.next()) {
+                    items.add(new MigrationJobProgress.ItemProgress(
+                        readInt(rs, "item"),
+                        readString(rs, "data_source"),
+                        readString(rs, "tables"),
+                        rs.getString("status"),
+                        Boolean.parseBoolean(readString(rs, "active")),
+                        readLong(rs, "processed_records_count"),
+                        readInt(rs, "inventory_finished_percentage"),
+                        readLong(rs, "incremental_idle_seconds"),
+                        readString(rs, "error_message")
+                    ));
+                }
+                
+                if (items.isEmpty()) {
+                    throw new DataMigrationException("No status found for job: " + jobId);
+                }
+                
+                return new MigrationJobProgress(jobId, Instant.now(), items);
+            });
+            
+        } catch (Exception e) {
+            throw new DataMigrationException("Failed to get status for job: " + jobId, e);
+        }
+    }
+    
+    /**
+     * Read optional columns, tolerating proxy versions without them.
+     */
+    private static int readInt(ResultSet rs, String column) {
+        try {
+            return rs.getInt(column);
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+    
+    private static long readLong(ResultSet rs, String column) {
+        try {
+            return rs.getLong(column);
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+    
+    private static String readString(ResultSet rs, String column) {
+        try {
+            return rs.getString(column);
+        } catch (SQLException e) {
+            return null;
         }
     }
 }
-
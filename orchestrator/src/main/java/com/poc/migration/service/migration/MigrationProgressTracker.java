@@ -0,0 +1,241 @@
+package com.poc.migration.service.migration;
+
+import com.poc.migration.config.MigrationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps a rolling history of {@link MigrationJobProgress} samples per job and
+ * derives throughput (rows/s), ETA and incremental idle time from it.
+ * Values are published as Micrometer gauges tagged with job ID and table.
+ */
+@Component
+@Slf4j
+public class MigrationProgressTracker {
+    
+    private final MigrationProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, Deque<MigrationJobProgress>> history = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+    
+    public MigrationProgressTracker(MigrationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        
+        Gauge.builder("migration.eta.seconds", this, tracker -> tracker.getOverallEtaSeconds(tracker.history.keySet()))
+            .description("Estimated seconds until all tracked jobs finish inventory")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Record a new progress sample and register gauges for unseen jobs.
+     */
+    public void record(MigrationJobProgress progress) {
+        Deque<MigrationJobProgress> samples = history.computeIfAbsent(progress.getJobId(), id -> new ArrayDeque<>());
+        
+        synchronized (samples) {
+            samples.addLast(progress);
+            while (samples.size() > properties.getMonitoring().getProgressHistorySize()) {
+                samples.removeFirst();
+            }
+        }
+        
+        meters.computeIfAbsent(progress.getJobId(), id -> registerGauges(id, progress.getTables()));
+    }
+    
+    /**
+     * Sample history for a job, oldest first.
+     */
+    public List<MigrationJobProgress> getHistory(String jobId) {
+        Deque<MigrationJobProgress> samples = history.get(jobId);
+        if (samples == null) {
+            return List.of();
+        }
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+    
+    /**
+     * Rows processed per second over the rate window.
+     */
+    public double getRowsPerSecond(String jobId) {
+        List<MigrationJobProgress> window = rateWindow(jobId);
+        if (window.size() < 2) {
+            return 0;
+        }
+        
+        MigrationJobProgress first = window.get(0);
+        MigrationJobProgress last = window.get(window.size() - 1);
+        double seconds = secondsBetween(first, last);
+        
+        return seconds > 0 ? Math.max(0, last.getProcessedRecords() - first.getProcessedRecords()) / seconds : 0;
+    }
+    
+    /**
+     * Estimated seconds until inventory finishes, 0 when ready, NaN when unknown.
+     */
+    public double getEtaSeconds(String jobId) {
+        List<MigrationJobProgress> window = rateWindow(jobId);
+        if (window.isEmpty()) {
+            return Double.NaN;
+        }
+        
+        MigrationJobProgress last = window.get(window.size() - 1);
+        if (last.isReady()) {
+            return 0;
+        }
+        if (window.size() < 2) {
+            return Double.NaN;
+        }
+        
+        MigrationJobProgress first = window.get(0);
+        double seconds = secondsBetween(first, last);
+        double percentPerSecond = seconds > 0
+            ? (last.getInventoryPercentage() - first.getInventoryPercentage()) / seconds
+            : 0;
+        
+        return percentPerSecond > 0 ? (100 - last.getInventoryPercentage()) / percentPerSecond : Double.NaN;
+    }
+    
+    /**
+     * Jobs run in parallel, so the overall ETA is the slowest job's ETA.
+     */
+    public double getOverallEtaSeconds(Collection<String> jobIds) {
+        double overall = 0;
+        for (String jobId : jobIds) {
+            double eta = getEtaSeconds(jobId);
+            if (Double.isNaN(eta)) {
+                return Double.NaN;
+            }
+            overall = Math.max(overall, eta);
+        }
+        return overall;
+    }
+    
+    /**
+     * Seconds since the incremental task last applied an event, -1 before incremental sync.
+     * This is idle time, not replication lag: it grows while the source is quiet, and
+     * ShardingSphere does not expose the applied binlog/WAL position to measure lag.
+     */
+    public long getIncrementalIdleSeconds(String jobId) {
+        MigrationJobProgress latest = getLatest(jobId);
+        return latest != null ? latest.getIncrementalIdleSeconds() : -1;
+    }
+    
+    /**
+     * A job is stalled when inventory is unfinished and no rows moved during the rate window.
+     * Distinguishes a stuck table from one that is merely slow.
+     */
+    public boolean isStalled(String jobId) {
+        List<MigrationJobProgress> window = rateWindow(jobId);
+        if (window.size() < properties.getMonitoring().getRateWindowSamples()) {
+            return false;
+        }
+        MigrationJobProgress last = window.get(window.size() - 1);
+        return !last.isReady() && getRowsPerSecond(jobId) == 0;
+    }
+    
+    public MigrationJobProgress getLatest(String jobId) {
+        Deque<MigrationJobProgress> samples = history.get(jobId);
+        if (samples == null) {
+            return null;
+        }
+        synchronized (samples) {
+            return samples.peekLast();
+        }
+    }
+    
+    /**
+     * Tracked migration job covering a table, or null if none is tracked.
+     * Schema prefixes in the job's table list are ignored.
+     */
+    public String findJobIdForTable(String table) {
+        for (String jobId : history.keySet()) {
+            MigrationJobProgress latest = getLatest(jobId);
+            if (latest == null) {
+                continue;
+            }
+            for (String covered : latest.getTables().split(",")) {
+                String name = covered.substring(covered.lastIndexOf('.') + 1).trim();
+                if (name.equalsIgnoreCase(table)) {
+                    return jobId;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Forget jobs and remove their gauges.
+     */
+    public void clear(Collection<String> jobIds) {
+        for (String jobId : jobIds) {
+            history.remove(jobId);
+            List<Meter> jobMeters = meters.remove(jobId);
+            if (jobMeters != null) {
+                jobMeters.forEach(meterRegistry::remove);
+            }
+        }
+    }
+    
+    /**
+     * Samples within the configured rate window, oldest first.
+     */
+    private List<MigrationJobProgress> rateWindow(String jobId) {
+        List<MigrationJobProgress> samples = getHistory(jobId);
+        int windowSize = properties.getMonitoring().getRateWindowSamples();
+        return samples.size() > windowSize ? samples.subList(samples.size() - windowSize, samples.size()) : samples;
+    }
+    
+    private static double secondsBetween(MigrationJobProgress first, MigrationJobProgress last) {
+        return Duration.between(first.getSampledAt(), last.getSampledAt()).toMillis() / 1000.0;
+    }
+    
+    private List<Meter> registerGauges(String jobId, String tables) {
+        Tags tags = Tags.of("job", jobId, "table", tables);
+        List<Meter> registered = new ArrayList<>();
+        
+        registered.add(gauge("migration.job.rows.per.second", "Rows processed per second", tags,
+                tracker -> tracker.getRowsPerSecond(jobId)));
+        registered.add(gauge("migration.job.eta.seconds", "Estimated seconds until inventory finishes", tags,
+                tracker -> tracker.getEtaSeconds(jobId)));
+        registered.add(gauge("migration.job.incremental.idle.seconds", "Seconds since the incremental task last applied an event", tags,
+                tracker -> tracker.getIncrementalIdleSeconds(jobId)));
+        registered.add(gauge("migration.job.inventory.percentage", "Inventory finished percentage", tags,
+                tracker -> latestValue(jobId, MigrationJobProgress::getInventoryPercentage)));
+        registered.add(gauge("migration.job.processed.records", "Records processed by the job", tags,
+                tracker -> latestValue(jobId, MigrationJobProgress::getProcessedRecords)));
+        registered.add(gauge("migration.job.stalled", "1 when inventory made no progress over the rate window", tags,
+                tracker -> tracker.isStalled(jobId) ? 1 : 0));
+        
+        return registered;
+    }
+    
+    private Meter gauge(String name, String description, Tags tags, ToDoubleFunction<MigrationProgressTracker> value) {
+        return Gauge.builder(name, this, value)
+            .description(description)
+            .tags(tags)
+            .register(meterRegistry);
+    }
+    
+    private double latestValue(String jobId, ToDoubleFunction<MigrationJobProgress> value) {
+        MigrationJobProgress latest = getLatest(jobId);
+        return latest != null ? value.applyAsDouble(latest) : Double.NaN;
+    }
+}
@@ -0,0 +1,404 @@
+package com.poc.migration.service.migration;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.DataMigrationException;
+import com.poc.migration.infrastructure.database.ConnectionRole;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import com.poc.migration.model.JobRequest;
+import com.poc.migration.model.MigrationRuleTrial;
+import com.poc.migration.model.MigrationRuleTrialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * Picks migration rule write worker threads and batch size by benchmark.
+ * Copies a bounded sample of the largest table into a scratch table on the target
+ * once per candidate (one reader, N batched writers, like the proxy's inventory
+ * dumper/importer) and keeps the candidate with the best rows/s. Only the writers
+ * vary, so the thread count and batch size set WRITE worker threads and batch size;
+ * READ settings are left to the request or the proxy. The benchmark writes to the
+ * target directly over JDBC, bypassing the proxy, so it measures the target's write
+ * throughput, not the proxy's overhead on top of it. The scratch table is named after
+ * the job, so concurrent jobs never share one, and is always dropped afterwards.
+ * Results are stored per source/target pair and reused by later jobs.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MigrationRuleAutotuner {
+    
+    private static final String SCRATCH_PREFIX = "zz_autotune_";
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+    
+    private final DatabaseConnectionFactory connectionFactory;
+    private final TableStatisticsService tableStatisticsService;
+    private final MigrationRuleTrialRepository trialRepository;
+    private final MigrationRuleService migrationRuleService;
+    private final MigrationProperties properties;
+    
+    /**
+     * Return the requested rule with unset write worker threads and write batch size
+     * filled in from the best (possibly reused) trial.
+     */
+    public JobRequest.MigrationRuleConfig tune(Long jobId, JobRequest request,
+            JobRequest.MigrationRuleConfig requested) {
+        DatabaseConnectionConfig source = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+        DatabaseConnectionConfig target = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+        String pairKey = pairKey(source, target);
+        
+        MigrationProperties.AutotuneConfig autotune = properties.getAutotune();
+        Optional<MigrationRuleTrial> previous = trialRepository
+            .findFirstByPairKeyAndSelectedTrueAndCreatedAtAfterOrderByCreatedAtDesc(
+                pairKey, LocalDateTime.now().minusHours(autotune.getReuseMaxAgeHours()));
+        
+        MigrationRuleTrial best = previous.isPresent()
+            ? previous.get()
+            : benchmark(jobId, request, source, target, pairKey);
+        
+        if (previous.isPresent()) {
+            log.info("Reusing autotune result from {} for {}: {} threads, batch {} ({} rows/s)",
+                    best.getCreatedAt(), pairKey, best.getWorkerThreads(), best.getBatchSize(),
+                    Math.round(best.getRowsPerSecond()));
+        }
+        
+        JobRequest.MigrationRuleConfig tuned = merge(requested, best);
+        migrationRuleService.validate(tuned);
+        return tuned;
+    }
+    
+    /**
+     * Run every candidate against the representative table and persist the trials.
+     */
+    private MigrationRuleTrial benchmark(Long jobId, JobRequest request, DatabaseConnectionConfig source,
+            DatabaseConnectionConfig target, String pairKey) {
+        String table = representativeTable(request, source);
+        String scratch = scratchName(jobId, table);
+        MigrationProperties.AutotuneConfig autotune = properties.getAutotune();
+        
+        log.info("Autotuning migration rule on {} ({} candidates, {} sample rows)",
+                table, autotune.getCandidates().size(), autotune.getSampleRows());
+        
+        List<MigrationRuleTrial> trials = new ArrayList<>();
+        try {
+            createScratchTable(source, target, table, scratch);
+            for (MigrationProperties.AutotuneConfig.Candidate candidate : autotune.getCandidates()) {
+                truncate(target, scratch);
+                
+                long start = System.nanoTime();
+                long rows = copySample(source, target, table, scratch, candidate, autotune.getSampleRows());
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                
+                if (rows == 0) {
+                    throw new DataMigrationException("Table " + table + " has no rows to benchmark");
+                }
+                
+                MigrationRuleTrial trial = MigrationRuleTrial.builder()
+                    .pairKey(pairKey)
+                    .jobId(jobId)
+                    .tableName(table)
+                    .workerThreads(candidate.getWorkerThreads())
+                    .batchSize(candidate.getBatchSize())
+                    .sampleRows(rows)
+                    .rowsPerSecond(rows / seconds)
+                    .build();
+                trials.add(trial);
+                
+                log.info("  Trial {} threads, batch {}: {} rows in {}s ({} rows/s)",
+                        candidate.getWorkerThreads(), candidate.getBatchSize(), rows,
+                        String.format("%.2f", seconds), Math.round(trial.getRowsPerSecond()));
+            }
+        } finally {
+            drop(target, scratch);
+        }
+        
+        MigrationRuleTrial best = trials.stream()
+            .max(Comparator.comparingDouble(MigrationRuleTrial::getRowsPerSecond))
+            .orElseThrow(() -> new DataMigrationException("No autotune candidates configured"));
+        best.setSelected(true);
+        trialRepository.saveAll(trials);
+        
+        log.info("✓ Autotune selected {} threads, batch {} ({} rows/s)",
+                best.getWorkerThreads(), best.getBatchSize(), Math.round(best.getRowsPerSecond()));
+        return best;
+    }
+    
+    /**
+     * Copy up to sampleRows rows: one reader fills batches, worker threads insert them.
+     */
+    private long copySample(DatabaseConnectionConfig source, DatabaseConnectionConfig target, String table,
+            String scratch, MigrationProperties.AutotuneConfig.Candidate candidate, int sampleRows) {
+        int threads = candidate.getWorkerThreads();
+        int batchSize = candidate.getBatchSize();
+        List<Object[]> endOfData = new ArrayList<>();
+        BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(threads * 2);
+        
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        try (Connection sourceConn = connectionFactory.createConnection(source);
+            Statement stmt = sourceConn.createStatement()) {
+            
+            stmt.setFetchSize(batchSize);
+            try (ResultSet rs = stmt.executeQuery(String.format("SELECT * FROM %s LIMIT %d",
+                    qualifiedName(source, table), sampleRows))) {
+                
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                String insertSQL = buildInsert(target, scratch, metaData);
+                
+                List<Future<Long>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(writers.submit(() -> writeBatches(target, insertSQL, queue, endOfData)));
+                }
+                
+                List<Object[]> batch = new ArrayList<>(batchSize);
+                while (rs.next()) {
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    batch.add(row);
+                    
+                    if (batch.size() == batchSize) {
+                        enqueue(queue, batch, results);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    enqueue(queue, batch, results);
+                }
+                for (int i = 0; i < threads; i++) {
+                    enqueue(queue, endOfData, results);
+                }
+                
+                long written = 0;
+                for (Future<Long> result : results) {
+                    written += result.get();
+                }
+                return written;
+            }
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataMigrationException("Autotune trial interrupted", e);
+        } catch (ExecutionException e) {
+            throw new DataMigrationException("Autotune trial write failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (SQLException e) {
+            throw new DataMigrationException("Autotune trial read failed: " + e.getMessage(), e);
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Hand a batch to the writers, surfacing a writer failure instead of blocking on a full queue.
+     */
+    private static void enqueue(BlockingQueue<List<Object[]>> queue, List<Object[]> batch,
+            List<Future<Long>> writers) throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            for (Future<Long> writer : writers) {
+                if (writer.isDone()) {
+                    writer.get();
+                }
+            }
+        }
+    }
+    
+    private long writeBatches(DatabaseConnectionConfig target, String insertSQL,
+            BlockingQueue<List<Object[]>> queue, List<Object[]> endOfData) throws Exception {
+        long written = 0;
+        
+        try (Connection conn = connectionFactory.createConnection(target);
+            PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
+            
+            conn.setAutoCommit(false);
+            while (true) {
+                List<Object[]> batch = queue.take();
+                if (batch == endOfData) {
+                    return written;
+                }
+                
+                for (Object[] row : batch) {
+                    for (int i = 0; i < row.length; i++) {
+                        stmt.setObject(i + 1, row[i]);
+                    }
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                written += batch.size();
+            }
+        }
+    }
+    
+    /**
+     * The largest table dominates the run, so benchmark on it.
+     */
+    private String representativeTable(JobRequest request, DatabaseConnectionConfig source) {
+        List<String> tables = request.getTablesToMigrate();
+        Map<String, TableStatisticsService.TableStatistics> statistics =
+            tableStatisticsService.getStatistics(source, tables);
+        
+        return statistics.values().stream()
+            .max(Comparator.comparingLong(TableStatisticsService.TableStatistics::totalBytes))
+            .map(TableStatisticsService.TableStatistics::tableName)
+            .orElse(tables.get(0));
+    }
+    
+    /**
+     * Create an empty copy of the table on the target.
+     * Uses the target table if the schema is applied; otherwise (homogeneous MySQL,
+     * where the proxy creates tables) the source DDL without foreign keys.
+     */
+    private void createScratchTable(DatabaseConnectionConfig source, DatabaseConnectionConfig target,
+            String table, String scratch) {
+        drop(target, scratch);
+        
+        try (Connection conn = connectionFactory.createConnection(target);
+            Statement stmt = conn.createStatement()) {
+            
+            String scratchName = qualifiedName(target, scratch);
+            if (tableExists(conn, target, table)) {
+                stmt.execute(target.getType() == DatabaseType.POSTGRESQL
+                    ? String.format("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING INDEXES)",
+                        scratchName, qualifiedName(target, table))
+                    : String.format("CREATE TABLE %s LIKE %s", scratchName, qualifiedName(target, table)));
+            } else if (source.getType() == DatabaseType.MYSQL && target.getType() == DatabaseType.MYSQL) {
+                stmt.execute(sourceDdl(source, table, scratchName));
+            } else {
+                throw new DataMigrationException("Target table " + table + " does not exist for autotune");
+            }
+            
+        } catch (SQLException e) {
+            throw new DataMigrationException("Failed to create autotune scratch table: " + e.getMessage(), e);
+        }
+    }
+    
+    private String sourceDdl(DatabaseConnectionConfig source, String table, String scratchName) throws SQLException {
+        try (Connection conn = connectionFactory.createConnection(source);
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery("SHOW CREATE TABLE " + qualifiedName(source, table))) {
+            
+            if (!rs.next()) {
+                throw new DataMigrationException("No DDL returned for table " + table);
+            }
+            
+            // Constraint names are schema-wide in MySQL, and scratch rows need no parents
+            return rs.getString(2)
+                .replaceFirst("CREATE TABLE `[^`]+`", Matcher.quoteReplacement("CREATE TABLE " + scratchName))
+                .replaceAll(",\\s*CONSTRAINT `[^`]+` FOREIGN KEY[^\\n]*", "");
+        }
+    }
+    
+    private boolean tableExists(Connection conn, DatabaseConnectionConfig config, String table) throws SQLException {
+        String catalog = config.getType() == DatabaseType.MYSQL ? config.getDatabase() : null;
+        String schema = config.getType() == DatabaseType.POSTGRESQL ? config.getSchemaOrDefault() : null;
+        
+        try (ResultSet rs = conn.getMetaData().getTables(catalog, schema, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+    
+    private void truncate(DatabaseConnectionConfig target, String scratch) {
+        executeOnTarget(target, "TRUNCATE TABLE " + qualifiedName(target, scratch));
+    }
+    
+    private void drop(DatabaseConnectionConfig target, String scratch) {
+        try {
+            executeOnTarget(target, "DROP TABLE IF EXISTS " + qualifiedName(target, scratch));
+        } catch (Exception e) {
+            log.warn("Could not drop autotune scratch table {}: {}", scratch, e.getMessage());
+        }
+    }
+    
+    private void executeOnTarget(DatabaseConnectionConfig target, String sql) {
+        try (Connection conn = connectionFactory.createConnection(target);
+            Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            throw new DataMigrationException("Autotune statement failed: " + sql, e);
+        }
+    }
+    
+    private String buildInsert(DatabaseConnectionConfig target, String scratch, ResultSetMetaData metaData)
+            throws SQLException {
+        List<String> columns = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(quote(target, metaData.getColumnLabel(i)));
+            placeholders.add("?");
+        }
+        
+        return String.format("INSERT INTO %s (%s) VALUES (%s)",
+                qualifiedName(target, scratch), String.join(", ", columns), String.join(", ", placeholders));
+    }
+    
+    /**
+     * Merge trial values into unset write fields of the requested rule. The trial only
+     * varied the writers, so the read batch size is left as requested.
+     */
+    private static JobRequest.MigrationRuleConfig merge(JobRequest.MigrationRuleConfig requested,
+            MigrationRuleTrial trial) {
+        JobRequest.MigrationRuleConfig.MigrationRuleConfigBuilder builder = requested != null
+            ? requested.toBuilder()
+            : JobRequest.MigrationRuleConfig.builder();
+        
+        if (requested == null || requested.getWriteWorkerThreads() == null) {
+            builder.writeWorkerThreads(trial.getWorkerThreads());
+        }
+        if (requested == null || requested.getWriteBatchSize() == null) {
+            builder.writeBatchSize(trial.getBatchSize());
+        }
+        return builder.build();
+    }
+    
+    private static String pairKey(DatabaseConnectionConfig source, DatabaseConnectionConfig target) {
+        return endpoint(source) + " -> " + endpoint(target);
+    }
+    
+    private static String endpoint(DatabaseConnectionConfig config) {
+        return String.format("%s://%s:%d/%s/%s", config.getType().name().toLowerCase(),
+                config.getHost(), config.getPort(), config.getDatabase(), config.getSchemaOrDefault());
+    }
+    
+    /**
+     * Scratch table of a job; the job ID keeps it apart from other jobs' scratch tables
+     * and is never truncated away.
+     */
+    private static String scratchName(Long jobId, String table) {
+        String name = SCRATCH_PREFIX + jobId + "_" + table;
+        return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+    }
+    
+    private static String qualifiedName(DatabaseConnectionConfig config, String table) {
+        return quote(config, config.getSchemaOrDefault()) + "." + quote(config, table);
+    }
+    
+    private static String quote(DatabaseConnectionConfig config, String identifier) {
+        return config.getType() == DatabaseType.POSTGRESQL
+            ? "\"" + identifier.replace("\"", "\"\"") + "\""
+            : "`" + identifier.replace("`", "``") + "`";
+    }
+}
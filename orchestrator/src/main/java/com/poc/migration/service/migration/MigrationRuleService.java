@@ -0,0 +1,201 @@
+package com.poc.migration.service.migration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.exception.ConfigurationException;
+import com.poc.migration.exception.DataMigrationException;
+import com.poc.migration.model.Job;
+import com.poc.migration.model.JobRepository;
+import com.poc.migration.model.JobRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service for the ShardingSphere migration rule (ALTER / SHOW MIGRATION RULE).
+ * The rule is read by the proxy when a migration job is created, so it must be
+ * applied before MIGRATE TABLE. The rule is global to the proxy, not per job, so
+ * a job may only apply its own rule while no other job runs; it then holds the
+ * rule until its lifecycle ends, and other jobs cannot apply theirs meanwhile.
+ * Jobs without a rule run with whatever rule the proxy has.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MigrationRuleService {
+    
+    private final DistSQLExecutor distSQLExecutor;
+    private final MigrationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final JobRepository jobRepository;
+    
+    private Long ruleOwner;
+    
+    /**
+     * Check rule values against the configured proxy limits.
+     */
+    public void validate(JobRequest.MigrationRuleConfig rule) {
+        if (rule == null) {
+            return;
+        }
+        
+        MigrationProperties.RuleLimitsConfig limits = properties.getRuleLimits();
+        List<String> violations = new ArrayList<>();
+        
+        checkLimit(violations, "readWorkerThreads", rule.getReadWorkerThreads(), limits.getMaxWorkerThreads());
+        checkLimit(violations, "writeWorkerThreads", rule.getWriteWorkerThreads(), limits.getMaxWorkerThreads());
+        checkLimit(violations, "readBatchSize", rule.getReadBatchSize(), limits.getMaxBatchSize());
+        checkLimit(violations, "writeBatchSize", rule.getWriteBatchSize(), limits.getMaxBatchSize());
+        checkLimit(violations, "shardingSize", rule.getShardingSize(), limits.getMaxShardingSize());
+        checkLimit(violations, "streamChannelBlockQueueSize", rule.getStreamChannelBlockQueueSize(), 
+                limits.getMaxBlockQueueSize());
+        
+        if (!violations.isEmpty()) {
+            throw new ConfigurationException("Invalid migration rule: " + String.join("; ", violations));
+        }
+    }
+    
+    /**
+     * Validate and apply a migration rule for a job. Does nothing when no rule is given.
+     * Refused while another job runs or holds the rule, since the proxy would apply it
+     * to that job too.
+     */
+    public void applyRule(Long jobId, JobRequest.MigrationRuleConfig rule) {
+        if (rule == null) {
+            log.info("No migration rule in request, using current proxy rule");
+            return;
+        }
+        
+        validate(rule);
+        
+        Optional<String> alterSQL = buildAlterStatement(rule);
+        if (alterSQL.isEmpty()) {
+            log.info("Migration rule in request sets no READ/WRITE/STREAM_CHANNEL values, using current proxy rule");
+            return;
+        }
+        
+        synchronized (this) {
+            claimRule(jobId);
+            distSQLExecutor.execute(alterSQL.get());
+        }
+        log.info("✓ Applied migration rule: {}", alterSQL.get());
+    }
+    
+    /**
+     * Let other jobs apply their rule again once this job's lifecycle has ended.
+     */
+    public synchronized void releaseRule(Long jobId) {
+        if (jobId.equals(ruleOwner)) {
+            ruleOwner = null;
+            log.info("[Job-{}] Released the migration rule", jobId);
+        }
+    }
+    
+    private void claimRule(Long jobId) {
+        if (jobId.equals(ruleOwner)) {
+            return;
+        }
+        if (ruleOwner != null) {
+            throw new ConfigurationException(String.format(
+                "Migration rule is global to the proxy and job %d is running with its own rule; "
+                    + "submit without migrationRule or once it has finished", ruleOwner));
+        }
+        
+        List<Long> others = jobRepository.findRunningJobs().stream()
+            .map(Job::getId)
+            .filter(id -> !id.equals(jobId))
+            .toList();
+        if (!others.isEmpty()) {
+            throw new ConfigurationException(String.format(
+                "Migration rule is global to the proxy and jobs %s are running; "
+                    + "submit without migrationRule or once they have finished", others));
+        }
+        ruleOwner = jobId;
+    }
+    
+    /**
+     * Read the effective rule from SHOW MIGRATION RULE as a JSON object of its columns.
+     */
+    public String showRuleAsJson() {
+        Map<String, String> rule = distSQLExecutor.query("SHOW MIGRATION RULE", rs -> {
+            Map<String, String> columns = new LinkedHashMap<>();
+            if (rs.next()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.put(metaData.getColumnLabel(i), rs.getString(i));
+                }
+            }
+            return columns;
+        });
+        
+        try {
+            return objectMapper.writeValueAsString(rule);
+        } catch (JsonProcessingException e) {
+            throw new DataMigrationException("Failed to serialize migration rule", e);
+        }
+    }
+    
+    /**
+     * Build ALTER MIGRATION RULE with only the segments that have values.
+     * Empty when no segment has a value (e.g. a rule that only enables autotuning).
+     */
+    Optional<String> buildAlterStatement(JobRequest.MigrationRuleConfig rule) {
+        List<String> segments = new ArrayList<>();
+        
+        List<String> read = new ArrayList<>();
+        addProperty(read, "WORKER_THREAD", rule.getReadWorkerThreads());
+        addProperty(read, "BATCH_SIZE", rule.getReadBatchSize());
+        addProperty(read, "SHARDING_SIZE", rule.getShardingSize());
+        if (rule.getReadQps() != null) {
+            read.add(rateLimiter("QPS", "qps", rule.getReadQps()));
+        }
+        if (!read.isEmpty()) {
+            segments.add("READ(" + String.join(", ", read) + ")");
+        }
+        
+        List<String> write = new ArrayList<>();
+        addProperty(write, "WORKER_THREAD", rule.getWriteWorkerThreads());
+        addProperty(write, "BATCH_SIZE", rule.getWriteBatchSize());
+        if (rule.getWriteTps() != null) {
+            write.add(rateLimiter("TPS", "tps", rule.getWriteTps()));
+        }
+        if (!write.isEmpty()) {
+            segments.add("WRITE(" + String.join(", ", write) + ")");
+        }
+        
+        if (rule.getStreamChannelBlockQueueSize() != null) {
+            segments.add(String.format(
+                "STREAM_CHANNEL (TYPE(NAME='MEMORY', PROPERTIES('block-queue-size'='%d')))",
+                rule.getStreamChannelBlockQueueSize()));
+        }
+        
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of("ALTER MIGRATION RULE (" + String.join(", ", segments) + ")");
+    }
+    
+    private static void addProperty(List<String> properties, String name, Integer value) {
+        if (value != null) {
+            properties.add(name + "=" + value);
+        }
+    }
+    
+    private static String rateLimiter(String type, String property, int value) {
+        return String.format("RATE_LIMITER (TYPE(NAME='%s', PROPERTIES('%s'='%d')))", type, property, value);
+    }
+    
+    private static void checkLimit(List<String> violations, String name, Integer value, int max) {
+        if (value != null && value > max) {
+            violations.add(name + "=" + value + " exceeds limit " + max);
+        }
+    }
+}
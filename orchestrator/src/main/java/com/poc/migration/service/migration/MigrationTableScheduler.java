@@ -0,0 +1,125 @@
+package com.poc.migration.service.migration;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.infrastructure.database.ConnectionRole;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.model.JobRequest;
+import com.poc.migration.model.TableSchedulingPolicy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans the order in which tables become ShardingSphere migration jobs.
+ * Tables are sorted by catalog size according to the scheduling policy, and only
+ * a bounded number of jobs run inventory at once so the source is not flooded
+ * with parallel full-table scans.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MigrationTableScheduler {
+    
+    private final TableStatisticsService tableStatisticsService;
+    private final MigrationJobService migrationJobService;
+    private final MigrationProperties properties;
+    
+    /**
+     * Build the table schedule for a request.
+     */
+    public TableSchedule plan(JobRequest request) {
+        TableSchedulingPolicy policy = resolvePolicy(request);
+        int maxConcurrent = resolveMaxConcurrent(request);
+        List<String> tables = new ArrayList<>(request.getTablesToMigrate());
+        
+        if (policy != TableSchedulingPolicy.LIST_ORDER) {
+            orderBySize(request, tables, policy);
+        }
+        
+        log.info("Table schedule ({}, max {} jobs in inventory): {}", 
+                policy, maxConcurrent > 0 ? maxConcurrent : "unlimited", tables);
+        return new TableSchedule(policy, maxConcurrent, tables);
+    }
+    
+    /**
+     * Admission that creates jobs for the next scheduled tables as slots free up.
+     */
+    public JobAdmission admission(JobRequest request, TableSchedule schedule) {
+        return new JobAdmission() {
+            @Override
+            public boolean hasPending() {
+                return schedule.hasPending();
+            }
+            
+            @Override
+            public List<String> admit(int jobsInInventory) {
+                List<String> tables = schedule.nextTables(jobsInInventory);
+                if (tables.isEmpty()) {
+                    return List.of();
+                }
+                
+                log.info("Admitting {} tables ({} still waiting): {}", 
+                        tables.size(), schedule.getPendingTables().size(), tables);
+                return migrationJobService.createMigrationJobs(request, tables);
+            }
+        };
+    }
+    
+    /**
+     * Sort tables by catalog size. Falls back to list order if statistics are unavailable.
+     */
+    private void orderBySize(JobRequest request, List<String> tables, TableSchedulingPolicy policy) {
+        Map<String, TableStatisticsService.TableStatistics> statistics;
+        try {
+            statistics = tableStatisticsService.getStatistics(
+                DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE), tables);
+        } catch (Exception e) {
+            log.warn("Could not read table sizes, keeping list order: {}", e.getMessage());
+            return;
+        }
+        
+        // Tables without statistics sort as empty; the sort is stable so ties keep list order
+        Comparator<String> bySize = Comparator
+            .comparingLong((String table) -> sizeOf(statistics.get(table)))
+            .thenComparingLong(table -> rowsOf(statistics.get(table)));
+        
+        tables.sort(policy == TableSchedulingPolicy.LARGEST_FIRST ? bySize.reversed() : bySize);
+        
+        for (String table : tables) {
+            TableStatisticsService.TableStatistics tableStatistics = statistics.get(table);
+            if (tableStatistics != null) {
+                log.debug("  {}: ~{} rows, {} bytes", 
+                        table, tableStatistics.estimatedRows(), tableStatistics.totalBytes());
+            }
+        }
+    }
+    
+    private TableSchedulingPolicy resolvePolicy(JobRequest request) {
+        JobRequest.SchedulingConfig scheduling = request.getScheduling();
+        if (scheduling != null && scheduling.getPolicy() != null) {
+            return scheduling.getPolicy();
+        }
+        return properties.getScheduling().getPolicy();
+    }
+    
+    private int resolveMaxConcurrent(JobRequest request) {
+        JobRequest.SchedulingConfig scheduling = request.getScheduling();
+        if (scheduling != null && scheduling.getMaxConcurrentInventoryJobs() != null) {
+            return scheduling.getMaxConcurrentInventoryJobs();
+        }
+        return properties.getScheduling().getMaxConcurrentInventoryJobs();
+    }
+    
+    private static long sizeOf(TableStatisticsService.TableStatistics statistics) {
+        return statistics != null ? statistics.totalBytes() : 0;
+    }
+    
+    private static long rowsOf(TableStatisticsService.TableStatistics statistics) {
+        return statistics != null ? statistics.estimatedRows() : 0;
+    }
+}
@@ -0,0 +1,301 @@
+package com.poc.migration.service.migration;
+
+import com.poc.migration.config.MigrationProperties;
+import com.poc.migration.infrastructure.database.ConnectionRole;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import com.poc.migration.model.JobRequest;
+import com.poc.migration.service.JobDetailsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop throttle for running migration jobs.
+ * Samples source load (active sessions, replication lag) and target latency, and
+ * adjusts the READ QPS rate limiter with AIMD: halve under pressure, step up when idle.
+ * Every adjustment is recorded as a THROTTLE event on the job. Inventory jobs are
+ * restarted to pick up a lower rate right away, and a higher one only when it moved
+ * past a threshold, at most once per cooldown.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MigrationThrottleController {
+    
+    private static final String EVENT_TYPE = "THROTTLE";
+    
+    private final DatabaseConnectionFactory connectionFactory;
+    private final MigrationRuleService migrationRuleService;
+    private final MigrationJobService migrationJobService;
+    private final MigrationMonitorService monitorService;
+    private final MigrationProgressTracker progressTracker;
+    private final JobDetailsService jobDetailsService;
+    private final MigrationProperties properties;
+    
+    /**
+     * Start throttling the given jobs. The list may grow while the session runs.
+     * Adjustments keep the other settings of {@code baseRule}.
+     * Close the returned session when data migration ends.
+     */
+    public ThrottleSession start(Long jobId, JobRequest request, JobRequest.MigrationRuleConfig baseRule,
+            List<String> migrationJobIds) {
+        MigrationProperties.ThrottleConfig throttle = properties.getThrottle();
+        if (!throttle.isEnabled()) {
+            return new ThrottleSession(null);
+        }
+        
+        ThrottleLoop loop = new ThrottleLoop(jobId, request, baseRule, migrationJobIds);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("migration-throttle-" + jobId).factory());
+        scheduler.scheduleWithFixedDelay(loop, throttle.getSampleIntervalMs(),
+                throttle.getSampleIntervalMs(), TimeUnit.MILLISECONDS);
+        
+        log.info("[Job-{}] Throttle started at {} read QPS", jobId, loop.currentQps);
+        return new ThrottleSession(scheduler);
+    }
+    
+    /**
+     * Sample source and target load.
+     */
+    LoadSample sampleLoad(DatabaseConnectionConfig source, DatabaseConnectionConfig target) throws SQLException {
+        long sourceActive;
+        double replicationLag;
+        
+        try (Connection conn = connectionFactory.createConnection(source);
+            Statement stmt = conn.createStatement()) {
+            
+            if (source.getType() == DatabaseType.POSTGRESQL) {
+                sourceActive = queryLong(stmt,
+                    "SELECT count(*) FROM pg_stat_activity WHERE state = 'active' AND pid <> pg_backend_pid()");
+                replicationLag = queryLong(stmt,
+                    "SELECT COALESCE(MAX(EXTRACT(EPOCH FROM replay_lag)), 0)::bigint FROM pg_stat_replication");
+            } else {
+                // Threads_running includes this session
+                sourceActive = Math.max(0, queryStatusValue(stmt) - 1);
+                replicationLag = mySQLReplicaLag(stmt);
+            }
+        }
+        
+        long targetLatencyMs;
+        try (Connection conn = connectionFactory.createConnection(target);
+            Statement stmt = conn.createStatement()) {
+            
+            long start = System.nanoTime();
+            stmt.execute("SELECT 1");
+            targetLatencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        
+        return new LoadSample(sourceActive, replicationLag, targetLatencyMs);
+    }
+    
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    
+    private static long queryStatusValue(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SHOW GLOBAL STATUS LIKE 'Threads_running'")) {
+            return rs.next() ? rs.getLong("Value") : 0;
+        }
+    }
+    
+    /**
+     * Replication lag when the source is itself a replica; 0 on a primary
+     * or when the user lacks REPLICATION CLIENT.
+     */
+    private static double mySQLReplicaLag(Statement stmt) {
+        try (ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+            return rs.next() ? rs.getLong("Seconds_Behind_Source") : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * One throttle iteration per sample interval.
+     */
+    private class ThrottleLoop implements Runnable {
+        
+        private final Long jobId;
+        private final JobRequest.MigrationRuleConfig baseRule;
+        private final List<String> migrationJobIds;
+        private final DatabaseConnectionConfig source;
+        private final DatabaseConnectionConfig target;
+        
+        private int currentQps;
+        private long lastIncreaseAt;
+        private int startedQps;
+        private long lastRestartAt;
+        
+        ThrottleLoop(Long jobId, JobRequest request, JobRequest.MigrationRuleConfig baseRule,
+                List<String> migrationJobIds) {
+            this.jobId = jobId;
+            this.baseRule = baseRule;
+            this.migrationJobIds = migrationJobIds;
+            this.source = DatabaseConnectionConfig.from(request.getSource(), ConnectionRole.SOURCE);
+            this.target = DatabaseConnectionConfig.from(request.getTarget(), ConnectionRole.TARGET);
+            
+            this.currentQps = baseRule != null && baseRule.getReadQps() != null
+                ? baseRule.getReadQps()
+                : properties.getThrottle().getMaxQps();
+            this.lastIncreaseAt = System.currentTimeMillis();
+            this.startedQps = currentQps;
+            this.lastRestartAt = lastIncreaseAt;
+        }
+        
+        @Override
+        public void run() {
+            // Never let an exception cancel the schedule
+            try {
+                adjust(sampleLoad(source, target));
+            } catch (Exception e) {
+                log.warn("[Job-{}] Throttle sample failed: {}", jobId, e.getMessage());
+            }
+        }
+        
+        private void adjust(LoadSample sample) {
+            MigrationProperties.ThrottleConfig throttle = properties.getThrottle();
+            long now = System.currentTimeMillis();
+            int newQps = currentQps;
+            
+            if (sample.isUnderPressure(throttle)) {
+                newQps = Math.max(throttle.getMinQps(), (int) (currentQps * throttle.getDecreaseFactor()));
+            } else if (sample.isIdle(throttle) && now - lastIncreaseAt >= throttle.getIncreaseCooldownMs()) {
+                newQps = Math.min(throttle.getMaxQps(), currentQps + throttle.getIncreaseStep());
+                lastIncreaseAt = now;
+            }
+            
+            log.debug("[Job-{}] Throttle sample: {}, read QPS {}", jobId, sample, currentQps);
+            if (newQps == currentQps) {
+                return;
+            }
+            
+            JobRequest.MigrationRuleConfig rule = (baseRule != null
+                    ? baseRule.toBuilder()
+                    : JobRequest.MigrationRuleConfig.builder())
+                .readQps(newQps)
+                .build();
+            migrationRuleService.applyRule(jobId, rule);
+            
+            String message = String.format("Read QPS %d -> %d (%s)", currentQps, newQps, sample);
+            log.info("[Job-{}] Throttle: {}", jobId, message);
+            jobDetailsService.recordEvent(jobId, EVENT_TYPE, message);
+            currentQps = newQps;
+            
+            if (throttle.isRestartInventoryJobs() && shouldRestart(throttle, now)) {
+                restartInventoryJobs();
+                startedQps = currentQps;
+                lastRestartAt = System.currentTimeMillis();
+            }
+        }
+        
+        /**
+         * A rate cut is applied right away: the source is under pressure. An increase only
+         * when the rate moved far enough from the one the jobs run with, and not more often
+         * than the cooldown: every restart re-reads from a checkpoint.
+         */
+        private boolean shouldRestart(MigrationProperties.ThrottleConfig throttle, long now) {
+            if (currentQps < startedQps) {
+                return true;
+            }
+            double change = (currentQps - startedQps) / (double) Math.max(1, startedQps);
+            return change > throttle.getRestartThreshold() && now - lastRestartAt >= throttle.getRestartCooldownMs();
+        }
+        
+        /**
+         * Restart jobs still in inventory so they pick up the new rate limiter.
+         * START is only issued once the job reports stopped.
+         */
+        private void restartInventoryJobs() {
+            for (String migrationJobId : List.copyOf(migrationJobIds)) {
+                MigrationJobProgress latest = progressTracker.getLatest(migrationJobId);
+                if (latest == null || latest.isReady()) {
+                    continue;
+                }
+                
+                try {
+                    migrationJobService.stopJob(migrationJobId);
+                    if (!monitorService.awaitStopped(migrationJobId, properties.getThrottle().getStopTimeoutMs())) {
+                        log.warn("[Job-{}] Migration job {} still active {} ms after STOP, starting it anyway",
+                                jobId, migrationJobId, properties.getThrottle().getStopTimeoutMs());
+                    }
+                    migrationJobService.startJob(migrationJobId);
+                } catch (InterruptedException e) {
+                    // Session closing: never leave the job stopped. Start it before restoring
+                    // the interrupt, which would fail the JDBC call
+                    try {
+                        migrationJobService.startJob(migrationJobId);
+                    } finally {
+                        Thread.currentThread().interrupt();
+                    }
+                    return;
+                } catch (Exception e) {
+                    log.warn("[Job-{}] Could not restart migration job {}: {}",
+                            jobId, migrationJobId, e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Load observed in one sample.
+     */
+    record LoadSample(long sourceActive, double replicationLagSeconds, long targetLatencyMs) {
+        
+        boolean isUnderPressure(MigrationProperties.ThrottleConfig throttle) {
+            return sourceActive >= throttle.getSourceActiveHigh()
+                || replicationLagSeconds >= throttle.getReplicationLagHighSeconds()
+                || targetLatencyMs >= throttle.getTargetLatencyHighMs();
+        }
+        
+        boolean isIdle(MigrationProperties.ThrottleConfig throttle) {
+            return sourceActive <= throttle.getSourceActiveLow()
+                && replicationLagSeconds <= throttle.getReplicationLagLowSeconds()
+                && targetLatencyMs <= throttle.getTargetLatencyLowMs();
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("source active=%d, replication lag=%.0fs, target latency=%dms",
+                    sourceActive, replicationLagSeconds, targetLatencyMs);
+        }
+    }
+    
+    /**
+     * Handle for a running throttle loop.
+     */
+    public static class ThrottleSession implements AutoCloseable {
+        
+        private final ScheduledExecutorService scheduler;
+        
+        ThrottleSession(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+        }
+        
+        @Override
+        public void close() {
+            if (scheduler == null) {
+                return;
+            }
+            
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
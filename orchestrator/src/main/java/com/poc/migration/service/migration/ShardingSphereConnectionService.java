@@ -2,17 +2,25 @@ package com.poc.migration.service.migration;
 
 import com.poc.migration.config.ShardingSphereProperties;
 import com.poc.migration.exception.ConnectionException;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for managing connections to ShardingSphere Proxy.
  * Centralizes proxy connection logic and protocol handling.
+ * Sessions are pooled per logical database and health-checked by the pool,
+ * so DistSQL calls reuse an authenticated connection instead of reconnecting.
  */
 @Service
 @Slf4j
@@ -20,20 +28,17 @@ import java.sql.SQLException;
 public class ShardingSphereConnectionService {
     
     private final ShardingSphereProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, HikariDataSource> dataSources = new ConcurrentHashMap<>();
     
     /**
-     * Create connection to a specific database in ShardingSphere Proxy.
+     * Borrow a pooled connection to a specific database in ShardingSphere Proxy.
+     * Closing the returned connection hands it back to the pool.
      */
     public Connection getConnection(String database) {
         try {
-            String jdbcUrl = buildProxyUrl(database);
-            log.debug("Connecting to ShardingSphere Proxy: {}", jdbcUrl);
-            
-            return DriverManager.getConnection(
-                jdbcUrl,
-                properties.getUser(),
-                properties.getPassword()
-            );
+            return dataSources.computeIfAbsent(database, this::createDataSource).getConnection();
             
         } catch (SQLException e) {
             throw new ConnectionException(
@@ -43,6 +48,42 @@ public class ShardingSphereConnectionService {
         }
     }
     
+    /**
+     * Create a health-checked connection pool for a proxy logical database.
+     */
+    private HikariDataSource createDataSource(String database) {
+        ShardingSphereProperties.PoolConfig pool = properties.getPool();
+        String jdbcUrl = buildProxyUrl(database);
+        log.info("Creating ShardingSphere Proxy connection pool: {}", jdbcUrl);
+        
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("proxy-" + database);
+        config.setDriverClassName(isPostgreSQL() ? "org.postgresql.Driver" : "com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(properties.getUser());
+        config.setPassword(properties.getPassword());
+        config.setMaximumPoolSize(pool.getMaxPoolSize());
+        config.setMinimumIdle(Math.min(pool.getMinIdle(), pool.getMaxPoolSize()));
+        config.setConnectionTimeout(pool.getConnectionTimeoutMs());
+        config.setKeepaliveTime(pool.getKeepaliveTimeMs());
+        config.setValidationTimeout(pool.getValidationTimeoutMs());
+        config.setMaxLifetime(pool.getMaxLifetimeMs());
+        // Don't fail at construction - the proxy (or migration database) may not be up yet
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        
+        return new HikariDataSource(config);
+    }
+    
+    /**
+     * Close all proxy pools on shutdown.
+     */
+    @PreDestroy
+    public void closePools() {
+        dataSources.values().forEach(HikariDataSource::close);
+        dataSources.clear();
+    }
+    
     /**
      * Create connection to the admin database.
      */
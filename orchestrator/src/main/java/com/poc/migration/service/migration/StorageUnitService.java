@@ -8,10 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.Statement;
-
 /**
  * Service for registering and verifying storage units in ShardingSphere.
  */
@@ -21,6 +17,7 @@ import java.sql.Statement;
 public class StorageUnitService {
     
     private final ShardingSphereConnectionService connectionService;
+    private final DistSQLExecutor distSQLExecutor;
     private final DatabaseConnectionFactory connectionFactory;
     
     /**
@@ -62,25 +59,24 @@ public class StorageUnitService {
      * Check if source storage unit already exists.
      */
     private boolean sourceStorageUnitExists(JobRequest.DbConfig source, String storageUnitName) {
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SHOW MIGRATION SOURCE STORAGE UNITS")) {
-            
-            log.debug("Checking if source storage unit '{}' exists...", storageUnitName);
-            
-            while (rs.next()) {
-                String name = rs.getString("name");
-                String host = rs.getString("host");
-                String db = rs.getString("db");
-                
-                if (storageUnitName.equals(name) && 
-                    source.getHost().equals(host) && 
-                    source.getDatabase().equals(db)) {
-                    return true;
+        log.debug("Checking if source storage unit '{}' exists...", storageUnitName);
+        
+        try {
+            return distSQLExecutor.query("SHOW MIGRATION SOURCE STORAGE UNITS", rs -> {
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    String host = rs.getString("host");
+                    String db = rs.getString("db");
+                    
+                    if (storageUnitName.equals(name) && 
+                        source.getHost().equals(host) && 
+                        source.getDatabase().equals(db)) {
+                        return true;
+                    }
                 }
-            }
-            
-            return false;
+                
+                return false;
+            });
             
         } catch (Exception e) {
             log.warn("Could not check source storage unit existence: {}", e.getMessage());
@@ -103,7 +99,7 @@ public class StorageUnitService {
             )
             """, storageUnitName, sourceUrl, source.getUser(), source.getPassword());
         
-        executeDistSQL(registerSourceSQL);
+        distSQLExecutor.execute(registerSourceSQL);
     }
     
     /**
@@ -121,7 +117,7 @@ public class StorageUnitService {
             )
             """, storageUnitName, targetUrl, target.getUser(), target.getPassword());
         
-        executeDistSQL(registerTargetSQL);
+        distSQLExecutor.execute(registerTargetSQL);
     }
     
     /**
@@ -136,26 +132,27 @@ public class StorageUnitService {
      * Verify source storage unit.
      */
     private void verifySourceStorageUnit(String storageUnitName) {
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SHOW MIGRATION SOURCE STORAGE UNITS")) {
-            
+        try {
             log.info("Verifying source storage unit '{}' registration...", storageUnitName);
-            boolean hasSource = false;
             
-            while (rs.next()) {
-                String name = rs.getString("name");
-                String type = rs.getString("type");
-                String host = rs.getString("host");
-                String port = rs.getString("port");
-                String db = rs.getString("db");
-                
-                log.info("  Source unit: {} - {} - {}:{}/{}", name, type, host, port, db);
+            boolean hasSource = distSQLExecutor.query("SHOW MIGRATION SOURCE STORAGE UNITS", rs -> {
+                boolean found = false;
                 
-                if (storageUnitName.equals(name)) {
-                    hasSource = true;
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    String type = rs.getString("type");
+                    String host = rs.getString("host");
+                    String port = rs.getString("port");
+                    String db = rs.getString("db");
+                    
+                    log.info("  Source unit: {} - {} - {}:{}/{}", name, type, host, port, db);
+                    
+                    if (storageUnitName.equals(name)) {
+                        found = true;
+                    }
                 }
-            }
+                return found;
+            });
             
             if (!hasSource) {
                 throw new DataMigrationException("Source storage unit '" + storageUnitName + "' not properly registered!");
@@ -172,26 +169,27 @@ public class StorageUnitService {
      * Verify target storage unit.
      */
     private void verifyTargetStorageUnit(String storageUnitName) {
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SHOW STORAGE UNITS")) {
-            
+        try {
             log.info("Verifying target storage unit '{}' registration...", storageUnitName);
-            boolean hasTarget = false;
             
-            while (rs.next()) {
-                String name = rs.getString("name");
-                String type = rs.getString("type");
-                String host = rs.getString("host");
-                String port = rs.getString("port");
-                String db = rs.getString("db");
-                
-                log.info("  Target unit: {} - {} - {}:{}/{}", name, type, host, port, db);
+            boolean hasTarget = distSQLExecutor.query("SHOW STORAGE UNITS", rs -> {
+                boolean found = false;
                 
-                if (storageUnitName.equals(name)) {
-                    hasTarget = true;
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    String type = rs.getString("type");
+                    String host = rs.getString("host");
+                    String port = rs.getString("port");
+                    String db = rs.getString("db");
+                    
+                    log.info("  Target unit: {} - {} - {}:{}/{}", name, type, host, port, db);
+                    
+                    if (storageUnitName.equals(name)) {
+                        found = true;
+                    }
                 }
-            }
+                return found;
+            });
             
             if (!hasTarget) {
                 throw new DataMigrationException("Target storage unit '" + storageUnitName + "' not properly registered!");
@@ -208,43 +206,7 @@ public class StorageUnitService {
      * Build storage unit URL using the connection factory.
      */
     private String buildStorageUnitUrl(JobRequest.DbConfig dbConfig) {
-        DatabaseConnectionConfig config = convertToConnectionConfig(dbConfig);
+        DatabaseConnectionConfig config = DatabaseConnectionConfig.from(dbConfig, null);
         return connectionFactory.buildJdbcUrl(config);
     }
-    
-    /**
-     * Convert JobRequest.DbConfig to DatabaseConnectionConfig.
-     */
-    private DatabaseConnectionConfig convertToConnectionConfig(JobRequest.DbConfig dbConfig) {
-        return DatabaseConnectionConfig.builder()
-            .type(com.poc.migration.infrastructure.database.DatabaseType.fromString(dbConfig.getType()))
-            .host(dbConfig.getHost())
-            .port(dbConfig.getPort())
-            .database(dbConfig.getDatabase())
-            .schema(dbConfig.getSchema())
-            .user(dbConfig.getUser())
-            .password(dbConfig.getPassword())
-            .build();
-    }
-    
-    /**
-     * Execute a DistSQL command on ShardingSphere Proxy.
-     */
-    private void executeDistSQL(String sql) {
-        String preview = sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
-        log.debug("Executing DistSQL: {}", preview);
-        
-        try (Connection conn = connectionService.getMigrationConnection();
-            Statement stmt = conn.createStatement()) {
-            
-            stmt.execute(sql);
-            log.debug("✓ DistSQL executed successfully");
-            
-        } catch (Exception e) {
-            log.error("Failed to execute DistSQL: {}", preview);
-            throw new DataMigrationException("DistSQL execution failed", e);
-        }
-    }
 }
-
-
@@ -0,0 +1,54 @@
+package com.poc.migration.service.migration;
+
+import com.poc.migration.model.TableSchedulingPolicy;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Ordered queue of tables waiting to become migration jobs,
+ * with a cap on how many jobs may be in inventory at once.
+ */
+public class TableSchedule {
+    
+    @Getter
+    private final TableSchedulingPolicy policy;
+    
+    @Getter
+    private final int maxConcurrentInventoryJobs;
+    
+    private final Deque<String> pending;
+    
+    public TableSchedule(TableSchedulingPolicy policy, int maxConcurrentInventoryJobs, List<String> orderedTables) {
+        this.policy = policy;
+        this.maxConcurrentInventoryJobs = maxConcurrentInventoryJobs;
+        this.pending = new ArrayDeque<>(orderedTables);
+    }
+    
+    /**
+     * Take the next tables that fit in the free inventory slots.
+     * With no limit configured every pending table is taken.
+     */
+    public synchronized List<String> nextTables(int jobsInInventory) {
+        int freeSlots = maxConcurrentInventoryJobs > 0
+            ? maxConcurrentInventoryJobs - jobsInInventory
+            : pending.size();
+        
+        List<String> tables = new ArrayList<>();
+        while (freeSlots-- > 0 && !pending.isEmpty()) {
+            tables.add(pending.pollFirst());
+        }
+        return tables;
+    }
+    
+    public synchronized boolean hasPending() {
+        return !pending.isEmpty();
+    }
+    
+    public synchronized List<String> getPendingTables() {
+        return List.copyOf(pending);
+    }
+}
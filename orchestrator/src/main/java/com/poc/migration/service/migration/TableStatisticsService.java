@@ -0,0 +1,97 @@
+package com.poc.migration.service.migration;
+
+import com.poc.migration.exception.DataMigrationException;
+import com.poc.migration.infrastructure.database.DatabaseConnectionConfig;
+import com.poc.migration.infrastructure.database.DatabaseConnectionFactory;
+import com.poc.migration.infrastructure.database.DatabaseType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads cheap catalog statistics (estimated rows, on-disk size) for tables.
+ * Uses information_schema.TABLES on MySQL and pg_class/pg_stat_user_tables on PostgreSQL,
+ * so no table is ever scanned.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TableStatisticsService {
+    
+    private static final String MYSQL_STATISTICS_QUERY = """
+        SELECT TABLE_NAME, TABLE_ROWS, DATA_LENGTH, INDEX_LENGTH
+        FROM information_schema.TABLES
+        WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'BASE TABLE'
+        """;
+    
+    private static final String POSTGRESQL_STATISTICS_QUERY = """
+        SELECT c.relname,
+               CASE WHEN c.reltuples <= 0 THEN COALESCE(s.n_live_tup, 0) ELSE c.reltuples::bigint END,
+               pg_relation_size(c.oid),
+               pg_total_relation_size(c.oid)
+        FROM pg_class c
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid
+        WHERE n.nspname = ? AND c.relkind IN ('r', 'p')
+        """;
+    
+    private final DatabaseConnectionFactory connectionFactory;
+    
+    /**
+     * Get catalog statistics for the given tables.
+     * Tables missing from the catalog are absent from the result.
+     */
+    public Map<String, TableStatistics> getStatistics(DatabaseConnectionConfig config, Collection<String> tables) {
+        Set<String> wanted = new HashSet<>(tables);
+        Map<String, TableStatistics> statistics = new LinkedHashMap<>();
+        boolean postgres = config.getType() == DatabaseType.POSTGRESQL;
+        
+        try (Connection conn = connectionFactory.createConnection(config);
+            PreparedStatement stmt = conn.prepareStatement(
+                postgres ? POSTGRESQL_STATISTICS_QUERY : MYSQL_STATISTICS_QUERY)) {
+            
+            stmt.setString(1, config.getSchemaOrDefault());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString(1);
+                    if (!wanted.contains(table)) {
+                        continue;
+                    }
+                    
+                    long rows = Math.max(0, rs.getLong(2));
+                    TableStatistics tableStatistics = postgres
+                        ? new TableStatistics(table, rows, rs.getLong(3), rs.getLong(4))
+                        : new TableStatistics(table, rows, rs.getLong(3), rs.getLong(3) + rs.getLong(4));
+                    statistics.put(table, tableStatistics);
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DataMigrationException("Failed to read table statistics from " + config.getHost(), e);
+        }
+        
+        log.debug("Read catalog statistics for {}/{} tables", statistics.size(), wanted.size());
+        return statistics;
+    }
+    
+    /**
+     * Catalog estimate for a single table.
+     */
+    public record TableStatistics(
+            String tableName,
+            long estimatedRows,
+            long dataBytes,
+            long totalBytes
+    ) {}
+}